@@ -12,8 +12,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -166,4 +171,111 @@ public class AuthController {
             return ResponseEntity.badRequest().body(error);
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Creates many parent users in one call. Existing usernames and emails are
+     * looked up with one query each; every item gets a status of CREATED,
+     * EXISTS or FAILED so callers can retry only what failed. Only PARENT
+     * accounts can be created here, and only by services presenting the
+     * service token (see SecurityConfig).
+     */
+    @PostMapping("/users/bulk")
+    public ResponseEntity<?> createUsers(@RequestBody List<Map<String, Object>> usersData) {
+        Set<String> usernames = usersData.stream()
+                .map(userData -> (String) userData.get("username"))
+                .filter(username -> username != null)
+                .collect(Collectors.toSet());
+        Set<String> emails = usersData.stream()
+                .map(userData -> (String) userData.get("email"))
+                .filter(email -> email != null)
+                .collect(Collectors.toSet());
+        Set<String> takenUsernames = userRepository.findByUsernameIn(usernames).stream()
+                .map(User::getUsername)
+                .collect(Collectors.toCollection(HashSet::new));
+        Set<String> takenEmails = userRepository.findByEmailIn(emails).stream()
+                .map(User::getEmail)
+                .collect(Collectors.toCollection(HashSet::new));
+        
+        List<Map<String, Object>> results = new ArrayList<>(usersData.size());
+        List<User> toCreate = new ArrayList<>();
+        List<Map<String, Object>> createdResults = new ArrayList<>();
+        for (Map<String, Object> userData : usersData) {
+            String username = (String) userData.get("username");
+            Map<String, Object> result = new HashMap<>();
+            result.put("username", username);
+            results.add(result);
+            
+            if (username == null || username.isBlank()) {
+                result.put("status", "FAILED");
+                result.put("message", "Username is required");
+            } else if (!UserRole.PARENT.name().equals(userData.get("role"))
+                    || !UserType.PARENT.name().equals(userData.get("userType"))) {
+                result.put("status", "FAILED");
+                result.put("message", "Only parent users can be created in bulk");
+            } else if (takenUsernames.contains(username)) {
+                result.put("status", "EXISTS");
+                result.put("message", "Username already exists");
+            } else if (userData.get("email") != null && takenEmails.contains((String) userData.get("email"))) {
+                result.put("status", "FAILED");
+                result.put("message", "Email already exists");
+            } else {
+                try {
+                    toCreate.add(toParentUser(userData));
+                    createdResults.add(result);
+                    takenUsernames.add(username);
+                    if (userData.get("email") != null) {
+                        takenEmails.add((String) userData.get("email"));
+                    }
+                } catch (RuntimeException e) {
+                    result.put("status", "FAILED");
+                    result.put("message", "Invalid user: " + e.getMessage());
+                }
+            }
+        }
+        
+        List<User> saved;
+        try {
+            saved = userRepository.saveAll(toCreate);
+        } catch (Exception e) {
+            // Fall back to one save per user so a single bad row does not fail the batch
+            saved = new ArrayList<>(toCreate.size());
+            for (User user : toCreate) {
+                try {
+                    saved.add(userRepository.save(user));
+                } catch (Exception saveFailure) {
+                    saved.add(null);
+                }
+            }
+        }
+        for (int i = 0; i < createdResults.size(); i++) {
+            Map<String, Object> result = createdResults.get(i);
+            User savedUser = saved.get(i);
+            if (savedUser != null) {
+                result.put("status", "CREATED");
+                result.put("userId", savedUser.getId());
+            } else {
+                result.put("status", "FAILED");
+                result.put("message", "Failed to create user");
+            }
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        return ResponseEntity.ok(response);
+    }
+    
+    private User toParentUser(Map<String, Object> userData) {
+        Boolean enabled = (Boolean) userData.get("enabled");
+        User user = new User();
+        user.setUsername((String) userData.get("username"));
+        user.setPassword((String) userData.get("password")); // Password should already be encoded
+        user.setEmail((String) userData.get("email"));
+        user.setFullName((String) userData.get("fullName"));
+        user.setPhone((String) userData.get("phone"));
+        user.setRole(UserRole.PARENT);
+        user.setUserType(UserType.PARENT);
+        user.setStudentId(userData.get("studentId") != null ? Long.valueOf(userData.get("studentId").toString()) : null);
+        user.setEnabled(enabled != null ? enabled : true);
+        return user;
+    }
+}
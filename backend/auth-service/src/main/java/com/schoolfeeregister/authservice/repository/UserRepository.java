@@ -2,6 +2,8 @@ package com.schoolfeeregister.authservice.repository;
 
 import com.schoolfeeregister.authservice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,4 +13,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByPhone(String phone);
+    List<User> findByUsernameIn(Collection<String> usernames);
+    List<User> findByEmailIn(Collection<String> emails);
 } 
\ No newline at end of file
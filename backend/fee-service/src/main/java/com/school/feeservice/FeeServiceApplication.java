@@ -1,11 +1,16 @@
 package com.school.feeservice;
 
+import com.school.feeservice.config.LateFeeProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
+@EnableConfigurationProperties(LateFeeProperties.class)
 public class FeeServiceApplication {
 
     public static void main(String[] args) {
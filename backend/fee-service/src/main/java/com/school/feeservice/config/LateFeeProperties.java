@@ -0,0 +1,82 @@
+package com.school.feeservice.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Late fee rules, bound from fee.late-fee.*. The default rule applies to
+ * every fee category that has no entry under categories.
+ *
+ * <pre>
+ * fee.late-fee.default.percent=5
+ * fee.late-fee.categories.2.grace-days=7
+ * fee.late-fee.categories.2.slabs[0].from-day=1
+ * fee.late-fee.categories.2.slabs[0].per-day=10
+ * fee.late-fee.categories.2.slabs[1].from-day=16
+ * fee.late-fee.categories.2.slabs[1].per-day=25
+ * fee.late-fee.categories.2.cap=500
+ * fee.late-fee.waived-student-ids=101,102
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "fee.late-fee")
+public class LateFeeProperties {
+
+    // "default" is a keyword, so the property is exposed through getDefault/setDefault
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Rule defaultRule = new Rule();
+
+    // Keyed by fee category id
+    private Map<Long, Rule> categories = new HashMap<>();
+
+    // Students exempt from late fees in every category
+    private Set<Long> waivedStudentIds = new HashSet<>();
+
+    public Rule getDefault() {
+        return defaultRule;
+    }
+
+    public void setDefault(Rule defaultRule) {
+        this.defaultRule = defaultRule;
+    }
+
+    @Data
+    public static class Rule {
+
+        // Days after the due date before any charge applies
+        private int graceDays;
+
+        // One-off percentage of the fee amount once past the grace period
+        private BigDecimal percent = BigDecimal.ZERO;
+
+        // Flat daily charge; ignored when slabs are configured
+        private BigDecimal perDay = BigDecimal.ZERO;
+
+        // Daily charges by overdue day, counted from the end of the grace period
+        private List<Slab> slabs = new ArrayList<>();
+
+        // Upper bound on the total late fee; null or zero means uncapped
+        private BigDecimal cap;
+
+        // Category is exempt from late fees
+        private boolean waived;
+    }
+
+    @Data
+    public static class Slab {
+        private int fromDay = 1;
+        private BigDecimal perDay = BigDecimal.ZERO;
+    }
+}
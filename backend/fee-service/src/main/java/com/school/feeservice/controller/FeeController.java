@@ -1,14 +1,24 @@
 package com.school.feeservice.controller;
 
+import com.school.feeservice.dto.BulkFeeAssignmentRequest;
+import com.school.feeservice.dto.BulkFeeAssignmentResult;
+import com.school.feeservice.dto.CursorPage;
 import com.school.feeservice.dto.FeeStructureDTO;
+import com.school.feeservice.dto.OverdueSweepResult;
 import com.school.feeservice.dto.StudentFeeDTO;
+import com.school.feeservice.dto.StudentLedgerDTO;
 import com.school.feeservice.model.StudentFee;
+import com.school.feeservice.service.BulkFeeAssignmentService;
 import com.school.feeservice.service.FeeService;
+import com.school.feeservice.service.StudentFeeExportService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -21,6 +31,12 @@ public class FeeController {
     @Autowired
     private FeeService feeService;
     
+    @Autowired
+    private BulkFeeAssignmentService bulkFeeAssignmentService;
+    
+    @Autowired
+    private StudentFeeExportService studentFeeExportService;
+    
     // Fee Structure endpoints
     @GetMapping("/structures")
     public ResponseEntity<List<FeeStructureDTO>> getAllFeeStructures() {
@@ -92,6 +108,26 @@ public class FeeController {
         return ResponseEntity.ok(studentFees);
     }
     
+    @GetMapping("/student-fees/page")
+    public ResponseEntity<CursorPage<StudentFeeDTO>> getStudentFeesPage(@RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) Integer size) {
+        CursorPage<StudentFeeDTO> page = feeService.getStudentFeesPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping("/student-fees/export")
+    public ResponseEntity<StreamingResponseBody> exportStudentFees(
+            @RequestParam(defaultValue = "NDJSON") StudentFeeExportService.ExportFormat format,
+            @RequestParam(required = false) StudentFee.Status status) {
+        boolean csv = format == StudentFeeExportService.ExportFormat.CSV;
+        StreamingResponseBody body = outputStream -> studentFeeExportService.export(status, format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"student-fees." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+    
     @GetMapping("/student-fees/{id}")
     public ResponseEntity<StudentFeeDTO> getStudentFeeById(@PathVariable Long id) {
         StudentFeeDTO studentFee = feeService.getStudentFeeById(id);
@@ -135,6 +171,14 @@ public class FeeController {
         return ResponseEntity.ok(studentFees);
     }
     
+    @GetMapping("/student-fees/status/{status}/page")
+    public ResponseEntity<CursorPage<StudentFeeDTO>> getFeesByStatusPage(@PathVariable StudentFee.Status status,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer size) {
+        CursorPage<StudentFeeDTO> page = feeService.getFeesByStatusPage(status, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
     @PostMapping("/student-fees")
     public ResponseEntity<StudentFeeDTO> createStudentFee(@Valid @RequestBody StudentFeeDTO studentFeeDTO) {
         StudentFeeDTO created = feeService.createStudentFee(studentFeeDTO);
@@ -154,6 +198,19 @@ public class FeeController {
         return ResponseEntity.noContent().build();
     }
     
+    // Ledger endpoints
+    @GetMapping("/ledger/{studentId}")
+    public ResponseEntity<StudentLedgerDTO> getStudentLedger(@PathVariable Long studentId) {
+        StudentLedgerDTO ledger = feeService.getStudentLedger(studentId);
+        return ResponseEntity.ok(ledger);
+    }
+    
+    @PostMapping("/ledger/rebuild")
+    public ResponseEntity<Long> rebuildStudentLedgers() {
+        long refreshed = feeService.rebuildStudentLedgers();
+        return ResponseEntity.ok(refreshed);
+    }
+    
     // Business logic endpoints
     @PostMapping("/assign/{studentId}/class/{classId}/year/{academicYearId}")
     public ResponseEntity<Void> assignFeesToStudent(@PathVariable Long studentId, 
@@ -163,10 +220,17 @@ public class FeeController {
         return ResponseEntity.ok().build();
     }
     
+    @PostMapping("/assign/bulk")
+    public ResponseEntity<BulkFeeAssignmentResult> assignFeesInBulk(@Valid @RequestBody BulkFeeAssignmentRequest request) {
+        BulkFeeAssignmentResult result = bulkFeeAssignmentService.assignFees(request);
+        return ResponseEntity.ok(result);
+    }
+    
+    // The sweep runs on its own schedule (fee.overdue-sweep.cron); this is a manual trigger
     @PostMapping("/update-overdue")
-    public ResponseEntity<Void> updateOverdueStatus() {
-        feeService.updateOverdueStatus();
-        return ResponseEntity.ok().build();
+    public ResponseEntity<OverdueSweepResult> updateOverdueStatus() {
+        OverdueSweepResult result = feeService.updateOverdueStatus();
+        return ResponseEntity.ok(result);
     }
     
     @PatchMapping("/student-fees/{id}/apply-discount")
@@ -1,8 +1,11 @@
 package com.school.feeservice.controller;
 
+import com.school.feeservice.dto.CursorPage;
 import com.school.feeservice.dto.PaymentRequest;
 import com.school.feeservice.dto.PaymentResponse;
+import com.school.feeservice.dto.RevenueSummary;
 import com.school.feeservice.model.Payment;
+import com.school.feeservice.service.IdempotentPaymentService;
 import com.school.feeservice.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,15 +24,24 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class PaymentController {
     
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+    
     private final PaymentService paymentService;
+    private final IdempotentPaymentService idempotentPaymentService;
     
     @PostMapping
-    public ResponseEntity<PaymentResponse> processPayment(@Valid @RequestBody PaymentRequest paymentRequest) {
+    public ResponseEntity<PaymentResponse> processPayment(
+            @Valid @RequestBody PaymentRequest paymentRequest,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("Received payment request for student: {}", paymentRequest.getStudentId());
-        PaymentResponse response = paymentService.processPayment(paymentRequest);
+        IdempotentPaymentService.Outcome outcome = idempotentPaymentService.processPayment(paymentRequest, idempotencyKey);
+        PaymentResponse response = outcome.response();
         
         if (response.isSuccess()) {
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAY_HEADER, String.valueOf(outcome.replayed()))
+                    .body(response);
         } else {
             return ResponseEntity.badRequest().body(response);
         }
@@ -94,6 +106,27 @@ public class PaymentController {
         return ResponseEntity.ok(payments);
     }
     
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<CursorPage<PaymentResponse>> getPaymentsByStatusPage(
+            @PathVariable Payment.PaymentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching page of payments with status: {}", status);
+        CursorPage<PaymentResponse> page = paymentService.getPaymentsByStatusPage(status, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping("/date-range/page")
+    public ResponseEntity<CursorPage<PaymentResponse>> getPaymentsByDateRangePage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching page of payments between {} and {}", startDate, endDate);
+        CursorPage<PaymentResponse> page = paymentService.getPaymentsByDateRangePage(startDate, endDate, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
     @GetMapping("/overdue")
     public ResponseEntity<List<PaymentResponse>> getOverduePayments() {
         log.info("Fetching overdue payments");
@@ -150,6 +183,13 @@ public class PaymentController {
         return ResponseEntity.ok(amount);
     }
     
+    @GetMapping("/stats/summary")
+    public ResponseEntity<RevenueSummary> getRevenueSummary() {
+        log.info("Fetching revenue summary");
+        RevenueSummary summary = paymentService.getRevenueSummary();
+        return ResponseEntity.ok(summary);
+    }
+    
     @GetMapping("/stats/student/{studentId}/count")
     public ResponseEntity<Long> getCompletedPaymentsCountByStudent(@PathVariable Long studentId) {
         log.info("Fetching completed payments count for student: {}", studentId);
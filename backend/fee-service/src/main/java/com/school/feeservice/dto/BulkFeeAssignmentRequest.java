@@ -0,0 +1,28 @@
+package com.school.feeservice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkFeeAssignmentRequest {
+    
+    private Long classId;
+    
+    @NotNull(message = "Academic year ID is required")
+    private Long academicYearId;
+    
+    @Size(max = 50000, message = "At most 50000 student IDs can be assigned in one request")
+    private List<Long> studentIds;
+    
+    @AssertTrue(message = "Either classId or studentIds must be provided")
+    public boolean isTargetSpecified() {
+        return classId != null || (studentIds != null && !studentIds.isEmpty());
+    }
+}
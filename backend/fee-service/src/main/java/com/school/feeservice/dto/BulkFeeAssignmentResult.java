@@ -0,0 +1,28 @@
+package com.school.feeservice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkFeeAssignmentResult {
+    
+    private Long classId;
+    private Long academicYearId;
+    private int studentsResolved;
+    private List<Long> unknownStudentIds;
+    private int feeStructuresApplied;
+    private long assignmentsConsidered;
+    private long assignmentsCreated;
+    private long assignmentsSkipped;
+    private int chunksProcessed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String message;
+}
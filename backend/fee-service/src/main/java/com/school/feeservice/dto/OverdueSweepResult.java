@@ -0,0 +1,24 @@
+package com.school.feeservice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OverdueSweepResult {
+
+    private LocalDate asOfDate;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private int chunksProcessed;
+    private long rowsUpdated;
+    private long lateFeesUpdated;
+    private boolean skipped;
+    private String message;
+}
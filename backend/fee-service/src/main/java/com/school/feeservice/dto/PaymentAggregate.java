@@ -0,0 +1,21 @@
+package com.school.feeservice.dto;
+
+import com.school.feeservice.model.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.math.BigDecimal;
+
+/**
+ * One row of the grouped payment aggregate query (status x method).
+ */
+@Data
+@AllArgsConstructor
+public class PaymentAggregate {
+    
+    private Payment.PaymentStatus status;
+    private Payment.PaymentMethod paymentMethod;
+    private Long paymentCount;
+    private BigDecimal totalAmount;
+    private BigDecimal totalLateFees;
+    private BigDecimal totalDiscounts;
+}
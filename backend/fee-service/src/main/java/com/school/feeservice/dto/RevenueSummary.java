@@ -0,0 +1,33 @@
+package com.school.feeservice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueSummary {
+    
+    private long totalPayments;
+    private long completedPayments;
+    private BigDecimal totalCollected;
+    private BigDecimal totalLateFeesCollected;
+    private BigDecimal totalDiscountsGiven;
+    private Map<String, Breakdown> byStatus;
+    private Map<String, Breakdown> byMethod;
+    private LocalDateTime computedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Breakdown {
+        private long count;
+        private BigDecimal amount;
+    }
+}
@@ -29,6 +29,9 @@ public class StudentFeeDTO {
     
     private LocalDate dueDate;
     
+    // Accrued by the overdue sweep; not accepted on writes
+    private BigDecimal lateFeeAmount = BigDecimal.ZERO;
+    
     private StudentFee.Status status = StudentFee.Status.PENDING;
     
     // Constructors
@@ -43,6 +46,7 @@ public class StudentFeeDTO {
         this.discountAmount = studentFee.getDiscountAmount();
         this.netAmount = studentFee.getNetAmount();
         this.dueDate = studentFee.getDueDate();
+        this.lateFeeAmount = studentFee.getLateFeeAmount();
         this.status = studentFee.getStatus();
     }
     
@@ -125,6 +129,14 @@ public class StudentFeeDTO {
         this.dueDate = dueDate;
     }
     
+    public BigDecimal getLateFeeAmount() {
+        return lateFeeAmount;
+    }
+    
+    public void setLateFeeAmount(BigDecimal lateFeeAmount) {
+        this.lateFeeAmount = lateFeeAmount;
+    }
+    
     public StudentFee.Status getStatus() {
         return status;
     }
@@ -0,0 +1,33 @@
+package com.school.feeservice.dto;
+
+import com.school.feeservice.model.StudentLedger;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class StudentLedgerDTO {
+    
+    private Long studentId;
+    private BigDecimal totalBilled;
+    private BigDecimal totalDiscount;
+    private BigDecimal totalPaid;
+    private BigDecimal totalLateFee;
+    private BigDecimal balance;
+    private LocalDate nextDueDate;
+    private LocalDateTime updatedAt;
+    
+    public StudentLedgerDTO(StudentLedger ledger) {
+        this.studentId = ledger.getStudentId();
+        this.totalBilled = ledger.getTotalBilled();
+        this.totalDiscount = ledger.getTotalDiscount();
+        this.totalPaid = ledger.getTotalPaid();
+        this.totalLateFee = ledger.getTotalLateFee();
+        this.balance = ledger.getBalance();
+        this.nextDueDate = ledger.getNextDueDate();
+        this.updatedAt = ledger.getUpdatedAt();
+    }
+}
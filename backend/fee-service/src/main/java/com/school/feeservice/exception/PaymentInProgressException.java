@@ -0,0 +1,12 @@
+package com.school.feeservice.exception;
+
+/**
+ * Thrown when a payment request shares its Idempotency-Key with one that is
+ * still being processed and did not finish within the wait limit.
+ */
+public class PaymentInProgressException extends RuntimeException {
+    
+    public PaymentInProgressException(String idempotencyKey) {
+        super("A payment with idempotency key " + idempotencyKey + " is still being processed; retry later");
+    }
+}
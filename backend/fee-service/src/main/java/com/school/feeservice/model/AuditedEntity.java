@@ -0,0 +1,25 @@
+package com.school.feeservice.model;
+
+import java.util.Map;
+
+/**
+ * An entity whose changes are written to audit_logs by
+ * {@link com.school.feeservice.service.audit.AuditEntityListener}.
+ */
+public interface AuditedEntity {
+
+    Long getId();
+
+    String auditTableName();
+
+    /**
+     * Current column values keyed by column name. Values must be immutable
+     * (numbers, strings, dates, enums); they are serialized off-thread.
+     */
+    Map<String, Object> auditState();
+
+    // State as last loaded or written, used as old_values on the next change
+    Map<String, Object> getAuditBaseline();
+
+    void setAuditBaseline(Map<String, Object> auditBaseline);
+}
@@ -1,15 +1,19 @@
 package com.school.feeservice.model;
 
+import com.school.feeservice.service.audit.AuditEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Entity
 @Table(name = "fee_structures")
-public class FeeStructure {
+@EntityListeners(AuditEntityListener.class)
+public class FeeStructure implements AuditedEntity {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -40,6 +44,9 @@ public class FeeStructure {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    @Transient
+    private Map<String, Object> auditBaseline;
+    
     public enum Frequency {
         MONTHLY, QUARTERLY, SEMESTER, ANNUAL
     }
@@ -129,6 +136,34 @@ public class FeeStructure {
         this.createdAt = createdAt;
     }
     
+    @Override
+    public String auditTableName() {
+        return "fee_structures";
+    }
+    
+    @Override
+    public Map<String, Object> auditState() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("class_id", classId);
+        state.put("fee_category_id", feeCategoryId);
+        state.put("academic_year_id", academicYearId);
+        state.put("amount", amount);
+        state.put("frequency", frequency);
+        state.put("due_date", dueDate);
+        state.put("is_active", isActive);
+        return state;
+    }
+    
+    @Override
+    public Map<String, Object> getAuditBaseline() {
+        return auditBaseline;
+    }
+    
+    @Override
+    public void setAuditBaseline(Map<String, Object> auditBaseline) {
+        this.auditBaseline = auditBaseline;
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
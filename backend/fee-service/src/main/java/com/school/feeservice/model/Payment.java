@@ -1,18 +1,24 @@
 package com.school.feeservice.model;
 
+import com.school.feeservice.service.audit.AuditEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Entity
 @Table(name = "fee_payments")
+@EntityListeners(AuditEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Payment {
+public class Payment implements AuditedEntity {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -56,12 +62,20 @@ public class Payment {
     @Column(name = "notes")
     private String notes;
     
+    @Column(name = "idempotency_key", unique = true, length = 100)
+    private String idempotencyKey;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Map<String, Object> auditBaseline;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -73,6 +87,28 @@ public class Payment {
         updatedAt = LocalDateTime.now();
     }
     
+    @Override
+    public String auditTableName() {
+        return "fee_payments";
+    }
+    
+    @Override
+    public Map<String, Object> auditState() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("student_id", studentId);
+        state.put("fee_structure_id", feeStructureId);
+        state.put("amount", amount);
+        state.put("payment_method", paymentMethod);
+        state.put("payment_status", status);
+        state.put("transaction_id", transactionId);
+        state.put("receipt_number", receiptNumber);
+        state.put("due_date", dueDate);
+        state.put("discount_amount", discountAmount);
+        state.put("late_fee_amount", lateFeeAmount);
+        state.put("notes", notes);
+        return state;
+    }
+    
     public enum PaymentMethod {
         CASH, CARD, ONLINE, BANK_TRANSFER, CHEQUE
     }
@@ -1,15 +1,19 @@
 package com.school.feeservice.model;
 
+import com.school.feeservice.service.audit.AuditEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Entity
 @Table(name = "student_fees")
-public class StudentFee {
+@EntityListeners(AuditEntityListener.class)
+public class StudentFee implements AuditedEntity {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,12 +41,18 @@ public class StudentFee {
     @Column(name = "due_date")
     private LocalDate dueDate;
     
+    @Column(name = "late_fee_amount")
+    private BigDecimal lateFeeAmount = BigDecimal.ZERO;
+    
     @Enumerated(EnumType.STRING)
     private Status status = Status.PENDING;
     
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    @Transient
+    private Map<String, Object> auditBaseline;
+    
     public enum Status {
         PENDING, PAID, PARTIAL, OVERDUE
     }
@@ -127,6 +137,14 @@ public class StudentFee {
         this.dueDate = dueDate;
     }
     
+    public BigDecimal getLateFeeAmount() {
+        return lateFeeAmount;
+    }
+    
+    public void setLateFeeAmount(BigDecimal lateFeeAmount) {
+        this.lateFeeAmount = lateFeeAmount;
+    }
+    
     public Status getStatus() {
         return status;
     }
@@ -143,6 +161,36 @@ public class StudentFee {
         this.createdAt = createdAt;
     }
     
+    @Override
+    public String auditTableName() {
+        return "student_fees";
+    }
+    
+    @Override
+    public Map<String, Object> auditState() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("student_id", studentId);
+        state.put("fee_structure_id", feeStructureId);
+        state.put("academic_year_id", academicYearId);
+        state.put("amount", amount);
+        state.put("discount_amount", discountAmount);
+        state.put("net_amount", netAmount);
+        state.put("due_date", dueDate);
+        state.put("late_fee_amount", lateFeeAmount);
+        state.put("status", status);
+        return state;
+    }
+    
+    @Override
+    public Map<String, Object> getAuditBaseline() {
+        return auditBaseline;
+    }
+    
+    @Override
+    public void setAuditBaseline(Map<String, Object> auditBaseline) {
+        this.auditBaseline = auditBaseline;
+    }
+    
     private void updateNetAmount() {
         if (amount != null && discountAmount != null) {
             this.netAmount = amount.subtract(discountAmount);
@@ -0,0 +1,46 @@
+package com.school.feeservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Materialised per-student totals. Rows are written by StudentLedgerJdbcRepository
+ * only; JPA is used for primary-key reads.
+ */
+@Entity
+@Immutable
+@Table(name = "student_fee_ledgers")
+@Data
+@NoArgsConstructor
+public class StudentLedger {
+    
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+    
+    @Column(name = "total_billed", precision = 12, scale = 2)
+    private BigDecimal totalBilled;
+    
+    @Column(name = "total_discount", precision = 12, scale = 2)
+    private BigDecimal totalDiscount;
+    
+    @Column(name = "total_paid", precision = 12, scale = 2)
+    private BigDecimal totalPaid;
+    
+    @Column(name = "total_late_fee", precision = 12, scale = 2)
+    private BigDecimal totalLateFee;
+    
+    @Column(name = "balance", precision = 12, scale = 2)
+    private BigDecimal balance;
+    
+    @Column(name = "next_due_date")
+    private LocalDate nextDueDate;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
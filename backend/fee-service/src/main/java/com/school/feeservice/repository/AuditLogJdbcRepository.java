@@ -0,0 +1,57 @@
+package com.school.feeservice.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.feeservice.service.audit.AuditEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch insert path for audit_logs. Column snapshots are serialized to the
+ * JSON old_values/new_values columns here, on the audit writer thread.
+ */
+@Repository
+public class AuditLogJdbcRepository {
+
+    private static final String INSERT_AUDIT_LOG =
+            "INSERT INTO audit_logs (table_name, record_id, action, old_values, new_values, user_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public AuditLogJdbcRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void batchInsert(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.tableName());
+            ps.setObject(2, event.recordId());
+            ps.setString(3, event.action().name());
+            ps.setString(4, toJson(event.oldValues()));
+            ps.setString(5, toJson(event.newValues()));
+            ps.setString(6, event.userId());
+            ps.setTimestamp(7, Timestamp.valueOf(event.createdAt()));
+        });
+    }
+
+    private String toJson(Map<String, Object> values) {
+        if (values == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize audit values", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.school.feeservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reserves contiguous blocks of values from the id_sequences table.
+ *
+ * Each reservation is one UPDATE in its own transaction, so blocks handed to
+ * different fee-service instances never overlap.
+ */
+@Repository
+public class IdSequenceRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdSequenceRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserves blockSize values and returns the first one; the caller owns
+     * [first, first + blockSize).
+     */
+    public long reserveBlock(String sequenceName, int blockSize) {
+        Long first = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("INSERT IGNORE INTO id_sequences (name, next_value) VALUES (?, 1)", sequenceName);
+            // LAST_INSERT_ID(expr) makes the new value readable on this connection without a second lock
+            jdbcTemplate.update("UPDATE id_sequences SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?",
+                    blockSize, sequenceName);
+            Long end = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+            return end - blockSize;
+        });
+        if (first == null) {
+            throw new IllegalStateException("Could not reserve id block for sequence " + sequenceName);
+        }
+        return first;
+    }
+}
@@ -1,6 +1,8 @@
 package com.school.feeservice.repository;
 
+import com.school.feeservice.dto.PaymentAggregate;
 import com.school.feeservice.model.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,6 +24,8 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     Optional<Payment> findByReceiptNumber(String receiptNumber);
     
+    Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+    
     @Query("SELECT p FROM Payment p WHERE p.studentId = :studentId AND p.paymentDate BETWEEN :startDate AND :endDate")
     List<Payment> findByStudentIdAndDateRange(@Param("studentId") Long studentId, 
                                              @Param("startDate") LocalDateTime startDate, 
@@ -39,4 +43,21 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.studentId = :studentId AND p.status = 'COMPLETED'")
     Double getTotalPaidAmountByStudent(@Param("studentId") Long studentId);
-} 
\ No newline at end of file
+    
+    @Query("SELECT new com.school.feeservice.dto.PaymentAggregate(p.status, p.paymentMethod, COUNT(p), " +
+           "SUM(p.amount), SUM(p.lateFeeAmount), SUM(p.discountAmount)) " +
+           "FROM Payment p GROUP BY p.status, p.paymentMethod")
+    List<PaymentAggregate> aggregateByStatusAndMethod();
+    
+    // Keyset pagination: pass the last id seen and a Pageable limited to the page size
+    @Query("SELECT p FROM Payment p WHERE p.status = :status AND p.id > :afterId ORDER BY p.id")
+    List<Payment> findPageByStatusAfter(@Param("status") Payment.PaymentStatus status,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+    
+    @Query("SELECT p FROM Payment p WHERE p.paymentDate BETWEEN :startDate AND :endDate AND p.id > :afterId ORDER BY p.id")
+    List<Payment> findPageByDateRangeAfter(@Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+}
\ No newline at end of file
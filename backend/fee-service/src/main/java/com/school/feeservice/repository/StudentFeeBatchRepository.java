@@ -0,0 +1,188 @@
+package com.school.feeservice.repository;
+
+import com.school.feeservice.model.StudentFee;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plain JDBC write path for bulk student fee assignment.
+ *
+ * StudentFee uses IDENTITY generation, which stops Hibernate from batching
+ * inserts, so bulk assignment and late fee accrual bypass the persistence
+ * context entirely.
+ */
+@Repository
+public class StudentFeeBatchRepository {
+
+    private static final String INSERT_STUDENT_FEE =
+            "INSERT IGNORE INTO student_fees (student_id, fee_structure_id, academic_year_id, amount, " +
+            "discount_amount, net_amount, due_date, status, created_at) VALUES (?, ?, ?, ?, 0.00, ?, ?, ?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public StudentFeeBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Resolves active students of a class and academic year to their class id.
+     */
+    public Map<Long, Long> findActiveStudentClasses(Long classId, Long academicYearId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("classId", classId)
+                .addValue("academicYearId", academicYearId);
+        return queryStudentClasses(
+                "SELECT id, class_id FROM students WHERE class_id = :classId " +
+                "AND academic_year_id = :academicYearId AND is_active = true", params);
+    }
+
+    /**
+     * Resolves the given student ids to their class id; unknown ids are omitted.
+     */
+    public Map<Long, Long> findStudentClasses(Collection<Long> studentIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", studentIds);
+        return queryStudentClasses("SELECT id, class_id FROM students WHERE id IN (:ids)", params);
+    }
+
+    /**
+     * Returns "studentId:feeStructureId" keys already assigned for the given students.
+     */
+    public Set<String> findExistingAssignments(Collection<Long> studentIds, Collection<Long> feeStructureIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("studentIds", studentIds)
+                .addValue("feeStructureIds", feeStructureIds);
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query(
+                "SELECT student_id, fee_structure_id FROM student_fees " +
+                "WHERE student_id IN (:studentIds) AND fee_structure_id IN (:feeStructureIds)",
+                params,
+                rs -> {
+                    existing.add(assignmentKey(rs.getLong("student_id"), rs.getLong("fee_structure_id")));
+                });
+        return existing;
+    }
+
+    /**
+     * Inserts the given fees as one JDBC batch. Rows that collide with an
+     * existing (student_id, fee_structure_id) pair are ignored.
+     *
+     * The driver cannot say how many rows a rewritten INSERT IGNORE batch
+     * really inserted (it reports SUCCESS_NO_INFO), so the result is the
+     * change in the number of assignments over the batch's students and
+     * structures. Call this inside a transaction so both counts read the
+     * same snapshot.
+     *
+     * @return number of rows inserted
+     */
+    public int batchInsert(List<StudentFee> studentFees) {
+        if (studentFees.isEmpty()) {
+            return 0;
+        }
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> feeStructureIds = new HashSet<>();
+        for (StudentFee fee : studentFees) {
+            studentIds.add(fee.getStudentId());
+            feeStructureIds.add(fee.getFeeStructureId());
+        }
+        long before = countAssignments(studentIds, feeStructureIds);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_STUDENT_FEE, studentFees, studentFees.size(),
+                (ps, fee) -> {
+                    ps.setLong(1, fee.getStudentId());
+                    ps.setLong(2, fee.getFeeStructureId());
+                    ps.setLong(3, fee.getAcademicYearId());
+                    ps.setBigDecimal(4, fee.getAmount());
+                    ps.setBigDecimal(5, fee.getNetAmount());
+                    ps.setDate(6, fee.getDueDate() != null ? Date.valueOf(fee.getDueDate()) : null);
+                    ps.setString(7, StudentFee.Status.PENDING.name());
+                    ps.setTimestamp(8, now);
+                });
+
+        return (int) (countAssignments(studentIds, feeStructureIds) - before);
+    }
+
+    private long countAssignments(Collection<Long> studentIds, Collection<Long> feeStructureIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("studentIds", studentIds)
+                .addValue("feeStructureIds", feeStructureIds);
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_fees " +
+                "WHERE student_id IN (:studentIds) AND fee_structure_id IN (:feeStructureIds)",
+                params, Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Next chunk of OVERDUE fees after the given id, with the fee category of
+     * their structure, in id order.
+     */
+    public List<OverdueFee> findOverdueFeesAfter(long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        List<OverdueFee> fees = new ArrayList<>(limit);
+        jdbcTemplate.query(
+                "SELECT sf.id, sf.student_id, fs.fee_category_id, sf.net_amount, sf.due_date, sf.late_fee_amount " +
+                "FROM student_fees sf LEFT JOIN fee_structures fs ON fs.id = sf.fee_structure_id " +
+                "WHERE sf.status = 'OVERDUE' AND sf.id > :afterId ORDER BY sf.id LIMIT :limit",
+                params,
+                rs -> {
+                    Date dueDate = rs.getDate("due_date");
+                    fees.add(new OverdueFee(
+                            rs.getLong("id"),
+                            rs.getLong("student_id"),
+                            rs.getObject("fee_category_id", Long.class),
+                            rs.getBigDecimal("net_amount"),
+                            dueDate != null ? dueDate.toLocalDate() : null,
+                            rs.getBigDecimal("late_fee_amount")));
+                });
+        return fees;
+    }
+
+    /**
+     * Writes the given late fee amounts as one JDBC batch.
+     */
+    public void batchUpdateLateFees(Map<Long, BigDecimal> lateFeesById) {
+        if (lateFeesById.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, BigDecimal>> updates = new ArrayList<>(lateFeesById.entrySet());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "UPDATE student_fees SET late_fee_amount = ? WHERE id = ?", updates, updates.size(),
+                (ps, update) -> {
+                    ps.setBigDecimal(1, update.getValue());
+                    ps.setLong(2, update.getKey());
+                });
+    }
+
+    public static String assignmentKey(Long studentId, Long feeStructureId) {
+        return studentId + ":" + feeStructureId;
+    }
+
+    private Map<Long, Long> queryStudentClasses(String sql, MapSqlParameterSource params) {
+        Map<Long, Long> studentClasses = new HashMap<>();
+        jdbcTemplate.query(sql, params, rs -> {
+            studentClasses.put(rs.getLong("id"), rs.getObject("class_id", Long.class));
+        });
+        return studentClasses;
+    }
+
+    public record OverdueFee(long id, long studentId, Long feeCategoryId, BigDecimal netAmount, LocalDate dueDate,
+                             BigDecimal lateFeeAmount) {
+    }
+}
@@ -1,13 +1,19 @@
 package com.school.feeservice.repository;
 
 import com.school.feeservice.model.StudentFee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentFeeRepository extends JpaRepository<StudentFee, Long> {
@@ -30,4 +36,52 @@ public interface StudentFeeRepository extends JpaRepository<StudentFee, Long> {
     
     @Query("SELECT sf FROM StudentFee sf WHERE sf.studentId = :studentId AND sf.status = 'OVERDUE'")
     List<StudentFee> findOverdueFeesByStudent(@Param("studentId") Long studentId);
-} 
\ No newline at end of file
+    
+    // Keyset chunking for the overdue sweep: upper id bound of the next chunk of PENDING fees past due
+    @Query(value = "SELECT MAX(chunk.id) FROM (SELECT sf.id FROM student_fees sf WHERE sf.id > :afterId " +
+                   "AND sf.status = 'PENDING' AND sf.due_date < :today ORDER BY sf.id LIMIT :chunkSize) chunk",
+           nativeQuery = true)
+    Long findOverdueChunkUpperBound(@Param("afterId") Long afterId,
+                                    @Param("today") LocalDate today,
+                                    @Param("chunkSize") int chunkSize);
+    
+    // Students whose fees markOverdueInRange is about to flip, so their ledgers can be refreshed
+    @Query(value = "SELECT DISTINCT sf.student_id FROM student_fees sf WHERE sf.id > :afterId AND sf.id <= :upToId " +
+                   "AND sf.status = 'PENDING' AND sf.due_date < :today",
+           nativeQuery = true)
+    List<Long> findOverdueStudentIdsInRange(@Param("afterId") Long afterId,
+                                            @Param("upToId") Long upToId,
+                                            @Param("today") LocalDate today);
+    
+    @Modifying
+    @Query(value = "UPDATE student_fees SET status = 'OVERDUE' WHERE id > :afterId AND id <= :upToId " +
+                   "AND status = 'PENDING' AND due_date < :today",
+           nativeQuery = true)
+    int markOverdueInRange(@Param("afterId") Long afterId,
+                           @Param("upToId") Long upToId,
+                           @Param("today") LocalDate today);
+    
+    // Keyset pagination: pass the last id seen and a Pageable limited to the page size
+    @Query("SELECT sf FROM StudentFee sf WHERE sf.id > :afterId ORDER BY sf.id")
+    List<StudentFee> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT sf FROM StudentFee sf WHERE sf.status = :status AND sf.id > :afterId ORDER BY sf.id")
+    List<StudentFee> findPageByStatusAfter(@Param("status") StudentFee.Status status,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+    
+    // Streaming exports; must be consumed inside a read-only transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT sf FROM StudentFee sf ORDER BY sf.id")
+    Stream<StudentFee> streamAll();
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT sf FROM StudentFee sf WHERE sf.status = :status ORDER BY sf.id")
+    Stream<StudentFee> streamByStatus(@Param("status") StudentFee.Status status);
+}
\ No newline at end of file
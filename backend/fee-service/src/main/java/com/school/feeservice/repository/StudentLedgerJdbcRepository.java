@@ -0,0 +1,86 @@
+package com.school.feeservice.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes the student_fee_ledgers projection with set-based SQL.
+ *
+ * A refresh recomputes the given students' rows from student_fees and
+ * fee_payments in one INSERT ... SELECT ... ON DUPLICATE KEY UPDATE, so a
+ * ledger row can never drift from the data it summarises.
+ *
+ * Late fees come from two places: the overdue sweep accrues them on
+ * student_fees, and a payment made late records the late fee it charged on
+ * fee_payments. Both count towards total_late_fee. Only the accrued amount
+ * adds to the balance, since a payment's own late fee is settled by that
+ * same payment.
+ */
+@Repository
+public class StudentLedgerJdbcRepository {
+
+    private static final String REFRESH_LEDGERS =
+            "INSERT INTO student_fee_ledgers (student_id, total_billed, total_discount, total_paid, " +
+            "total_late_fee, balance, next_due_date, updated_at) " +
+            "SELECT ids.student_id, COALESCE(f.billed, 0), COALESCE(f.discount, 0), COALESCE(p.paid, 0), " +
+            "COALESCE(f.late_fee, 0) + COALESCE(p.late_fee, 0), " +
+            "COALESCE(f.billed, 0) - COALESCE(f.discount, 0) + COALESCE(f.late_fee, 0) - COALESCE(p.paid, 0), " +
+            "f.next_due_date, NOW() " +
+            "FROM (SELECT student_id FROM student_fees WHERE student_id IN (:studentIds) " +
+            "      UNION SELECT student_id FROM fee_payments WHERE student_id IN (:studentIds)) ids " +
+            "LEFT JOIN (SELECT student_id, SUM(amount) AS billed, SUM(COALESCE(discount_amount, 0)) AS discount, " +
+            "           SUM(late_fee_amount) AS late_fee, " +
+            "           MIN(CASE WHEN status <> 'PAID' THEN due_date END) AS next_due_date " +
+            "           FROM student_fees WHERE student_id IN (:studentIds) GROUP BY student_id) f " +
+            "       ON f.student_id = ids.student_id " +
+            "LEFT JOIN (SELECT student_id, SUM(amount) AS paid, SUM(COALESCE(late_fee_amount, 0)) AS late_fee " +
+            "           FROM fee_payments WHERE student_id IN (:studentIds) AND payment_status = 'COMPLETED' " +
+            "           GROUP BY student_id) p " +
+            "       ON p.student_id = ids.student_id " +
+            "ON DUPLICATE KEY UPDATE total_billed = VALUES(total_billed), total_discount = VALUES(total_discount), " +
+            "total_paid = VALUES(total_paid), total_late_fee = VALUES(total_late_fee), balance = VALUES(balance), " +
+            "next_due_date = VALUES(next_due_date), updated_at = VALUES(updated_at)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public StudentLedgerJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Recomputes the ledger rows of the given students. Students with no fees
+     * and no payments left keep a zeroed row instead of being deleted.
+     */
+    public void refresh(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("studentIds", studentIds);
+        jdbcTemplate.update(REFRESH_LEDGERS, params);
+        jdbcTemplate.update(
+                "UPDATE student_fee_ledgers SET total_billed = 0, total_discount = 0, total_paid = 0, " +
+                "total_late_fee = 0, balance = 0, next_due_date = NULL, updated_at = NOW() " +
+                "WHERE student_id IN (:studentIds) " +
+                "AND NOT EXISTS (SELECT 1 FROM student_fees sf WHERE sf.student_id = student_fee_ledgers.student_id) " +
+                "AND NOT EXISTS (SELECT 1 FROM fee_payments fp WHERE fp.student_id = student_fee_ledgers.student_id)",
+                params);
+    }
+
+    /**
+     * Next chunk of student ids that have fees or payments, in id order.
+     */
+    public List<Long> findStudentIdsAfter(long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(
+                "SELECT student_id FROM (SELECT student_id FROM student_fees WHERE student_id > :afterId " +
+                "UNION SELECT student_id FROM fee_payments WHERE student_id > :afterId) ids " +
+                "ORDER BY student_id LIMIT :limit",
+                params, Long.class);
+    }
+}
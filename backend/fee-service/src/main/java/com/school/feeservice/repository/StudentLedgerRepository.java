@@ -0,0 +1,9 @@
+package com.school.feeservice.repository;
+
+import com.school.feeservice.model.StudentLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StudentLedgerRepository extends JpaRepository<StudentLedger, Long> {
+}
@@ -0,0 +1,156 @@
+package com.school.feeservice.service;
+
+import com.school.feeservice.dto.BulkFeeAssignmentRequest;
+import com.school.feeservice.dto.BulkFeeAssignmentResult;
+import com.school.feeservice.model.FeeStructure;
+import com.school.feeservice.model.StudentFee;
+import com.school.feeservice.repository.FeeStructureRepository;
+import com.school.feeservice.repository.StudentFeeBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns the active fee structures of an academic year to many students at once.
+ *
+ * Students are processed in chunks. For each chunk the already assigned
+ * (student, structure) pairs are read with one query, and only the missing
+ * pairs are written as a JDBC batch in the chunk's own transaction, so the
+ * operation can be re-run safely after a partial failure.
+ */
+@Service
+@Slf4j
+public class BulkFeeAssignmentService {
+
+    private final FeeStructureRepository feeStructureRepository;
+    private final StudentFeeBatchRepository studentFeeBatchRepository;
+    private final StudentLedgerService studentLedgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BulkFeeAssignmentService(FeeStructureRepository feeStructureRepository,
+                                    StudentFeeBatchRepository studentFeeBatchRepository,
+                                    StudentLedgerService studentLedgerService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${fee.bulk-assign.chunk-size:500}") int chunkSize) {
+        this.feeStructureRepository = feeStructureRepository;
+        this.studentFeeBatchRepository = studentFeeBatchRepository;
+        this.studentLedgerService = studentLedgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkFeeAssignmentResult assignFees(BulkFeeAssignmentRequest request) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Long academicYearId = request.getAcademicYearId();
+
+        Map<Long, Long> studentClasses = resolveStudents(request);
+        List<Long> unknownStudentIds = new ArrayList<>();
+        if (request.getStudentIds() != null) {
+            for (Long studentId : new LinkedHashSet<>(request.getStudentIds())) {
+                if (!studentClasses.containsKey(studentId)) {
+                    unknownStudentIds.add(studentId);
+                }
+            }
+        }
+
+        // Active structures for the year, grouped by the class they apply to
+        Map<Long, List<FeeStructure>> structuresByClass = feeStructureRepository.findByAcademicYearId(academicYearId).stream()
+                .filter(fs -> Boolean.TRUE.equals(fs.getIsActive()) && fs.getClassId() != null)
+                .filter(fs -> request.getClassId() == null || request.getClassId().equals(fs.getClassId()))
+                .collect(Collectors.groupingBy(FeeStructure::getClassId));
+        Set<Long> structureIds = structuresByClass.values().stream()
+                .flatMap(List::stream)
+                .map(FeeStructure::getId)
+                .collect(Collectors.toSet());
+
+        long considered = 0;
+        long created = 0;
+        int chunks = 0;
+
+        if (!structureIds.isEmpty()) {
+            List<Long> studentIds = new ArrayList<>(studentClasses.keySet());
+            for (int from = 0; from < studentIds.size(); from += chunkSize) {
+                List<Long> chunk = studentIds.subList(from, Math.min(from + chunkSize, studentIds.size()));
+                List<StudentFee> toInsert = buildMissingAssignments(chunk, studentClasses, structuresByClass,
+                        structureIds, academicYearId);
+                considered += countPairs(chunk, studentClasses, structuresByClass);
+
+                Integer inserted = transactionTemplate.execute(status -> {
+                    int rows = studentFeeBatchRepository.batchInsert(toInsert);
+                    studentLedgerService.refresh(chunk);
+                    return rows;
+                });
+                created += inserted != null ? inserted : 0;
+                chunks++;
+
+                log.debug("Bulk fee assignment chunk {}: {} students, {} new assignments",
+                        chunks, chunk.size(), toInsert.size());
+            }
+        }
+
+        log.info("Bulk fee assignment for year {} created {} of {} assignments across {} students",
+                academicYearId, created, considered, studentClasses.size());
+
+        return BulkFeeAssignmentResult.builder()
+                .classId(request.getClassId())
+                .academicYearId(academicYearId)
+                .studentsResolved(studentClasses.size())
+                .unknownStudentIds(unknownStudentIds)
+                .feeStructuresApplied(structureIds.size())
+                .assignmentsConsidered(considered)
+                .assignmentsCreated(created)
+                .assignmentsSkipped(considered - created)
+                .chunksProcessed(chunks)
+                .startedAt(startedAt)
+                .finishedAt(LocalDateTime.now())
+                .message(structureIds.isEmpty() ? "No active fee structures found" : "Bulk fee assignment completed")
+                .build();
+    }
+
+    private Map<Long, Long> resolveStudents(BulkFeeAssignmentRequest request) {
+        if (request.getStudentIds() != null && !request.getStudentIds().isEmpty()) {
+            Map<Long, Long> studentClasses = studentFeeBatchRepository.findStudentClasses(request.getStudentIds());
+            if (request.getClassId() != null) {
+                studentClasses.values().removeIf(classId -> !request.getClassId().equals(classId));
+            }
+            return studentClasses;
+        }
+        return studentFeeBatchRepository.findActiveStudentClasses(request.getClassId(), request.getAcademicYearId());
+    }
+
+    private List<StudentFee> buildMissingAssignments(List<Long> studentIds, Map<Long, Long> studentClasses,
+                                                     Map<Long, List<FeeStructure>> structuresByClass,
+                                                     Set<Long> structureIds, Long academicYearId) {
+        Set<String> existing = studentFeeBatchRepository.findExistingAssignments(studentIds, structureIds);
+        List<StudentFee> toInsert = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            for (FeeStructure feeStructure : structuresByClass.getOrDefault(studentClasses.get(studentId), List.of())) {
+                if (!existing.contains(StudentFeeBatchRepository.assignmentKey(studentId, feeStructure.getId()))) {
+                    toInsert.add(new StudentFee(studentId, feeStructure.getId(), academicYearId,
+                            feeStructure.getAmount(), feeStructure.getDueDate()));
+                }
+            }
+        }
+        return toInsert;
+    }
+
+    private long countPairs(List<Long> studentIds, Map<Long, Long> studentClasses,
+                            Map<Long, List<FeeStructure>> structuresByClass) {
+        long pairs = 0;
+        for (Long studentId : studentIds) {
+            pairs += structuresByClass.getOrDefault(studentClasses.get(studentId), List.of()).size();
+        }
+        return pairs;
+    }
+}
@@ -1,17 +1,22 @@
 package com.school.feeservice.service;
 
+import com.school.feeservice.dto.CursorPage;
 import com.school.feeservice.dto.FeeStructureDTO;
+import com.school.feeservice.dto.OverdueSweepResult;
 import com.school.feeservice.dto.StudentFeeDTO;
+import com.school.feeservice.dto.StudentLedgerDTO;
 import com.school.feeservice.exception.FeeNotFoundException;
 import com.school.feeservice.model.FeeStructure;
 import com.school.feeservice.model.StudentFee;
 import com.school.feeservice.repository.FeeStructureRepository;
 import com.school.feeservice.repository.StudentFeeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,6 +29,15 @@ public class FeeService {
     @Autowired
     private StudentFeeRepository studentFeeRepository;
     
+    @Autowired
+    private OverdueSweepService overdueSweepService;
+    
+    @Autowired
+    private FeeStructureCache feeStructureCache;
+    
+    @Autowired
+    private StudentLedgerService studentLedgerService;
+    
     // Fee Structure methods
     public List<FeeStructureDTO> getAllFeeStructures() {
         return feeStructureRepository.findAll().stream()
@@ -44,26 +58,21 @@ public class FeeService {
     }
     
     public List<FeeStructureDTO> getFeeStructuresByClassAndYear(Long classId, Long academicYearId) {
-        return feeStructureRepository.findByClassIdAndAcademicYearId(classId, academicYearId).stream()
-                .map(FeeStructureDTO::new)
-                .collect(Collectors.toList());
+        return feeStructureCache.getByClassAndYear(classId, academicYearId);
     }
     
     public List<FeeStructureDTO> getActiveFeeStructures() {
-        return feeStructureRepository.findByIsActive(true).stream()
-                .map(FeeStructureDTO::new)
-                .collect(Collectors.toList());
+        return feeStructureCache.getActive();
     }
     
     public List<FeeStructureDTO> getFeeStructuresByCategory(Long feeCategoryId) {
-        return feeStructureRepository.findByFeeCategoryIdAndActive(feeCategoryId).stream()
-                .map(FeeStructureDTO::new)
-                .collect(Collectors.toList());
+        return feeStructureCache.getActiveByCategory(feeCategoryId);
     }
     
     public FeeStructureDTO createFeeStructure(FeeStructureDTO feeStructureDTO) {
         FeeStructure feeStructure = feeStructureDTO.toEntity();
         FeeStructure saved = feeStructureRepository.save(feeStructure);
+        feeStructureCache.invalidateAll();
         return new FeeStructureDTO(saved);
     }
     
@@ -80,6 +89,7 @@ public class FeeService {
         existingFeeStructure.setIsActive(feeStructureDTO.getIsActive());
         
         FeeStructure updated = feeStructureRepository.save(existingFeeStructure);
+        feeStructureCache.invalidateAll();
         return new FeeStructureDTO(updated);
     }
     
@@ -88,6 +98,7 @@ public class FeeService {
             throw new FeeNotFoundException(id, "Fee Structure");
         }
         feeStructureRepository.deleteById(id);
+        feeStructureCache.invalidateAll();
     }
     
     // Student Fee methods
@@ -97,6 +108,13 @@ public class FeeService {
                 .collect(Collectors.toList());
     }
     
+    public CursorPage<StudentFeeDTO> getStudentFeesPage(String cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        List<StudentFee> rows = studentFeeRepository.findPageAfter(
+                CursorPage.decodeCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, StudentFee::getId, StudentFeeDTO::new);
+    }
+    
     public StudentFeeDTO getStudentFeeById(Long id) {
         StudentFee studentFee = studentFeeRepository.findById(id)
                 .orElseThrow(() -> new FeeNotFoundException(id, "Student Fee"));
@@ -139,15 +157,24 @@ public class FeeService {
                 .collect(Collectors.toList());
     }
     
+    public CursorPage<StudentFeeDTO> getFeesByStatusPage(StudentFee.Status status, String cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        List<StudentFee> rows = studentFeeRepository.findPageByStatusAfter(
+                status, CursorPage.decodeCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, StudentFee::getId, StudentFeeDTO::new);
+    }
+    
     public StudentFeeDTO createStudentFee(StudentFeeDTO studentFeeDTO) {
         StudentFee studentFee = studentFeeDTO.toEntity();
         StudentFee saved = studentFeeRepository.save(studentFee);
+        studentLedgerService.refresh(saved.getStudentId());
         return new StudentFeeDTO(saved);
     }
     
     public StudentFeeDTO updateStudentFee(Long id, StudentFeeDTO studentFeeDTO) {
         StudentFee existingStudentFee = studentFeeRepository.findById(id)
                 .orElseThrow(() -> new FeeNotFoundException(id, "Student Fee"));
+        Long previousStudentId = existingStudentFee.getStudentId();
         
         existingStudentFee.setStudentId(studentFeeDTO.getStudentId());
         existingStudentFee.setFeeStructureId(studentFeeDTO.getFeeStructureId());
@@ -158,14 +185,15 @@ public class FeeService {
         existingStudentFee.setStatus(studentFeeDTO.getStatus());
         
         StudentFee updated = studentFeeRepository.save(existingStudentFee);
+        studentLedgerService.refresh(Arrays.asList(previousStudentId, updated.getStudentId()));
         return new StudentFeeDTO(updated);
     }
     
     public void deleteStudentFee(Long id) {
-        if (!studentFeeRepository.existsById(id)) {
-            throw new FeeNotFoundException(id, "Student Fee");
-        }
+        StudentFee studentFee = studentFeeRepository.findById(id)
+                .orElseThrow(() -> new FeeNotFoundException(id, "Student Fee"));
         studentFeeRepository.deleteById(id);
+        studentLedgerService.refresh(studentFee.getStudentId());
     }
     
     // Business logic methods
@@ -184,18 +212,19 @@ public class FeeService {
                 studentFeeRepository.save(studentFee);
             }
         }
+        studentLedgerService.refresh(studentId);
     }
     
-    public void updateOverdueStatus() {
-        List<StudentFee> pendingFees = studentFeeRepository.findByStatus(StudentFee.Status.PENDING);
-        LocalDate today = LocalDate.now();
-        
-        for (StudentFee studentFee : pendingFees) {
-            if (studentFee.getDueDate().isBefore(today)) {
-                studentFee.setStatus(StudentFee.Status.OVERDUE);
-                studentFeeRepository.save(studentFee);
-            }
-        }
+    public StudentLedgerDTO getStudentLedger(Long studentId) {
+        return studentLedgerService.getLedger(studentId);
+    }
+    
+    public long rebuildStudentLedgers() {
+        return studentLedgerService.rebuildAll();
+    }
+    
+    public OverdueSweepResult updateOverdueStatus() {
+        return overdueSweepService.sweep(LocalDate.now());
     }
     
     public StudentFeeDTO applyDiscount(Long studentFeeId, BigDecimal discountAmount) {
@@ -208,6 +237,7 @@ public class FeeService {
         
         studentFee.setDiscountAmount(discountAmount);
         StudentFee updated = studentFeeRepository.save(studentFee);
+        studentLedgerService.refresh(updated.getStudentId());
         return new StudentFeeDTO(updated);
     }
     
@@ -217,6 +247,7 @@ public class FeeService {
         
         studentFee.setStatus(StudentFee.Status.PAID);
         StudentFee updated = studentFeeRepository.save(studentFee);
+        studentLedgerService.refresh(updated.getStudentId());
         return new StudentFeeDTO(updated);
     }
     
@@ -226,6 +257,7 @@ public class FeeService {
         
         studentFee.setStatus(StudentFee.Status.PARTIAL);
         StudentFee updated = studentFeeRepository.save(studentFee);
+        studentLedgerService.refresh(updated.getStudentId());
         return new StudentFeeDTO(updated);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.school.feeservice.service;
+
+import com.school.feeservice.dto.FeeStructureDTO;
+import com.school.feeservice.model.FeeStructure;
+import com.school.feeservice.repository.FeeStructureRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache for fee structure lookups by class/year, category and
+ * active flag. Entries expire after a TTL and the least recently used ones
+ * are dropped once the cache is full. Any fee structure write clears the
+ * whole cache, since structures change only a few times a year.
+ *
+ * Hit and miss counts are published as fee.structure.cache.requests.
+ */
+@Component
+@Slf4j
+public class FeeStructureCache {
+
+    private static final String ACTIVE_KEY = "active";
+
+    private final FeeStructureRepository feeStructureRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final boolean preload;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final LinkedHashMap<String, CachedEntry> entries;
+
+    public FeeStructureCache(FeeStructureRepository feeStructureRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${fee.structure-cache.max-entries:1000}") int maxEntries,
+                             @Value("${fee.structure-cache.ttl-minutes:60}") long ttlMinutes,
+                             @Value("${fee.structure-cache.preload:false}") boolean preload) {
+        this.feeStructureRepository = feeStructureRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.preload = preload;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedEntry> eldest) {
+                return size() > FeeStructureCache.this.maxEntries;
+            }
+        };
+        this.hits = Counter.builder("fee.structure.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("fee.structure.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("fee.structure.cache.size", this, FeeStructureCache::size)
+                .register(meterRegistry);
+    }
+
+    public List<FeeStructureDTO> getByClassAndYear(Long classId, Long academicYearId) {
+        return get(classYearKey(classId, academicYearId),
+                () -> feeStructureRepository.findByClassIdAndAcademicYearId(classId, academicYearId));
+    }
+
+    public List<FeeStructureDTO> getActive() {
+        return get(ACTIVE_KEY, () -> feeStructureRepository.findByIsActive(true));
+    }
+
+    public List<FeeStructureDTO> getActiveByCategory(Long feeCategoryId) {
+        return get(categoryKey(feeCategoryId), () -> feeStructureRepository.findByFeeCategoryIdAndActive(feeCategoryId));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadOnStartup() {
+        if (!preload) {
+            return;
+        }
+        long loadGeneration = generation.get();
+        List<FeeStructure> all = feeStructureRepository.findAll();
+
+        Map<String, List<FeeStructure>> byClassAndYear = all.stream()
+                .filter(fs -> fs.getClassId() != null && fs.getAcademicYearId() != null)
+                .collect(Collectors.groupingBy(fs -> classYearKey(fs.getClassId(), fs.getAcademicYearId())));
+        List<FeeStructure> active = all.stream()
+                .filter(fs -> Boolean.TRUE.equals(fs.getIsActive()))
+                .toList();
+        Map<String, List<FeeStructure>> byCategory = active.stream()
+                .filter(fs -> fs.getFeeCategoryId() != null)
+                .collect(Collectors.groupingBy(fs -> categoryKey(fs.getFeeCategoryId())));
+
+        byClassAndYear.forEach((key, structures) -> put(key, structures, loadGeneration));
+        byCategory.forEach((key, structures) -> put(key, structures, loadGeneration));
+        put(ACTIVE_KEY, active, loadGeneration);
+
+        log.info("Preloaded fee structure cache with {} entries from {} structures", size(), all.size());
+    }
+
+    private List<FeeStructureDTO> get(String key, Supplier<List<FeeStructure>> loader) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedEntry entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt < ttlMillis) {
+                hits.increment();
+                return entry.structures;
+            }
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        return put(key, loader.get(), loadGeneration);
+    }
+
+    private List<FeeStructureDTO> put(String key, List<FeeStructure> structures, long loadGeneration) {
+        List<FeeStructureDTO> dtos = structures.stream()
+                .map(FeeStructureDTO::new)
+                .toList();
+        synchronized (entries) {
+            if (loadGeneration == generation.get()) {
+                entries.put(key, new CachedEntry(dtos, System.currentTimeMillis()));
+            }
+        }
+        return dtos;
+    }
+
+    private static String classYearKey(Long classId, Long academicYearId) {
+        return "class:" + classId + ":year:" + academicYearId;
+    }
+
+    private static String categoryKey(Long feeCategoryId) {
+        return "category:" + feeCategoryId;
+    }
+
+    private static final class CachedEntry {
+        private final List<FeeStructureDTO> structures;
+        private final long loadedAt;
+
+        private CachedEntry(List<FeeStructureDTO> structures, long loadedAt) {
+            this.structures = structures;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.school.feeservice.service;
+
+import com.school.feeservice.dto.PaymentRequest;
+import com.school.feeservice.dto.PaymentResponse;
+import com.school.feeservice.exception.PaymentInProgressException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Deduplicates payment submissions that carry an Idempotency-Key.
+ *
+ * Recent keys live in a bounded in-memory map; concurrent requests with the
+ * same key share one in-flight result instead of racing. Keys that have been
+ * evicted, or were handled by another instance, are resolved from the
+ * unique idempotency_key column on fee_payments.
+ *
+ * A request that finds its key in flight waits a bounded time for the
+ * result. If the wait runs out it gets a PaymentInProgressException (409);
+ * if the first attempt failed with an exception, the key has been released
+ * and the request makes its own attempt.
+ *
+ * This class is deliberately not transactional: a result is only published
+ * to waiting requests after PaymentService has committed the payment.
+ */
+@Service
+@Slf4j
+public class IdempotentPaymentService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final PaymentService paymentService;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long waitMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    public IdempotentPaymentService(PaymentService paymentService,
+                                    @Value("${fee.idempotency.max-entries:10000}") int maxEntries,
+                                    @Value("${fee.idempotency.ttl-minutes:60}") long ttlMinutes,
+                                    @Value("${fee.idempotency.wait-seconds:10}") long waitSeconds) {
+        this.paymentService = paymentService;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.waitMillis = waitSeconds * 1_000;
+    }
+
+    public Outcome processPayment(PaymentRequest paymentRequest, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return new Outcome(paymentService.processPayment(paymentRequest), false);
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return new Outcome(PaymentResponse.builder()
+                    .success(false)
+                    .message("Idempotency key must be at most " + MAX_KEY_LENGTH + " characters")
+                    .build(), false);
+        }
+
+        String fingerprint = fingerprint(paymentRequest);
+        Entry mine = new Entry(fingerprint, System.currentTimeMillis());
+        Entry existing = entries.putIfAbsent(idempotencyKey, mine);
+        if (existing != null && existing.isExpired(ttlMillis)) {
+            entries.remove(idempotencyKey, existing);
+            existing = entries.putIfAbsent(idempotencyKey, mine);
+        }
+
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return new Outcome(keyReused(), false);
+            }
+            PaymentResponse replay = awaitResult(existing, idempotencyKey);
+            if (replay == null) {
+                // The first attempt threw and released the key; make our own attempt
+                return processPayment(paymentRequest, idempotencyKey);
+            }
+            log.info("Replaying payment for idempotency key {}", idempotencyKey);
+            return new Outcome(replay, true);
+        }
+
+        insertionOrder.add(idempotencyKey);
+        evictOverflow();
+
+        try {
+            Outcome outcome = process(paymentRequest, idempotencyKey, fingerprint);
+            mine.result.complete(outcome.response());
+            if (!outcome.response().isSuccess()) {
+                // Let the client retry a failed attempt with the same key
+                entries.remove(idempotencyKey, mine);
+            }
+            return outcome;
+        } catch (RuntimeException e) {
+            entries.remove(idempotencyKey, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits up to waitMillis for an in-flight attempt with the same key.
+     *
+     * @return the attempt's response, or null if it failed with an exception
+     */
+    private PaymentResponse awaitResult(Entry entry, String idempotencyKey) {
+        try {
+            return entry.result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        } catch (TimeoutException e) {
+            throw new PaymentInProgressException(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentInProgressException(idempotencyKey);
+        }
+    }
+
+    private Outcome process(PaymentRequest paymentRequest, String idempotencyKey, String fingerprint) {
+        PaymentResponse persisted = paymentService.getPaymentByIdempotencyKey(idempotencyKey);
+        if (persisted.isSuccess()) {
+            return replayPersisted(persisted, fingerprint);
+        }
+
+        PaymentResponse response;
+        try {
+            response = paymentService.processPayment(paymentRequest, idempotencyKey);
+        } catch (RuntimeException e) {
+            // A unique-key violation rolls the payment transaction back on commit
+            response = PaymentResponse.builder().success(false).message(e.getMessage()).build();
+        }
+        if (!response.isSuccess()) {
+            // Another instance may have inserted the same key first
+            persisted = paymentService.getPaymentByIdempotencyKey(idempotencyKey);
+            if (persisted.isSuccess()) {
+                return replayPersisted(persisted, fingerprint);
+            }
+        }
+        return new Outcome(response, false);
+    }
+
+    private Outcome replayPersisted(PaymentResponse persisted, String fingerprint) {
+        if (!fingerprint.equals(fingerprint(persisted))) {
+            return new Outcome(keyReused(), false);
+        }
+        return new Outcome(persisted, true);
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            Entry entry = entries.get(oldest);
+            if (entry != null && entry.result.isDone()) {
+                entries.remove(oldest, entry);
+            } else if (entry != null) {
+                // Still in flight; keep it and look at it again later
+                insertionOrder.add(oldest);
+                return;
+            }
+        }
+    }
+
+    private static PaymentResponse keyReused() {
+        return PaymentResponse.builder()
+                .success(false)
+                .message("Idempotency key was already used for a different payment request")
+                .build();
+    }
+
+    private static String fingerprint(PaymentRequest request) {
+        return request.getStudentId() + "|" + request.getFeeStructureId() + "|"
+                + (request.getAmount() != null ? request.getAmount().stripTrailingZeros().toPlainString() : null) + "|"
+                + (request.getPaymentMethod() != null ? request.getPaymentMethod().name() : null);
+    }
+
+    private static String fingerprint(PaymentResponse response) {
+        return response.getStudentId() + "|" + response.getFeeStructureId() + "|"
+                + (response.getAmount() != null ? response.getAmount().stripTrailingZeros().toPlainString() : null) + "|"
+                + (response.getPaymentMethod() != null ? response.getPaymentMethod().name() : null);
+    }
+
+    public record Outcome(PaymentResponse response, boolean replayed) {
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long createdAt;
+        private final CompletableFuture<PaymentResponse> result = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long createdAt) {
+            this.fingerprint = Objects.requireNonNull(fingerprint);
+            this.createdAt = createdAt;
+        }
+
+        private boolean isExpired(long ttlMillis) {
+            return result.isDone() && System.currentTimeMillis() - createdAt > ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.school.feeservice.service;
+
+import com.school.feeservice.dto.OverdueSweepResult;
+import com.school.feeservice.repository.StudentFeeBatchRepository;
+import com.school.feeservice.repository.StudentFeeRepository;
+import com.school.feeservice.service.latefee.LateFeeRuleEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Marks PENDING student fees past their due date as OVERDUE.
+ *
+ * The sweep walks student_fees in primary-key order and issues one bounded
+ * UPDATE per chunk, each in its own transaction, so no entities are loaded
+ * and row locks are only held for a single chunk at a time.
+ *
+ * A second pass walks the OVERDUE fees the same way and writes the late fee
+ * each one has accrued under the configured rules, batching only the rows
+ * whose amount changed.
+ *
+ * Each chunk refreshes the ledgers of the students it touched once it has
+ * committed (see StudentLedgerService.refresh), so balances and late fee
+ * totals follow the sweep instead of waiting for the nightly rebuild.
+ */
+@Service
+@Slf4j
+public class OverdueSweepService {
+
+    private final StudentFeeRepository studentFeeRepository;
+    private final StudentFeeBatchRepository studentFeeBatchRepository;
+    private final LateFeeRuleEngine lateFeeRuleEngine;
+    private final StudentLedgerService studentLedgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public OverdueSweepService(StudentFeeRepository studentFeeRepository,
+                               StudentFeeBatchRepository studentFeeBatchRepository,
+                               LateFeeRuleEngine lateFeeRuleEngine,
+                               StudentLedgerService studentLedgerService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${fee.overdue-sweep.chunk-size:1000}") int chunkSize) {
+        this.studentFeeRepository = studentFeeRepository;
+        this.studentFeeBatchRepository = studentFeeBatchRepository;
+        this.lateFeeRuleEngine = lateFeeRuleEngine;
+        this.studentLedgerService = studentLedgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${fee.overdue-sweep.cron:0 15 0 * * *}")
+    public void scheduledSweep() {
+        OverdueSweepResult result = sweep(LocalDate.now());
+        if (!result.isSkipped()) {
+            log.info("Scheduled overdue sweep marked {} fees overdue in {} chunks and updated {} late fees",
+                    result.getRowsUpdated(), result.getChunksProcessed(), result.getLateFeesUpdated());
+        }
+    }
+
+    public OverdueSweepResult sweep(LocalDate today) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Overdue sweep already in progress, skipping");
+            return OverdueSweepResult.builder()
+                    .asOfDate(today)
+                    .startedAt(startedAt)
+                    .finishedAt(LocalDateTime.now())
+                    .skipped(true)
+                    .message("Overdue sweep already in progress")
+                    .build();
+        }
+
+        try {
+            long rowsUpdated = 0;
+            int chunks = 0;
+            long afterId = 0L;
+
+            while (true) {
+                final long lowerBound = afterId;
+                Long upperBound = studentFeeRepository.findOverdueChunkUpperBound(lowerBound, today, chunkSize);
+                if (upperBound == null) {
+                    break;
+                }
+
+                Integer updated = transactionTemplate.execute(status -> {
+                    List<Long> studentIds =
+                            studentFeeRepository.findOverdueStudentIdsInRange(lowerBound, upperBound, today);
+                    int marked = studentFeeRepository.markOverdueInRange(lowerBound, upperBound, today);
+                    studentLedgerService.refresh(studentIds);
+                    return marked;
+                });
+                rowsUpdated += updated != null ? updated : 0;
+                chunks++;
+                afterId = upperBound;
+
+                log.debug("Overdue sweep chunk {} (ids {}..{}) updated {} rows", chunks, lowerBound, upperBound, updated);
+            }
+
+            long lateFeesUpdated = accrueLateFees(today);
+
+            return OverdueSweepResult.builder()
+                    .asOfDate(today)
+                    .startedAt(startedAt)
+                    .finishedAt(LocalDateTime.now())
+                    .chunksProcessed(chunks)
+                    .rowsUpdated(rowsUpdated)
+                    .lateFeesUpdated(lateFeesUpdated)
+                    .message("Overdue sweep completed")
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long accrueLateFees(LocalDate today) {
+        long updated = 0;
+        long afterId = 0L;
+        while (true) {
+            List<StudentFeeBatchRepository.OverdueFee> chunk =
+                    studentFeeBatchRepository.findOverdueFeesAfter(afterId, chunkSize);
+            if (chunk.isEmpty()) {
+                return updated;
+            }
+
+            Map<Long, BigDecimal> changed = new HashMap<>();
+            Set<Long> studentIds = new HashSet<>();
+            for (StudentFeeBatchRepository.OverdueFee fee : chunk) {
+                BigDecimal lateFee = lateFeeRuleEngine.calculate(fee.feeCategoryId(), fee.studentId(),
+                        fee.netAmount(), fee.dueDate(), today);
+                if (fee.lateFeeAmount() == null || fee.lateFeeAmount().compareTo(lateFee) != 0) {
+                    changed.put(fee.id(), lateFee);
+                    studentIds.add(fee.studentId());
+                }
+            }
+            if (!changed.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    studentFeeBatchRepository.batchUpdateLateFees(changed);
+                    studentLedgerService.refresh(studentIds);
+                });
+                updated += changed.size();
+            }
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.school.feeservice.service;
 
+import com.school.feeservice.dto.CursorPage;
 import com.school.feeservice.dto.PaymentRequest;
 import com.school.feeservice.dto.PaymentResponse;
+import com.school.feeservice.dto.RevenueSummary;
 import com.school.feeservice.model.Payment;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,18 +13,27 @@ public interface PaymentService {
     
     PaymentResponse processPayment(PaymentRequest paymentRequest);
     
+    PaymentResponse processPayment(PaymentRequest paymentRequest, String idempotencyKey);
+    
     PaymentResponse getPaymentById(Long paymentId);
     
     PaymentResponse getPaymentByTransactionId(String transactionId);
     
     PaymentResponse getPaymentByReceiptNumber(String receiptNumber);
     
+    PaymentResponse getPaymentByIdempotencyKey(String idempotencyKey);
+    
     List<PaymentResponse> getPaymentsByStudentId(Long studentId);
     
     List<PaymentResponse> getPaymentsByStatus(Payment.PaymentStatus status);
     
     List<PaymentResponse> getPaymentsByDateRange(LocalDateTime startDate, LocalDateTime endDate);
     
+    CursorPage<PaymentResponse> getPaymentsByStatusPage(Payment.PaymentStatus status, String cursor, Integer size);
+    
+    CursorPage<PaymentResponse> getPaymentsByDateRangePage(LocalDateTime startDate, LocalDateTime endDate,
+                                                           String cursor, Integer size);
+    
     List<PaymentResponse> getOverduePayments();
     
     PaymentResponse updatePaymentStatus(Long paymentId, Payment.PaymentStatus status);
@@ -35,6 +46,8 @@ public interface PaymentService {
     
     Double getTotalPaymentsAmount();
     
+    RevenueSummary getRevenueSummary();
+    
     Long getCompletedPaymentsCountByStudent(Long studentId);
     
     Double getTotalPaidAmountByStudent(Long studentId);
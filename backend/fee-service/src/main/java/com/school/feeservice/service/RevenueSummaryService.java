@@ -0,0 +1,140 @@
+package com.school.feeservice.service;
+
+import com.school.feeservice.dto.PaymentAggregate;
+import com.school.feeservice.dto.RevenueSummary;
+import com.school.feeservice.model.Payment;
+import com.school.feeservice.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Payment revenue totals computed with a single grouped SQL aggregate and
+ * held in memory until a payment changes or the TTL expires.
+ */
+@Service
+@Slf4j
+public class RevenueSummaryService {
+
+    private final PaymentRepository paymentRepository;
+    private final long ttlMillis;
+
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<CachedSummary> cached = new AtomicReference<>();
+
+    public RevenueSummaryService(PaymentRepository paymentRepository,
+                                 @Value("${fee.revenue-summary.ttl-seconds:300}") long ttlSeconds) {
+        this.paymentRepository = paymentRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public RevenueSummary getSummary() {
+        CachedSummary current = cached.get();
+        long now = System.currentTimeMillis();
+        if (current != null && current.generation == generation.get() && now - current.loadedAt < ttlMillis) {
+            return current.summary;
+        }
+
+        long loadGeneration = generation.get();
+        RevenueSummary summary = computeSummary();
+        if (loadGeneration == generation.get()) {
+            cached.set(new CachedSummary(summary, loadGeneration, now));
+        }
+        return summary;
+    }
+
+    /**
+     * Drops the cached summary. Inside a transaction the eviction happens after
+     * commit, so readers never re-cache totals that miss the pending write.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    cached.set(null);
+                }
+            });
+        } else {
+            cached.set(null);
+        }
+    }
+
+    private RevenueSummary computeSummary() {
+        List<PaymentAggregate> rows = paymentRepository.aggregateByStatusAndMethod();
+
+        long totalPayments = 0;
+        long completedPayments = 0;
+        BigDecimal totalCollected = BigDecimal.ZERO;
+        BigDecimal lateFees = BigDecimal.ZERO;
+        BigDecimal discounts = BigDecimal.ZERO;
+        Map<String, RevenueSummary.Breakdown> byStatus = new LinkedHashMap<>();
+        Map<String, RevenueSummary.Breakdown> byMethod = new LinkedHashMap<>();
+
+        for (PaymentAggregate row : rows) {
+            long count = row.getPaymentCount() != null ? row.getPaymentCount() : 0;
+            BigDecimal amount = orZero(row.getTotalAmount());
+            totalPayments += count;
+            accumulate(byStatus, row.getStatus() != null ? row.getStatus().name() : "UNKNOWN", count, amount);
+
+            if (row.getStatus() == Payment.PaymentStatus.COMPLETED) {
+                completedPayments += count;
+                totalCollected = totalCollected.add(amount);
+                lateFees = lateFees.add(orZero(row.getTotalLateFees()));
+                discounts = discounts.add(orZero(row.getTotalDiscounts()));
+                accumulate(byMethod, row.getPaymentMethod() != null ? row.getPaymentMethod().name() : "UNKNOWN",
+                        count, amount);
+            }
+        }
+
+        log.debug("Computed revenue summary from {} aggregate rows", rows.size());
+
+        return RevenueSummary.builder()
+                .totalPayments(totalPayments)
+                .completedPayments(completedPayments)
+                .totalCollected(totalCollected)
+                .totalLateFeesCollected(lateFees)
+                .totalDiscountsGiven(discounts)
+                .byStatus(Collections.unmodifiableMap(byStatus))
+                .byMethod(Collections.unmodifiableMap(byMethod))
+                .computedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static void accumulate(Map<String, RevenueSummary.Breakdown> buckets, String key, long count,
+                                   BigDecimal amount) {
+        RevenueSummary.Breakdown bucket = buckets.computeIfAbsent(key, k -> new RevenueSummary.Breakdown(0, BigDecimal.ZERO));
+        bucket.setCount(bucket.getCount() + count);
+        bucket.setAmount(bucket.getAmount().add(amount));
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static final class CachedSummary {
+        private final RevenueSummary summary;
+        private final long generation;
+        private final long loadedAt;
+
+        private CachedSummary(RevenueSummary summary, long generation, long loadedAt) {
+            this.summary = summary;
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
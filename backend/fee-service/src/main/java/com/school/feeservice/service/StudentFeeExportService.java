@@ -0,0 +1,112 @@
+package com.school.feeservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.feeservice.dto.StudentFeeDTO;
+import com.school.feeservice.model.StudentFee;
+import com.school.feeservice.repository.StudentFeeRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams student fees straight from a database cursor to the response body.
+ *
+ * Rows are read with a JDBC fetch size and detached as soon as they are
+ * written, so memory use does not grow with the size of the export.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentFeeExportService {
+    
+    private static final int FLUSH_EVERY = 1000;
+    private static final String CSV_HEADER =
+            "id,studentId,feeStructureId,academicYearId,amount,discountAmount,netAmount,dueDate,status";
+    
+    private final StudentFeeRepository studentFeeRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    
+    public enum ExportFormat {
+        NDJSON, CSV
+    }
+    
+    @Transactional(readOnly = true)
+    public long export(StudentFee.Status status, ExportFormat format, OutputStream outputStream) {
+        long rows = 0;
+        try (Stream<StudentFee> fees = status != null
+                    ? studentFeeRepository.streamByStatus(status)
+                    : studentFeeRepository.streamAll()) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            
+            Iterator<StudentFee> iterator = fees.iterator();
+            while (iterator.hasNext()) {
+                StudentFee studentFee = iterator.next();
+                StudentFeeDTO dto = new StudentFeeDTO(studentFee);
+                entityManager.detach(studentFee);
+                
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, dto);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+                
+                if (++rows % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Student fee export failed after " + rows + " rows", e);
+        }
+        
+        log.info("Exported {} student fees as {}", rows, format);
+        return rows;
+    }
+    
+    private void writeCsvRow(Writer writer, StudentFeeDTO dto) throws IOException {
+        writer.write(String.valueOf(dto.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getStudentId()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getFeeStructureId()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getAcademicYearId()));
+        writer.write(',');
+        writer.write(csvValue(dto.getAmount()));
+        writer.write(',');
+        writer.write(csvValue(dto.getDiscountAmount()));
+        writer.write(',');
+        writer.write(csvValue(dto.getNetAmount()));
+        writer.write(',');
+        writer.write(csvValue(dto.getDueDate()));
+        writer.write(',');
+        writer.write(csvValue(dto.getStatus()));
+        writer.write('\n');
+    }
+    
+    private static String csvValue(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value != null ? value.toString() : "";
+    }
+}
@@ -0,0 +1,132 @@
+package com.school.feeservice.service;
+
+import com.school.feeservice.dto.StudentLedgerDTO;
+import com.school.feeservice.exception.FeeNotFoundException;
+import com.school.feeservice.repository.StudentLedgerJdbcRepository;
+import com.school.feeservice.repository.StudentLedgerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the per-student ledger projection (billed, discount, paid, late
+ * fee, balance, next due date) so balance lookups are a primary-key read.
+ *
+ * FeeService and PaymentServiceImpl refresh the affected students after each
+ * write; a scheduled rebuild walks every student to repair any drift.
+ */
+@Service
+@Slf4j
+public class StudentLedgerService {
+
+    private final StudentLedgerRepository studentLedgerRepository;
+    private final StudentLedgerJdbcRepository studentLedgerJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildChunkSize;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    public StudentLedgerService(StudentLedgerRepository studentLedgerRepository,
+                                StudentLedgerJdbcRepository studentLedgerJdbcRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${fee.ledger.rebuild-chunk-size:500}") int rebuildChunkSize) {
+        this.studentLedgerRepository = studentLedgerRepository;
+        this.studentLedgerJdbcRepository = studentLedgerJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    public StudentLedgerDTO getLedger(Long studentId) {
+        return studentLedgerRepository.findById(studentId)
+                .map(StudentLedgerDTO::new)
+                .orElseGet(() -> {
+                    // Not built yet for this student; build it once and read it back
+                    refresh(studentId);
+                    return studentLedgerRepository.findById(studentId)
+                            .map(StudentLedgerDTO::new)
+                            .orElseThrow(() -> new FeeNotFoundException(studentId, "Student Ledger"));
+                });
+    }
+
+    public void refresh(Long studentId) {
+        if (studentId != null) {
+            refresh(List.of(studentId));
+        }
+    }
+
+    /**
+     * Recomputes the ledgers of the given students. Inside a transaction the
+     * refresh runs after commit, in its own transaction, so it sees the
+     * committed rows and can never roll back the write that triggered it.
+     * Failures are logged and left to the scheduled rebuild.
+     */
+    public void refresh(Collection<Long> studentIds) {
+        List<Long> ids = studentIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshNow(ids);
+                }
+            });
+        } else {
+            refreshNow(ids);
+        }
+    }
+
+    private void refreshNow(List<Long> ids) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> studentLedgerJdbcRepository.refresh(ids));
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh student ledgers for {}: {}", ids, e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${fee.ledger.rebuild-cron:0 45 0 * * *}")
+    public void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    /**
+     * Recomputes every ledger row in chunks of students, one transaction per chunk.
+     *
+     * @return number of students refreshed, or -1 if a rebuild is already running
+     */
+    public long rebuildAll() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.warn("Student ledger rebuild already in progress, skipping");
+            return -1;
+        }
+        try {
+            long refreshed = 0;
+            long afterId = 0L;
+            while (true) {
+                List<Long> chunk = studentLedgerJdbcRepository.findStudentIdsAfter(afterId, rebuildChunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                transactionTemplate.executeWithoutResult(status -> studentLedgerJdbcRepository.refresh(chunk));
+                refreshed += chunk.size();
+                afterId = chunk.get(chunk.size() - 1);
+            }
+            log.info("Rebuilt student ledgers for {} students", refreshed);
+            return refreshed;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.school.feeservice.service.audit;
+
+import com.school.feeservice.model.AuditedEntity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Captures inserts, updates and deletes of {@link AuditedEntity} entities and
+ * hands them to the {@link AuditTrail}. Only the column snapshot is taken on
+ * the calling thread; JSON serialization and the insert happen in the
+ * background writer.
+ *
+ * Hibernate obtains this listener through Spring Boot's bean container, so
+ * it is constructor-injected like any other bean.
+ */
+public class AuditEntityListener {
+
+    private final AuditTrail auditTrail;
+
+    public AuditEntityListener(AuditTrail auditTrail) {
+        this.auditTrail = auditTrail;
+    }
+
+    @PostLoad
+    public void onLoad(AuditedEntity entity) {
+        entity.setAuditBaseline(entity.auditState());
+    }
+
+    @PostPersist
+    public void onPersist(AuditedEntity entity) {
+        Map<String, Object> state = entity.auditState();
+        entity.setAuditBaseline(state);
+        record(entity, AuditEvent.Action.INSERT, null, state);
+    }
+
+    @PostUpdate
+    public void onUpdate(AuditedEntity entity) {
+        Map<String, Object> previous = entity.getAuditBaseline();
+        Map<String, Object> state = entity.auditState();
+        if (state.equals(previous)) {
+            return;
+        }
+        entity.setAuditBaseline(state);
+        record(entity, AuditEvent.Action.UPDATE, previous, state);
+    }
+
+    @PostRemove
+    public void onRemove(AuditedEntity entity) {
+        Map<String, Object> previous = entity.getAuditBaseline() != null
+                ? entity.getAuditBaseline()
+                : entity.auditState();
+        record(entity, AuditEvent.Action.DELETE, previous, null);
+    }
+
+    private void record(AuditedEntity entity, AuditEvent.Action action, Map<String, Object> oldValues,
+                        Map<String, Object> newValues) {
+        auditTrail.record(new AuditEvent(entity.auditTableName(), entity.getId(), action, oldValues, newValues,
+                currentUser(), LocalDateTime.now()));
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,15 @@
+package com.school.feeservice.service.audit;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One captured entity change, queued for audit_logs.
+ */
+public record AuditEvent(String tableName, Long recordId, Action action, Map<String, Object> oldValues,
+                         Map<String, Object> newValues, String userId, LocalDateTime createdAt) {
+
+    public enum Action {
+        INSERT, UPDATE, DELETE
+    }
+}
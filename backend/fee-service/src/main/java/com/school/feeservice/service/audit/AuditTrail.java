@@ -0,0 +1,199 @@
+package com.school.feeservice.service.audit;
+
+import com.school.feeservice.repository.AuditLogJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for audit_logs.
+ *
+ * Events are queued after the surrounding transaction commits, so rolled
+ * back changes are never audited, on a bounded ring buffer. A single
+ * background thread drains the buffer and inserts each batch with one JDBC
+ * batch statement. When the buffer is full the configured overflow policy
+ * decides whether the caller waits, writes the event itself, or drops it.
+ * On shutdown the writer stops taking new events and flushes what is queued.
+ *
+ * Metrics: fee.audit.events (queued, dropped, written, failed) and
+ * fee.audit.queue.size.
+ */
+@Component
+@Slf4j
+public class AuditTrail {
+
+    public enum OverflowPolicy {
+        // Wait up to offer-timeout-ms for space, then drop
+        BLOCK,
+        // Write the event synchronously on the calling thread
+        CALLER_RUNS,
+        // Drop the event immediately
+        DROP
+    }
+
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+    private final BlockingQueue<AuditEvent> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMillis;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long shutdownTimeoutMillis;
+
+    private final Counter queued;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+
+    private volatile boolean accepting = true;
+    private Thread writer;
+
+    public AuditTrail(AuditLogJdbcRepository auditLogJdbcRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${fee.audit.buffer-capacity:8192}") int bufferCapacity,
+                      @Value("${fee.audit.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                      @Value("${fee.audit.offer-timeout-ms:50}") long offerTimeoutMillis,
+                      @Value("${fee.audit.batch-size:200}") int batchSize,
+                      @Value("${fee.audit.flush-interval-ms:500}") long flushIntervalMillis,
+                      @Value("${fee.audit.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.auditLogJdbcRepository = auditLogJdbcRepository;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.queued = events(meterRegistry, "queued");
+        this.dropped = events(meterRegistry, "dropped");
+        this.written = events(meterRegistry, "written");
+        this.failed = events(meterRegistry, "failed");
+        Gauge.builder("fee.audit.queue.size", buffer, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues an event, deferring it to after commit when a transaction is active.
+     */
+    public void record(AuditEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (!accepting) {
+            // Shutting down; the writer may already be gone
+            writeNow(List.of(event));
+            return;
+        }
+        if (buffer.offer(event)) {
+            queued.increment();
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (buffer.offer(event, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        queued.increment();
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                drop(event);
+            }
+            case CALLER_RUNS -> writeNow(List.of(event));
+            case DROP -> drop(event);
+        }
+    }
+
+    private void drop(AuditEvent event) {
+        dropped.increment();
+        log.warn("Audit buffer full, dropped {} {} #{}", event.action(), event.tableName(), event.recordId());
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (accepting || !buffer.isEmpty()) {
+            try {
+                AuditEvent first = buffer.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                writeNow(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeNow(List<AuditEvent> events) {
+        try {
+            auditLogJdbcRepository.batchInsert(events);
+            written.increment(events.size());
+        } catch (RuntimeException e) {
+            failed.increment(events.size());
+            log.error("Could not write {} audit events: {}", events.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        try {
+            writer.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Audit writer did not finish within {} ms, {} events left unwritten",
+                    shutdownTimeoutMillis, buffer.size());
+        } else {
+            // Pick up anything queued between the writer's last poll and the flag flip
+            List<AuditEvent> remaining = new ArrayList<>();
+            buffer.drainTo(remaining);
+            if (!remaining.isEmpty()) {
+                writeNow(remaining);
+            }
+            log.info("Audit writer stopped, buffer flushed");
+        }
+    }
+
+    private static Counter events(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("fee.audit.events")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.school.feeservice.service.id;
+
+import com.school.feeservice.repository.IdSequenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Default {@link PaymentIdGenerator}. Values come from blocks reserved in the
+ * shared id_sequences table, so only one payment in every block-size needs a
+ * database round trip and numbers stay unique across instances.
+ *
+ * Receipt numbers look like RCP20250614-00001234; transaction ids embed the
+ * configured node id, e.g. TXN0030000001234, so they can be traced back to
+ * the instance that issued them.
+ */
+@Component
+public class BlockAllocatingPaymentIdGenerator implements PaymentIdGenerator {
+    
+    static final String RECEIPT_SEQUENCE = "receipt_number";
+    static final String TRANSACTION_SEQUENCE = "transaction_id";
+    
+    private static final DateTimeFormatter RECEIPT_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    
+    private final SequenceBlock receiptNumbers;
+    private final SequenceBlock transactionIds;
+    private final int nodeId;
+    
+    public BlockAllocatingPaymentIdGenerator(IdSequenceRepository idSequenceRepository,
+                                             @Value("${fee.id-generator.node-id:0}") int nodeId,
+                                             @Value("${fee.id-generator.block-size:100}") int blockSize) {
+        if (nodeId < 0 || nodeId > 999) {
+            throw new IllegalArgumentException("fee.id-generator.node-id must be between 0 and 999");
+        }
+        this.nodeId = nodeId;
+        this.receiptNumbers = new SequenceBlock(
+                () -> idSequenceRepository.reserveBlock(RECEIPT_SEQUENCE, blockSize), blockSize);
+        this.transactionIds = new SequenceBlock(
+                () -> idSequenceRepository.reserveBlock(TRANSACTION_SEQUENCE, blockSize), blockSize);
+    }
+    
+    @Override
+    public String nextReceiptNumber() {
+        return "RCP" + LocalDate.now().format(RECEIPT_DATE) + "-" + String.format("%08d", receiptNumbers.next());
+    }
+    
+    @Override
+    public String nextTransactionId() {
+        return "TXN" + String.format("%03d", nodeId) + String.format("%010d", transactionIds.next());
+    }
+}
@@ -0,0 +1,13 @@
+package com.school.feeservice.service.id;
+
+/**
+ * Issues receipt numbers and transaction ids for payments. Implementations
+ * must be thread-safe and never return the same value twice, including
+ * across fee-service instances.
+ */
+public interface PaymentIdGenerator {
+    
+    String nextReceiptNumber();
+    
+    String nextTransactionId();
+}
@@ -0,0 +1,52 @@
+package com.school.feeservice.service.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out values from a reserved range with a single CAS per call. The
+ * lock is only taken when the current range is exhausted and a new one has
+ * to be reserved from the database.
+ */
+class SequenceBlock {
+    
+    private final LongSupplier blockReserver;
+    private final int blockSize;
+    private volatile Range current;
+    
+    SequenceBlock(LongSupplier blockReserver, int blockSize) {
+        this.blockReserver = blockReserver;
+        this.blockSize = blockSize;
+    }
+    
+    long next() {
+        while (true) {
+            Range range = current;
+            if (range != null) {
+                long value = range.next.getAndIncrement();
+                if (value < range.limit) {
+                    return value;
+                }
+            }
+            refill(range);
+        }
+    }
+    
+    private synchronized void refill(Range exhausted) {
+        // Another thread may already have replaced the range we saw
+        if (current == exhausted) {
+            long first = blockReserver.getAsLong();
+            current = new Range(first, first + blockSize);
+        }
+    }
+    
+    private static final class Range {
+        private final AtomicLong next;
+        private final long limit;
+        
+        private Range(long first, long limit) {
+            this.next = new AtomicLong(first);
+            this.limit = limit;
+        }
+    }
+}
@@ -1,20 +1,30 @@
 package com.school.feeservice.service.impl;
 
+import com.school.feeservice.dto.CursorPage;
 import com.school.feeservice.dto.PaymentRequest;
 import com.school.feeservice.dto.PaymentResponse;
+import com.school.feeservice.dto.RevenueSummary;
+import com.school.feeservice.model.FeeStructure;
 import com.school.feeservice.model.Payment;
+import com.school.feeservice.repository.FeeStructureRepository;
 import com.school.feeservice.repository.PaymentRepository;
 import com.school.feeservice.service.PaymentService;
+import com.school.feeservice.service.RevenueSummaryService;
+import com.school.feeservice.service.StudentLedgerService;
+import com.school.feeservice.service.id.PaymentIdGenerator;
+import com.school.feeservice.service.latefee.LateFeeRuleEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,36 +34,36 @@ import java.util.stream.Collectors;
 public class PaymentServiceImpl implements PaymentService {
     
     private final PaymentRepository paymentRepository;
+    private final RevenueSummaryService revenueSummaryService;
+    private final PaymentIdGenerator paymentIdGenerator;
+    private final StudentLedgerService studentLedgerService;
+    private final FeeStructureRepository feeStructureRepository;
+    private final LateFeeRuleEngine lateFeeRuleEngine;
+    private final TransactionTemplate transactionTemplate;
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponse processPayment(PaymentRequest paymentRequest) {
+        return processPayment(paymentRequest, null);
+    }
+    
+    /**
+     * Ids are taken before the payment transaction opens: refilling an id
+     * block needs its own connection, and must not wait for one while this
+     * request already holds another.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentResponse processPayment(PaymentRequest paymentRequest, String idempotencyKey) {
         try {
             log.info("Processing payment for student: {}", paymentRequest.getStudentId());
             
             // Generate unique transaction ID and receipt number
-            String transactionId = generateTransactionId();
-            String receiptNumber = generateReceiptNumber();
-            
-            // Calculate late fee if payment is overdue
-            BigDecimal lateFeeAmount = calculateLateFee(paymentRequest);
+            String transactionId = paymentIdGenerator.nextTransactionId();
+            String receiptNumber = paymentIdGenerator.nextReceiptNumber();
             
-            // Create payment entity
-            Payment payment = new Payment();
-            payment.setStudentId(paymentRequest.getStudentId());
-            payment.setFeeStructureId(paymentRequest.getFeeStructureId());
-            payment.setAmount(paymentRequest.getAmount());
-            payment.setPaymentMethod(Payment.PaymentMethod.valueOf(paymentRequest.getPaymentMethod().name()));
-            payment.setStatus(Payment.PaymentStatus.COMPLETED); // Assuming immediate completion for now
-            payment.setTransactionId(transactionId);
-            payment.setReceiptNumber(receiptNumber);
-            payment.setDueDate(paymentRequest.getDueDate());
-            payment.setDiscountAmount(paymentRequest.getDiscountAmount() != null ? 
-                paymentRequest.getDiscountAmount() : BigDecimal.ZERO);
-            payment.setLateFeeAmount(lateFeeAmount);
-            payment.setNotes(paymentRequest.getNotes());
-            
-            // Save payment
-            Payment savedPayment = paymentRepository.save(payment);
+            Payment savedPayment = transactionTemplate.execute(status ->
+                    savePayment(paymentRequest, idempotencyKey, transactionId, receiptNumber));
             
             log.info("Payment processed successfully. Transaction ID: {}", transactionId);
             
@@ -68,6 +78,34 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
     
+    private Payment savePayment(PaymentRequest paymentRequest, String idempotencyKey, String transactionId,
+                                String receiptNumber) {
+        // Calculate late fee if payment is overdue
+        BigDecimal lateFeeAmount = calculateLateFee(paymentRequest);
+        
+        // Create payment entity
+        Payment payment = new Payment();
+        payment.setStudentId(paymentRequest.getStudentId());
+        payment.setFeeStructureId(paymentRequest.getFeeStructureId());
+        payment.setAmount(paymentRequest.getAmount());
+        payment.setPaymentMethod(Payment.PaymentMethod.valueOf(paymentRequest.getPaymentMethod().name()));
+        payment.setStatus(Payment.PaymentStatus.COMPLETED); // Assuming immediate completion for now
+        payment.setTransactionId(transactionId);
+        payment.setReceiptNumber(receiptNumber);
+        payment.setDueDate(paymentRequest.getDueDate());
+        payment.setDiscountAmount(paymentRequest.getDiscountAmount() != null ? 
+            paymentRequest.getDiscountAmount() : BigDecimal.ZERO);
+        payment.setLateFeeAmount(lateFeeAmount);
+        payment.setNotes(paymentRequest.getNotes());
+        payment.setIdempotencyKey(idempotencyKey);
+        
+        // Save payment
+        Payment savedPayment = paymentRepository.save(payment);
+        revenueSummaryService.invalidate();
+        studentLedgerService.refresh(savedPayment.getStudentId());
+        return savedPayment;
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public PaymentResponse getPaymentById(Long paymentId) {
@@ -101,6 +139,17 @@ public class PaymentServiceImpl implements PaymentService {
                          .build());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public PaymentResponse getPaymentByIdempotencyKey(String idempotencyKey) {
+        Optional<Payment> payment = paymentRepository.findByIdempotencyKey(idempotencyKey);
+        return payment.map(p -> buildPaymentResponse(p, "Payment processed successfully", true))
+                     .orElse(PaymentResponse.builder()
+                         .success(false)
+                         .message("Payment not found")
+                         .build());
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<PaymentResponse> getPaymentsByStudentId(Long studentId) {
@@ -128,6 +177,27 @@ public class PaymentServiceImpl implements PaymentService {
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentResponse> getPaymentsByStatusPage(Payment.PaymentStatus status, String cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        List<Payment> payments = paymentRepository.findPageByStatusAfter(
+                status, CursorPage.decodeCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(payments, pageSize, Payment::getId,
+                payment -> buildPaymentResponse(payment, "Payment found", true));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentResponse> getPaymentsByDateRangePage(LocalDateTime startDate, LocalDateTime endDate,
+                                                                  String cursor, Integer size) {
+        int pageSize = CursorPage.clampSize(size);
+        List<Payment> payments = paymentRepository.findPageByDateRangeAfter(
+                startDate, endDate, CursorPage.decodeCursor(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(payments, pageSize, Payment::getId,
+                payment -> buildPaymentResponse(payment, "Payment found", true));
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<PaymentResponse> getOverduePayments() {
@@ -144,6 +214,8 @@ public class PaymentServiceImpl implements PaymentService {
             Payment payment = paymentOpt.get();
             payment.setStatus(status);
             Payment updatedPayment = paymentRepository.save(payment);
+            revenueSummaryService.invalidate();
+            studentLedgerService.refresh(updatedPayment.getStudentId());
             return buildPaymentResponse(updatedPayment, "Payment status updated successfully", true);
         }
         return PaymentResponse.builder()
@@ -160,6 +232,8 @@ public class PaymentServiceImpl implements PaymentService {
             payment.setStatus(Payment.PaymentStatus.REFUNDED);
             payment.setNotes(payment.getNotes() + " | Refunded: " + reason);
             Payment updatedPayment = paymentRepository.save(payment);
+            revenueSummaryService.invalidate();
+            studentLedgerService.refresh(updatedPayment.getStudentId());
             return buildPaymentResponse(updatedPayment, "Payment refunded successfully", true);
         }
         return PaymentResponse.builder()
@@ -170,22 +244,28 @@ public class PaymentServiceImpl implements PaymentService {
     
     @Override
     public void deletePayment(Long paymentId) {
+        Optional<Payment> payment = paymentRepository.findById(paymentId);
         paymentRepository.deleteById(paymentId);
+        revenueSummaryService.invalidate();
+        payment.ifPresent(p -> studentLedgerService.refresh(p.getStudentId()));
     }
     
     @Override
     @Transactional(readOnly = true)
     public Long getTotalPaymentsCount() {
-        return paymentRepository.count();
+        return revenueSummaryService.getSummary().getTotalPayments();
     }
     
     @Override
     @Transactional(readOnly = true)
     public Double getTotalPaymentsAmount() {
-        return paymentRepository.findAll().stream()
-                .filter(p -> p.getStatus() == Payment.PaymentStatus.COMPLETED)
-                .mapToDouble(p -> p.getAmount().doubleValue())
-                .sum();
+        return revenueSummaryService.getSummary().getTotalCollected().doubleValue();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public RevenueSummary getRevenueSummary() {
+        return revenueSummaryService.getSummary();
     }
     
     @Override
@@ -200,20 +280,18 @@ public class PaymentServiceImpl implements PaymentService {
         return paymentRepository.getTotalPaidAmountByStudent(studentId);
     }
     
-    private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-    
-    private String generateReceiptNumber() {
-        return "RCP" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-    }
-    
     private BigDecimal calculateLateFee(PaymentRequest paymentRequest) {
-        if (paymentRequest.getDueDate() != null && LocalDateTime.now().isAfter(paymentRequest.getDueDate())) {
-            // Calculate 5% late fee for overdue payments
-            return paymentRequest.getAmount().multiply(new BigDecimal("0.05"));
+        if (paymentRequest.getDueDate() == null) {
+            return BigDecimal.ZERO;
         }
-        return BigDecimal.ZERO;
+        // Rules are configured per fee category (fee.late-fee.*)
+        Long feeCategoryId = paymentRequest.getFeeStructureId() != null
+                ? feeStructureRepository.findById(paymentRequest.getFeeStructureId())
+                        .map(FeeStructure::getFeeCategoryId)
+                        .orElse(null)
+                : null;
+        return lateFeeRuleEngine.calculate(feeCategoryId, paymentRequest.getStudentId(), paymentRequest.getAmount(),
+                paymentRequest.getDueDate().toLocalDate(), LocalDate.now());
     }
     
     private PaymentResponse buildPaymentResponse(Payment payment, String message, boolean success) {
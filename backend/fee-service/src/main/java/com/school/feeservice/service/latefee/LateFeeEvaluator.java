@@ -0,0 +1,61 @@
+package com.school.feeservice.service.latefee;
+
+import java.util.Arrays;
+
+/**
+ * A compiled late fee rule. All amounts are in minor currency units (paise)
+ * and held in primitive fields, so {@link #evaluate(long, int)} performs no
+ * allocation and can be run for every fee in the school on each sweep.
+ */
+public final class LateFeeEvaluator {
+
+    static final LateFeeEvaluator WAIVED = new LateFeeEvaluator(0, 0, new int[0], new long[0], 0, true);
+
+    private final int graceDays;
+    private final long percentBasisPoints;
+    private final int[] slabFromDays;
+    private final long[] slabPerDayMinor;
+    private final long capMinor;
+    private final boolean waived;
+
+    LateFeeEvaluator(int graceDays, long percentBasisPoints, int[] slabFromDays, long[] slabPerDayMinor,
+                     long capMinor, boolean waived) {
+        this.graceDays = graceDays;
+        this.percentBasisPoints = percentBasisPoints;
+        this.slabFromDays = Arrays.copyOf(slabFromDays, slabFromDays.length);
+        this.slabPerDayMinor = Arrays.copyOf(slabPerDayMinor, slabPerDayMinor.length);
+        this.capMinor = capMinor;
+        this.waived = waived;
+    }
+
+    /**
+     * @param baseAmountMinor fee amount the percentage applies to, in minor units
+     * @param daysOverdue     whole days since the due date
+     * @return late fee in minor units
+     */
+    public long evaluate(long baseAmountMinor, int daysOverdue) {
+        if (waived) {
+            return 0;
+        }
+        int chargeableDays = daysOverdue - graceDays;
+        if (chargeableDays <= 0) {
+            return 0;
+        }
+
+        long fee = (baseAmountMinor * percentBasisPoints + 5_000) / 10_000;
+        for (int i = 0; i < slabFromDays.length; i++) {
+            int from = slabFromDays[i];
+            if (chargeableDays < from) {
+                break;
+            }
+            int to = i + 1 < slabFromDays.length ? slabFromDays[i + 1] - 1 : chargeableDays;
+            fee += (long) (Math.min(to, chargeableDays) - from + 1) * slabPerDayMinor[i];
+        }
+
+        return capMinor > 0 ? Math.min(fee, capMinor) : fee;
+    }
+
+    public boolean isWaived() {
+        return waived;
+    }
+}
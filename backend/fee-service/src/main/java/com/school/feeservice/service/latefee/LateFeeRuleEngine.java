@@ -0,0 +1,112 @@
+package com.school.feeservice.service.latefee;
+
+import com.school.feeservice.config.LateFeeProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles the configured late fee rules once at startup into immutable
+ * {@link LateFeeEvaluator}s, cached by fee category id.
+ */
+@Component
+@Slf4j
+public class LateFeeRuleEngine {
+
+    private final LateFeeEvaluator defaultEvaluator;
+    private final Map<Long, LateFeeEvaluator> evaluatorsByCategory;
+    private final Set<Long> waivedStudentIds;
+
+    public LateFeeRuleEngine(LateFeeProperties properties) {
+        this.defaultEvaluator = compile(properties.getDefault());
+        Map<Long, LateFeeEvaluator> compiled = new HashMap<>();
+        properties.getCategories().forEach((categoryId, rule) -> compile(rule, categoryId, compiled));
+        this.evaluatorsByCategory = Map.copyOf(compiled);
+        this.waivedStudentIds = Set.copyOf(properties.getWaivedStudentIds());
+        log.info("Compiled late fee rules for {} fee categories", evaluatorsByCategory.size());
+    }
+
+    public LateFeeEvaluator evaluatorFor(Long feeCategoryId) {
+        if (feeCategoryId == null) {
+            return defaultEvaluator;
+        }
+        return evaluatorsByCategory.getOrDefault(feeCategoryId, defaultEvaluator);
+    }
+
+    public LateFeeEvaluator evaluatorFor(Long feeCategoryId, Long studentId) {
+        return studentId != null && waivedStudentIds.contains(studentId)
+                ? LateFeeEvaluator.WAIVED
+                : evaluatorFor(feeCategoryId);
+    }
+
+    /**
+     * Late fee for a fee of the given amount that fell due on dueDate, as of today.
+     */
+    public BigDecimal calculate(Long feeCategoryId, Long studentId, BigDecimal amount, LocalDate dueDate, LocalDate today) {
+        if (amount == null || dueDate == null || !today.isAfter(dueDate)) {
+            return BigDecimal.ZERO;
+        }
+        int daysOverdue = (int) Math.min(ChronoUnit.DAYS.between(dueDate, today), Integer.MAX_VALUE);
+        long lateFeeMinor = evaluatorFor(feeCategoryId, studentId).evaluate(toMinor(amount), daysOverdue);
+        return fromMinor(lateFeeMinor);
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal fromMinor(long amountMinor) {
+        return BigDecimal.valueOf(amountMinor, 2);
+    }
+
+    private static void compile(LateFeeProperties.Rule rule, Long categoryId, Map<Long, LateFeeEvaluator> compiled) {
+        compiled.put(categoryId, compile(rule));
+    }
+
+    private static LateFeeEvaluator compile(LateFeeProperties.Rule rule) {
+        if (rule.isWaived()) {
+            return LateFeeEvaluator.WAIVED;
+        }
+
+        List<LateFeeProperties.Slab> slabs = rule.getSlabs().stream()
+                .sorted(Comparator.comparingInt(LateFeeProperties.Slab::getFromDay))
+                .toList();
+        if (slabs.isEmpty() && isPositive(rule.getPerDay())) {
+            LateFeeProperties.Slab daily = new LateFeeProperties.Slab();
+            daily.setPerDay(rule.getPerDay());
+            slabs = List.of(daily);
+        }
+
+        int[] fromDays = new int[slabs.size()];
+        long[] perDayMinor = new long[slabs.size()];
+        for (int i = 0; i < slabs.size(); i++) {
+            LateFeeProperties.Slab slab = slabs.get(i);
+            if (slab.getFromDay() < 1) {
+                throw new IllegalArgumentException("Late fee slab from-day must be at least 1");
+            }
+            fromDays[i] = slab.getFromDay();
+            perDayMinor[i] = slab.getPerDay() != null ? toMinor(slab.getPerDay()) : 0;
+        }
+
+        long percentBasisPoints = rule.getPercent() != null
+                ? rule.getPercent().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact()
+                : 0;
+        long capMinor = isPositive(rule.getCap()) ? toMinor(rule.getCap()) : 0;
+
+        return new LateFeeEvaluator(Math.max(rule.getGraceDays(), 0), percentBasisPoints, fromDays, perDayMinor,
+                capMinor, false);
+    }
+
+    private static boolean isPositive(BigDecimal value) {
+        return value != null && value.signum() > 0;
+    }
+}
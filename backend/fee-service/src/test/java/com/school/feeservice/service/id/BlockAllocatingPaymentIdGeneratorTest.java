@@ -0,0 +1,114 @@
+package com.school.feeservice.service.id;
+
+import com.school.feeservice.repository.IdSequenceRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockAllocatingPaymentIdGeneratorTest {
+
+    private static final int THREADS = 12;
+    private static final int IDS_PER_THREAD = 2_000;
+    private static final int BLOCK_SIZE = 10;
+
+    @Test
+    void concurrentTransactionIdsAreUniqueAndGapless() throws Exception {
+        BlockAllocatingPaymentIdGenerator generator =
+                new BlockAllocatingPaymentIdGenerator(new InMemoryIdSequenceRepository(), 7, BLOCK_SIZE);
+
+        List<String> ids = generateConcurrently(generator::nextTransactionId);
+
+        assertEquals(ids.size(), new HashSet<>(ids).size(), "duplicate transaction ids were issued");
+        Set<Long> sequenceValues = new HashSet<>();
+        for (String id : ids) {
+            assertTrue(id.matches("TXN007\\d{10}"), "unexpected transaction id format: " + id);
+            sequenceValues.add(Long.parseLong(id.substring(6)));
+        }
+        for (long value = 1; value <= ids.size(); value++) {
+            assertTrue(sequenceValues.contains(value), "transaction sequence value " + value + " was skipped");
+        }
+    }
+
+    @Test
+    void concurrentReceiptNumbersAreUniqueAndGapless() throws Exception {
+        BlockAllocatingPaymentIdGenerator generator =
+                new BlockAllocatingPaymentIdGenerator(new InMemoryIdSequenceRepository(), 0, BLOCK_SIZE);
+
+        List<String> receipts = generateConcurrently(generator::nextReceiptNumber);
+
+        assertEquals(receipts.size(), new HashSet<>(receipts).size(), "duplicate receipt numbers were issued");
+        Set<Long> sequenceValues = new HashSet<>();
+        for (String receipt : receipts) {
+            assertTrue(receipt.matches("RCP\\d{8}-\\d{8}"), "unexpected receipt number format: " + receipt);
+            sequenceValues.add(Long.parseLong(receipt.substring(receipt.indexOf('-') + 1)));
+        }
+        for (long value = 1; value <= receipts.size(); value++) {
+            assertTrue(sequenceValues.contains(value), "receipt sequence value " + value + " was skipped");
+        }
+    }
+
+    @Test
+    void rejectsNodeIdOutsideThreeDigits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlockAllocatingPaymentIdGenerator(new InMemoryIdSequenceRepository(), 1000, BLOCK_SIZE));
+    }
+
+    private static List<String> generateConcurrently(Supplier<String> nextId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<String> generated = new ArrayList<>(IDS_PER_THREAD);
+                    for (int n = 0; n < IDS_PER_THREAD; n++) {
+                        generated.add(nextId.get());
+                    }
+                    return generated;
+                }));
+            }
+            start.countDown();
+
+            List<String> ids = new ArrayList<>(THREADS * IDS_PER_THREAD);
+            for (Future<List<String>> result : results) {
+                ids.addAll(result.get(30, TimeUnit.SECONDS));
+            }
+            return ids;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reserves blocks from in-memory counters instead of the id_sequences table.
+     */
+    private static final class InMemoryIdSequenceRepository extends IdSequenceRepository {
+        private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+        InMemoryIdSequenceRepository() {
+            super(null, null);
+        }
+
+        @Override
+        public long reserveBlock(String sequenceName, int blockSize) {
+            return sequences.computeIfAbsent(sequenceName, name -> new AtomicLong(1)).getAndAdd(blockSize);
+        }
+    }
+}
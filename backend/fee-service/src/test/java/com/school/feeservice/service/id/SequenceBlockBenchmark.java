@@ -0,0 +1,70 @@
+package com.school.feeservice.service.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of SequenceBlock.next() under contention. Each reservation
+ * parks for reserveMicros to stand in for the id_sequences round trip, so
+ * a block size of 1 shows the cost of reserving every value from the
+ * database and larger blocks show how much of it the blocks remove.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceBlockBenchmark {
+
+    @Param({"1", "20", "100", "1000"})
+    private int blockSize;
+
+    @Param({"200"})
+    private long reserveMicros;
+
+    private SequenceBlock sequence;
+
+    @Setup
+    public void setUp() {
+        AtomicLong nextValue = new AtomicLong(1);
+        long reserveNanos = TimeUnit.MICROSECONDS.toNanos(reserveMicros);
+        sequence = new SequenceBlock(() -> {
+            LockSupport.parkNanos(reserveNanos);
+            return nextValue.getAndAdd(blockSize);
+        }, blockSize);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long singleThread() {
+        return sequence.next();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long sixteenThreads() {
+        return sequence.next();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SequenceBlockBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,113 @@
+package com.school.feeservice.service.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SequenceBlockTest {
+
+    private static final int THREADS = 16;
+    private static final int VALUES_PER_THREAD = 5_000;
+    // Small blocks so the run goes through thousands of refills
+    private static final int BLOCK_SIZE = 7;
+
+    @Test
+    void concurrentCallersGetEveryValueExactlyOnceAcrossRefills() throws Exception {
+        BlockStore store = new BlockStore();
+        SequenceBlock block = new SequenceBlock(store.reserver(BLOCK_SIZE), BLOCK_SIZE);
+
+        List<Long> values = drain(List.of(block), THREADS, VALUES_PER_THREAD);
+
+        long total = (long) THREADS * VALUES_PER_THREAD;
+        assertEquals(total, values.size());
+        Set<Long> distinct = new HashSet<>(values);
+        assertEquals(total, distinct.size(), "duplicate values were issued");
+        // One instance wastes nothing: the values are exactly 1..total
+        for (long value = 1; value <= total; value++) {
+            assertTrue(distinct.contains(value), "value " + value + " was skipped");
+        }
+        // Only the thread that finds a block exhausted reserves the next one
+        assertEquals((total + BLOCK_SIZE - 1) / BLOCK_SIZE, store.reservations.get());
+    }
+
+    @Test
+    void instancesSharingOneSequenceNeverIssueTheSameValue() throws Exception {
+        BlockStore store = new BlockStore();
+        List<SequenceBlock> instances = List.of(
+                new SequenceBlock(store.reserver(BLOCK_SIZE), BLOCK_SIZE),
+                new SequenceBlock(store.reserver(BLOCK_SIZE), BLOCK_SIZE),
+                new SequenceBlock(store.reserver(BLOCK_SIZE), BLOCK_SIZE));
+
+        List<Long> values = drain(instances, THREADS, VALUES_PER_THREAD);
+
+        assertEquals(values.size(), new HashSet<>(values).size(), "duplicate values were issued");
+        // Each instance leaves at most the tail of its last block unused
+        long highest = values.stream().mapToLong(Long::longValue).max().orElseThrow();
+        assertTrue(highest <= values.size() + (long) instances.size() * BLOCK_SIZE);
+    }
+
+    /**
+     * Starts all threads together; thread i draws from instance i % instances.size().
+     */
+    private static List<Long> drain(List<SequenceBlock> instances, int threads, int valuesPerThread)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> results = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                SequenceBlock block = instances.get(i % instances.size());
+                Callable<long[]> task = () -> {
+                    start.await();
+                    long[] drawn = new long[valuesPerThread];
+                    for (int n = 0; n < valuesPerThread; n++) {
+                        drawn[n] = block.next();
+                    }
+                    return drawn;
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+
+            List<Long> values = new ArrayList<>(threads * valuesPerThread);
+            for (Future<long[]> result : results) {
+                for (long value : result.get(30, TimeUnit.SECONDS)) {
+                    values.add(value);
+                }
+            }
+            return values;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Stands in for the id_sequences row: hands out contiguous blocks starting at 1.
+     */
+    private static final class BlockStore {
+        private final AtomicLong nextValue = new AtomicLong(1);
+        private final AtomicInteger reservations = new AtomicInteger();
+
+        LongSupplier reserver(int blockSize) {
+            return () -> {
+                reservations.incrementAndGet();
+                return nextValue.getAndAdd(blockSize);
+            };
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.school.feeservice.service.latefee;
+
+import com.school.feeservice.config.LateFeeProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Late fee evaluation for a whole school's overdue fees, as the overdue
+ * sweep runs it: 5,000 students with six fees each, spread over the
+ * default rule and three category overrides. compiledEvaluators is the
+ * primitive path the rules compile to; calculate is the BigDecimal entry
+ * point the sweep calls per fee.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LateFeeEvaluatorBenchmark {
+
+    private static final int STUDENTS = 5_000;
+    private static final int FEES_PER_STUDENT = 6;
+    private static final int FEES = STUDENTS * FEES_PER_STUDENT;
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+
+    private LateFeeRuleEngine engine;
+    private long[] categoryIds;
+    private long[] studentIds;
+    private long[] amountsMinor;
+    private BigDecimal[] amounts;
+    private int[] daysOverdue;
+    private LocalDate[] dueDates;
+
+    @Setup
+    public void setUp() {
+        LateFeeProperties properties = new LateFeeProperties();
+        properties.getDefault().setPercent(new BigDecimal("2"));
+        properties.getDefault().setGraceDays(5);
+        properties.getCategories().put(1L, rule(7, "0", new BigDecimal("500"), slab(1, "10"), slab(16, "25")));
+        properties.getCategories().put(2L, rule(0, "5", null));
+        properties.getCategories().put(3L, rule(10, "1", new BigDecimal("1000"), slab(1, "5"), slab(31, "15")));
+        properties.setWaivedStudentIds(java.util.Set.of(7L, 70L, 700L));
+        engine = new LateFeeRuleEngine(properties);
+
+        Random random = new Random(42);
+        categoryIds = new long[FEES];
+        studentIds = new long[FEES];
+        amountsMinor = new long[FEES];
+        amounts = new BigDecimal[FEES];
+        daysOverdue = new int[FEES];
+        dueDates = new LocalDate[FEES];
+        for (int i = 0; i < FEES; i++) {
+            categoryIds[i] = random.nextInt(5);
+            studentIds[i] = i / FEES_PER_STUDENT + 1;
+            amountsMinor[i] = 50_000 + random.nextInt(5_000_000);
+            amounts[i] = LateFeeRuleEngine.fromMinor(amountsMinor[i]);
+            daysOverdue[i] = 1 + random.nextInt(120);
+            dueDates[i] = TODAY.minusDays(daysOverdue[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FEES)
+    public void compiledEvaluators(Blackhole blackhole) {
+        for (int i = 0; i < FEES; i++) {
+            LateFeeEvaluator evaluator = engine.evaluatorFor(categoryIds[i], studentIds[i]);
+            blackhole.consume(evaluator.evaluate(amountsMinor[i], daysOverdue[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FEES)
+    public void calculate(Blackhole blackhole) {
+        for (int i = 0; i < FEES; i++) {
+            blackhole.consume(engine.calculate(categoryIds[i], studentIds[i], amounts[i], dueDates[i], TODAY));
+        }
+    }
+
+    private static LateFeeProperties.Rule rule(int graceDays, String percent, BigDecimal cap,
+                                               LateFeeProperties.Slab... slabs) {
+        LateFeeProperties.Rule rule = new LateFeeProperties.Rule();
+        rule.setGraceDays(graceDays);
+        rule.setPercent(new BigDecimal(percent));
+        rule.setCap(cap);
+        rule.setSlabs(List.of(slabs));
+        return rule;
+    }
+
+    private static LateFeeProperties.Slab slab(int fromDay, String perDay) {
+        LateFeeProperties.Slab slab = new LateFeeProperties.Slab();
+        slab.setFromDay(fromDay);
+        slab.setPerDay(new BigDecimal(perDay));
+        return slab;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LateFeeEvaluatorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.school.feeservice.service.latefee;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LateFeeEvaluatorTest {
+
+    private static final int[] NO_SLABS = new int[0];
+    private static final long[] NO_RATES = new long[0];
+
+    @Test
+    void chargesNothingUntilTheGracePeriodHasPassed() {
+        LateFeeEvaluator evaluator = new LateFeeEvaluator(5, 0, new int[]{1}, new long[]{1_000}, 0, false);
+
+        assertEquals(0, evaluator.evaluate(100_000, 0));
+        assertEquals(0, evaluator.evaluate(100_000, 5));
+        assertEquals(1_000, evaluator.evaluate(100_000, 6));
+        assertEquals(5_000, evaluator.evaluate(100_000, 10));
+    }
+
+    @Test
+    void percentageAppliesOnceFromTheFirstChargeableDay() {
+        LateFeeEvaluator evaluator = new LateFeeEvaluator(3, 500, NO_SLABS, NO_RATES, 0, false);
+
+        assertEquals(0, evaluator.evaluate(1_000_000, 3));
+        assertEquals(50_000, evaluator.evaluate(1_000_000, 4));
+        assertEquals(50_000, evaluator.evaluate(1_000_000, 40));
+    }
+
+    @Test
+    void percentageRoundsHalfUpToTheMinorUnit() {
+        LateFeeEvaluator evaluator = new LateFeeEvaluator(0, 500, NO_SLABS, NO_RATES, 0, false);
+
+        // 5% of 3.33 is 0.1665
+        assertEquals(17, evaluator.evaluate(333, 1));
+        // 5% of 3.29 is 0.1645
+        assertEquals(16, evaluator.evaluate(329, 1));
+    }
+
+    @Test
+    void slabRateChangesOnItsFromDayCountedAfterGrace() {
+        LateFeeEvaluator evaluator = new LateFeeEvaluator(7, 0, new int[]{1, 16}, new long[]{1_000, 2_500}, 0, false);
+
+        assertEquals(0, evaluator.evaluate(100_000, 7));
+        assertEquals(1_000, evaluator.evaluate(100_000, 8));
+        // Chargeable day 15 is the last day of the first slab
+        assertEquals(15_000, evaluator.evaluate(100_000, 22));
+        assertEquals(17_500, evaluator.evaluate(100_000, 23));
+        assertEquals(27_500, evaluator.evaluate(100_000, 27));
+    }
+
+    @Test
+    void slabsStartingAfterDayOneLeaveTheEarlierDaysFree() {
+        LateFeeEvaluator evaluator = new LateFeeEvaluator(0, 0, new int[]{4}, new long[]{1_000}, 0, false);
+
+        assertEquals(0, evaluator.evaluate(100_000, 3));
+        assertEquals(1_000, evaluator.evaluate(100_000, 4));
+        assertEquals(3_000, evaluator.evaluate(100_000, 6));
+    }
+
+    @Test
+    void capLimitsTheTotalOfPercentageAndSlabs() {
+        LateFeeEvaluator evaluator = new LateFeeEvaluator(7, 100, new int[]{1, 16}, new long[]{1_000, 2_500}, 50_000,
+                false);
+
+        // 1% of 1000.00 is 1000 minor, plus 15 days at 1000 and 13 days at 2500
+        assertEquals(48_500, evaluator.evaluate(100_000, 35));
+        assertEquals(50_000, evaluator.evaluate(100_000, 36));
+        assertEquals(50_000, evaluator.evaluate(100_000, 37));
+        assertEquals(50_000, evaluator.evaluate(100_000, 365));
+    }
+
+    @Test
+    void zeroCapMeansUncapped() {
+        LateFeeEvaluator evaluator = new LateFeeEvaluator(0, 0, new int[]{1}, new long[]{1_000}, 0, false);
+
+        assertEquals(365_000, evaluator.evaluate(100_000, 365));
+    }
+
+    @Test
+    void waivedRuleNeverCharges() {
+        assertEquals(0, LateFeeEvaluator.WAIVED.evaluate(100_000, 365));
+        LateFeeEvaluator waived = new LateFeeEvaluator(0, 500, new int[]{1}, new long[]{1_000}, 0, true);
+        assertEquals(0, waived.evaluate(100_000, 365));
+    }
+}
@@ -0,0 +1,116 @@
+package com.school.feeservice.service.latefee;
+
+import com.school.feeservice.config.LateFeeProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LateFeeRuleEngineTest {
+
+    private static final Long TUITION = 2L;
+    private static final Long TRANSPORT = 3L;
+    private static final Long WAIVED_STUDENT = 101L;
+    private static final LocalDate DUE = LocalDate.of(2024, 1, 1);
+
+    private LateFeeProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LateFeeProperties();
+        properties.getDefault().setPercent(new BigDecimal("5"));
+
+        LateFeeProperties.Rule tuition = new LateFeeProperties.Rule();
+        tuition.setGraceDays(7);
+        tuition.setSlabs(List.of(slab(1, "10"), slab(16, "25")));
+        tuition.setCap(new BigDecimal("500"));
+        properties.getCategories().put(TUITION, tuition);
+
+        LateFeeProperties.Rule transport = new LateFeeProperties.Rule();
+        transport.setWaived(true);
+        properties.getCategories().put(TRANSPORT, transport);
+
+        properties.setWaivedStudentIds(Set.of(WAIVED_STUDENT));
+    }
+
+    @Test
+    void nothingIsDueOnOrBeforeTheDueDate() {
+        LateFeeRuleEngine engine = new LateFeeRuleEngine(properties);
+
+        assertAmount("0", engine.calculate(null, 1L, new BigDecimal("1000"), DUE, DUE.minusDays(1)));
+        assertAmount("0", engine.calculate(null, 1L, new BigDecimal("1000"), DUE, DUE));
+        assertAmount("50.00", engine.calculate(null, 1L, new BigDecimal("1000"), DUE, DUE.plusDays(1)));
+    }
+
+    @Test
+    void categoriesWithoutAnOverrideUseTheDefaultRule() {
+        LateFeeRuleEngine engine = new LateFeeRuleEngine(properties);
+
+        assertSame(engine.evaluatorFor(null), engine.evaluatorFor(99L));
+        assertAmount("50.00", engine.calculate(99L, 1L, new BigDecimal("1000"), DUE, DUE.plusDays(30)));
+    }
+
+    @Test
+    void categoryOverrideReplacesTheDefaultRule() {
+        LateFeeRuleEngine engine = new LateFeeRuleEngine(properties);
+
+        // No default percentage, and the category's grace period applies
+        assertAmount("0", engine.calculate(TUITION, 1L, new BigDecimal("1000"), DUE, DUE.plusDays(7)));
+        assertAmount("10.00", engine.calculate(TUITION, 1L, new BigDecimal("1000"), DUE, DUE.plusDays(8)));
+        assertAmount("175.00", engine.calculate(TUITION, 1L, new BigDecimal("1000"), DUE, DUE.plusDays(23)));
+        assertAmount("500.00", engine.calculate(TUITION, 1L, new BigDecimal("1000"), DUE, DUE.plusDays(90)));
+    }
+
+    @Test
+    void waivedCategoryAndWaivedStudentAreNeverCharged() {
+        LateFeeRuleEngine engine = new LateFeeRuleEngine(properties);
+
+        assertAmount("0.00", engine.calculate(TRANSPORT, 1L, new BigDecimal("1000"), DUE, DUE.plusDays(90)));
+        assertAmount("0.00", engine.calculate(TUITION, WAIVED_STUDENT, new BigDecimal("1000"), DUE, DUE.plusDays(90)));
+        assertAmount("0.00", engine.calculate(null, WAIVED_STUDENT, new BigDecimal("1000"), DUE, DUE.plusDays(90)));
+    }
+
+    @Test
+    void flatPerDayAppliesWhenNoSlabsAreConfigured() {
+        properties.getDefault().setPercent(BigDecimal.ZERO);
+        properties.getDefault().setGraceDays(2);
+        properties.getDefault().setPerDay(new BigDecimal("2.50"));
+        LateFeeRuleEngine engine = new LateFeeRuleEngine(properties);
+
+        assertAmount("0", engine.calculate(null, 1L, new BigDecimal("1000"), DUE, DUE.plusDays(2)));
+        assertAmount("7.50", engine.calculate(null, 1L, new BigDecimal("1000"), DUE, DUE.plusDays(5)));
+    }
+
+    @Test
+    void slabsAreAppliedInFromDayOrderWhateverTheConfiguredOrder() {
+        properties.getCategories().get(TUITION).setSlabs(List.of(slab(16, "25"), slab(1, "10")));
+        LateFeeRuleEngine engine = new LateFeeRuleEngine(properties);
+
+        assertAmount("175.00", engine.calculate(TUITION, 1L, new BigDecimal("1000"), DUE, DUE.plusDays(23)));
+    }
+
+    @Test
+    void rejectsSlabsStartingBeforeDayOne() {
+        properties.getCategories().get(TUITION).setSlabs(List.of(slab(0, "10")));
+
+        assertThrows(IllegalArgumentException.class, () -> new LateFeeRuleEngine(properties));
+    }
+
+    private static LateFeeProperties.Slab slab(int fromDay, String perDay) {
+        LateFeeProperties.Slab slab = new LateFeeProperties.Slab();
+        slab.setFromDay(fromDay);
+        slab.setPerDay(new BigDecimal(perDay));
+        return slab;
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+}
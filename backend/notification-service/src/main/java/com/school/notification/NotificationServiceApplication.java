@@ -2,12 +2,19 @@ package com.school.notification;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// Notification records, the delivery pipeline and the schedulers live in com.school.notificationservice
+@SpringBootApplication(scanBasePackages = {"com.school.notification", "com.school.notificationservice"})
+@EntityScan("com.school.notificationservice.model")
+@EnableJpaRepositories("com.school.notificationservice.repository")
+@EnableScheduling
 @EnableDiscoveryClient
 public class NotificationServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(NotificationServiceApplication.class, args);
     }
-} 
\ No newline at end of file
+}
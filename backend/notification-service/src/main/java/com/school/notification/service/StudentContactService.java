@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -19,11 +20,14 @@ import java.util.stream.Collectors;
 public class StudentContactService {
     private static final Logger log = LoggerFactory.getLogger(StudentContactService.class);
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     
     @Value("${student.service.url:http://localhost:8081}")
     private String studentServiceUrl;
     
+    @Value("${student.service.contact-batch-size:500}")
+    private int contactBatchSize;
+    
     public StudentContactDTO getStudentContact(Long studentId) {
         try {
             String url = studentServiceUrl + "/api/students/" + studentId;
@@ -46,14 +50,24 @@ public class StudentContactService {
     }
     
     public List<StudentContactDTO> getStudentsByIds(List<Long> studentIds) {
-        try {
-            String url = studentServiceUrl + "/api/students/bulk";
-            StudentContactDTO[] students = restTemplate.postForObject(url, studentIds, StudentContactDTO[].class);
-            return students != null ? Arrays.asList(students) : List.of();
-        } catch (Exception e) {
-            log.error("Failed to fetch students by IDs: {}", e.getMessage());
+        if (studentIds == null || studentIds.isEmpty()) {
             return List.of();
         }
+        String url = studentServiceUrl + "/api/students/bulk/contacts";
+        List<StudentContactDTO> contacts = new ArrayList<>(studentIds.size());
+        // Stay under student-service's per-request id limit
+        for (int from = 0; from < studentIds.size(); from += contactBatchSize) {
+            List<Long> batch = studentIds.subList(from, Math.min(from + contactBatchSize, studentIds.size()));
+            try {
+                StudentContactDTO[] students = restTemplate.postForObject(url, batch, StudentContactDTO[].class);
+                if (students != null) {
+                    contacts.addAll(Arrays.asList(students));
+                }
+            } catch (Exception e) {
+                log.error("Failed to fetch {} students by IDs: {}", batch.size(), e.getMessage());
+            }
+        }
+        return contacts;
     }
     
     public List<String> getParentPhoneNumbers(List<StudentContactDTO> students) {
@@ -3,6 +3,7 @@ package com.school.notification.service.impl;
 import com.school.notification.dto.StudentContactDTO;
 import com.school.notification.service.NotificationService;
 import com.school.notification.service.StudentContactService;
+import com.school.notificationservice.service.WhatsAppService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,8 +30,9 @@ public class NotificationServiceImpl implements NotificationService {
     private static final Logger log = LoggerFactory.getLogger(NotificationServiceImpl.class);
     
     private final JavaMailSender mailSender;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final StudentContactService studentContactService;
+    private final WhatsAppService whatsAppService;
     
     @Value("${whatsapp.api.url:https://graph.facebook.com/v17.0}")
     private String whatsappApiUrl;
@@ -139,16 +142,11 @@ public class NotificationServiceImpl implements NotificationService {
     
     @Override
     public void sendBulkWhatsApp(String[] phoneNumbers, String message) {
+        Map<String, String> phoneNumberToMessage = new LinkedHashMap<>();
         for (String phoneNumber : phoneNumbers) {
-            sendWhatsApp(phoneNumber, message);
-            // Add delay to avoid rate limiting
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+            phoneNumberToMessage.put(phoneNumber, message);
         }
+        sendBulkWhatsApp(phoneNumberToMessage);
     }
     
     @Override
@@ -226,15 +224,34 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendFeeReminderToClassParents(Long classId, String amount, String dueDate) {
         List<StudentContactDTO> students = studentContactService.getStudentsByClass(classId);
         
+        Map<String, String> phoneNumberToMessage = new LinkedHashMap<>();
         for (StudentContactDTO student : students) {
             String message = String.format("Dear %s, this is a reminder that the school fees for %s amounting to %s is due by %s. Please make the payment to avoid any late fees.", 
                     student.getParentName(), student.getStudentName(), amount, dueDate);
             
-            sendNotificationToParent(student, "Fee Payment Reminder", message, "both");
+            sendNotificationToParent(student, "Fee Payment Reminder", message, "email");
+            if (student.getParentPhone() != null && !student.getParentPhone().trim().isEmpty()) {
+                phoneNumberToMessage.put(student.getParentPhone(), message);
+            }
         }
+        sendBulkWhatsApp(phoneNumberToMessage);
     }
     
     // Helper methods
+    
+    // Sends concurrently within the WhatsApp rate limit instead of one message per second
+    private void sendBulkWhatsApp(Map<String, String> phoneNumberToMessage) {
+        if (phoneNumberToMessage.isEmpty()) {
+            return;
+        }
+        Map<String, Boolean> results = whatsAppService.sendBulkWhatsApp(phoneNumberToMessage);
+        long failed = results.values().stream().filter(sent -> !sent).count();
+        if (failed > 0) {
+            log.error("Failed to send {} of {} WhatsApp messages", failed, results.size());
+        } else {
+            log.info("Sent {} WhatsApp messages", results.size());
+        }
+    }
     private void sendNotificationToParent(StudentContactDTO student, String title, String message, String channels) {
         try {
             if (channels.contains("email") || channels.equals("both")) {
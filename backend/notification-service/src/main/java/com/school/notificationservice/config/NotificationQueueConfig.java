@@ -0,0 +1,113 @@
+package com.school.notificationservice.config;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RabbitMQ topology for the notification pipeline. Each stage has a
+ * durable queue on the notification.pipeline exchange; messages a consumer
+ * rejects after its retries are routed through notification.pipeline.dlx
+ * to the stage's ".dlq" queue. Each stage has its own listener container
+ * factory so prefetch and consumer counts can be tuned separately.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.queue.mode", havingValue = "rabbit", matchIfMissing = true)
+public class NotificationQueueConfig {
+
+    public static final String EXCHANGE = "notification.pipeline";
+    public static final String DEAD_LETTER_EXCHANGE = "notification.pipeline.dlx";
+
+    public static final String FANOUT_QUEUE = "notification.fanout";
+    public static final String RECIPIENTS_QUEUE = "notification.recipients";
+    public static final String SMS_QUEUE = "notification.send.sms";
+    public static final String WHATSAPP_QUEUE = "notification.send.whatsapp";
+
+    private static final List<String> QUEUES = List.of(FANOUT_QUEUE, RECIPIENTS_QUEUE, SMS_QUEUE, WHATSAPP_QUEUE);
+
+    @Bean
+    public Declarables notificationPipelineTopology() {
+        DirectExchange exchange = new DirectExchange(EXCHANGE);
+        DirectExchange deadLetterExchange = new DirectExchange(DEAD_LETTER_EXCHANGE);
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(exchange);
+        declarables.add(deadLetterExchange);
+        for (String name : QUEUES) {
+            Queue queue = QueueBuilder.durable(name)
+                    .deadLetterExchange(DEAD_LETTER_EXCHANGE)
+                    .deadLetterRoutingKey(name + ".dlq")
+                    .build();
+            Queue deadLetterQueue = QueueBuilder.durable(name + ".dlq").build();
+            Binding binding = BindingBuilder.bind(queue).to(exchange).with(name);
+            Binding deadLetterBinding = BindingBuilder.bind(deadLetterQueue).to(deadLetterExchange).with(name + ".dlq");
+            declarables.add(queue);
+            declarables.add(deadLetterQueue);
+            declarables.add(binding);
+            declarables.add(deadLetterBinding);
+        }
+        return new Declarables(declarables);
+    }
+
+    @Bean
+    public MessageConverter notificationMessageConverter() {
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setTrustedPackages("com.school.notificationservice.messaging");
+        converter.setJavaTypeMapper(typeMapper);
+        return converter;
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory fanoutContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${notification.queue.fanout.prefetch:1}") int prefetch,
+            @Value("${notification.queue.fanout.concurrency:1}") int concurrency) {
+        return containerFactory(configurer, connectionFactory, prefetch, concurrency);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory recipientsContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${notification.queue.recipients.prefetch:5}") int prefetch,
+            @Value("${notification.queue.recipients.concurrency:2}") int concurrency) {
+        return containerFactory(configurer, connectionFactory, prefetch, concurrency);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory sendContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${notification.queue.send.prefetch:1}") int prefetch,
+            @Value("${notification.queue.send.concurrency:2}") int concurrency) {
+        return containerFactory(configurer, connectionFactory, prefetch, concurrency);
+    }
+
+    private static SimpleRabbitListenerContainerFactory containerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            int prefetch, int concurrency) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setPrefetchCount(prefetch);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(concurrency);
+        // Failed messages go to the dead-letter queue instead of looping on the main queue
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+}
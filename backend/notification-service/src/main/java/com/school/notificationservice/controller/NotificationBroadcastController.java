@@ -8,6 +8,7 @@ import com.school.notificationservice.service.WhatsAppService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,10 +17,15 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Stored, scheduled and broadcast notifications. Shares /api/notifications
+ * with com.school.notification.controller.NotificationController, whose
+ * WhatsApp endpoints take request parameters; the ones here take JSON.
+ */
 @RestController
 @RequestMapping("/api/notifications")
 @CrossOrigin(origins = "*")
-public class NotificationController {
+public class NotificationBroadcastController {
     
     @Autowired
     private NotificationService notificationService;
@@ -287,7 +293,7 @@ public class NotificationController {
     /**
      * Send WhatsApp message directly
      */
-    @PostMapping("/whatsapp")
+    @PostMapping(value = "/whatsapp", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Map<String, Object>> sendWhatsApp(@RequestBody Map<String, String> request) {
         try {
             String phoneNumber = request.get("phoneNumber");
@@ -324,7 +330,7 @@ public class NotificationController {
     /**
      * Send WhatsApp template message
      */
-    @PostMapping("/whatsapp/template")
+    @PostMapping(value = "/whatsapp/template", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Map<String, Object>> sendWhatsAppTemplate(@RequestBody Map<String, Object> request) {
         try {
             String phoneNumber = (String) request.get("phoneNumber");
@@ -364,7 +370,7 @@ public class NotificationController {
     /**
      * Send bulk WhatsApp messages
      */
-    @PostMapping("/whatsapp/bulk")
+    @PostMapping(value = "/whatsapp/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Map<String, Object>> sendBulkWhatsApp(@RequestBody Map<String, Object> request) {
         try {
             @SuppressWarnings("unchecked")
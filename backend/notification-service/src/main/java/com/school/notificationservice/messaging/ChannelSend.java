@@ -0,0 +1,14 @@
+package com.school.notificationservice.messaging;
+
+import com.school.notificationservice.model.NotificationDelivery;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stage 3: send one batch of messages on one channel (SMS or WhatsApp), keyed by phone number.
+ * deliveryIdsByPhone maps each phone number to the delivery rows its result settles.
+ */
+public record ChannelSend(Long notificationId, NotificationDelivery.DeliveryMethod channel,
+                          Map<String, String> phoneNumberToMessage, Map<String, List<Long>> deliveryIdsByPhone) {
+}
@@ -0,0 +1,67 @@
+package com.school.notificationservice.messaging;
+
+import com.school.notificationservice.model.NotificationDelivery;
+import com.school.notificationservice.repository.NotificationDeliveryJdbcRepository;
+import com.school.notificationservice.repository.NotificationDeliveryJdbcRepository.StatusUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes per-phone send results back to the delivery rows they came from.
+ *
+ * Stage 2 of the pipeline records which delivery ids each phone number
+ * stands for (siblings share a parent phone, so one message can cover
+ * several rows) and ships that index with the channel batch. Accepted
+ * sends become SENT with a send time; rejected ones become FAILED so the
+ * retry job picks them up.
+ */
+@Component
+public class DeliveryStatusReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryStatusReconciler.class);
+
+    private final NotificationDeliveryJdbcRepository deliveryJdbcRepository;
+
+    public DeliveryStatusReconciler(NotificationDeliveryJdbcRepository deliveryJdbcRepository) {
+        this.deliveryJdbcRepository = deliveryJdbcRepository;
+    }
+
+    public void reconcile(ChannelSend send, Map<String, Boolean> results) {
+        if (send.deliveryIdsByPhone() == null) {
+            logger.warn("Channel batch for notification {} carries no delivery index; {} results not recorded",
+                    send.notificationId(), results.size());
+            return;
+        }
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        String failure = failureMessage(send.channel());
+        List<StatusUpdate> updates = new ArrayList<>();
+        int sent = 0;
+        for (Map.Entry<String, List<Long>> entry : send.deliveryIdsByPhone().entrySet()) {
+            boolean success = Boolean.TRUE.equals(results.get(entry.getKey()));
+            for (Long deliveryId : entry.getValue()) {
+                updates.add(success
+                        ? new StatusUpdate(deliveryId, NotificationDelivery.DeliveryStatus.SENT, sentAt, null)
+                        : new StatusUpdate(deliveryId, NotificationDelivery.DeliveryStatus.FAILED, null, failure));
+                if (success) {
+                    sent++;
+                }
+            }
+        }
+        deliveryJdbcRepository.batchUpdateStatus(updates);
+        logger.info("{} delivery results for notification {}: {} sent, {} failed", send.channel(),
+                send.notificationId(), sent, updates.size() - sent);
+    }
+
+    private static String failureMessage(NotificationDelivery.DeliveryMethod channel) {
+        return channel == NotificationDelivery.DeliveryMethod.WHATSAPP
+                ? "WhatsApp provider did not accept the message"
+                : "SMS provider did not accept the message";
+    }
+}
@@ -0,0 +1,10 @@
+package com.school.notificationservice.messaging;
+
+import java.util.List;
+
+/**
+ * Stage 1: resolve the recipients of a saved notification and split them into batches.
+ * The audience (all parents, class, class and section) is read from the notification row.
+ */
+public record FanoutRequest(Long notificationId, List<String> deliveryMethods) {
+}
@@ -0,0 +1,98 @@
+package com.school.notificationservice.messaging;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broker stand-in for tests and local runs without RabbitMQ
+ * (notification.queue.mode=in-memory). Each stage runs on its own bounded
+ * executor with the same concurrency as the Rabbit consumers; a full stage
+ * makes the publisher run the message itself, which slows the stage
+ * upstream instead of dropping work. Messages whose handler throws are kept
+ * as dead letters. Nothing survives a restart.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.queue.mode", havingValue = "in-memory")
+public class InMemoryNotificationQueue implements NotificationQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryNotificationQueue.class);
+
+    private static final int STAGE_CAPACITY = 1000;
+
+    private final ObjectProvider<NotificationPipeline> pipeline;
+    private final ExecutorService fanoutStage;
+    private final ExecutorService recipientsStage;
+    private final ExecutorService sendStage;
+    private final Queue<Object> deadLetters = new ConcurrentLinkedQueue<>();
+
+    public InMemoryNotificationQueue(ObjectProvider<NotificationPipeline> pipeline,
+                                     @Value("${notification.queue.fanout.concurrency:1}") int fanoutConcurrency,
+                                     @Value("${notification.queue.recipients.concurrency:2}") int recipientsConcurrency,
+                                     @Value("${notification.queue.send.concurrency:2}") int sendConcurrency) {
+        this.pipeline = pipeline;
+        this.fanoutStage = stage("notification-fanout-", fanoutConcurrency);
+        this.recipientsStage = stage("notification-recipients-", recipientsConcurrency);
+        // SMS and WhatsApp share one stage here; each channel is still rate limited by the dispatcher
+        this.sendStage = stage("notification-send-", sendConcurrency * 2);
+    }
+
+    @Override
+    public void publishFanout(FanoutRequest request) {
+        fanoutStage.execute(() -> handle(request, () -> pipeline.getObject().fanOut(request)));
+    }
+
+    @Override
+    public void publishRecipientBatch(RecipientBatch batch) {
+        recipientsStage.execute(() -> handle(batch, () -> pipeline.getObject().deliverBatch(batch)));
+    }
+
+    @Override
+    public void publishChannelSend(ChannelSend send) {
+        sendStage.execute(() -> handle(send, () -> pipeline.getObject().send(send)));
+    }
+
+    /**
+     * Messages whose handler failed, oldest first.
+     */
+    public List<Object> getDeadLetters() {
+        return List.copyOf(deadLetters);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService stage : List.of(fanoutStage, recipientsStage, sendStage)) {
+            stage.shutdown();
+            stage.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private void handle(Object message, Runnable handler) {
+        try {
+            handler.run();
+        } catch (RuntimeException e) {
+            logger.error("Notification pipeline message dead-lettered: {}: {}", message, e.getMessage(), e);
+            deadLetters.add(message);
+        }
+    }
+
+    private static ExecutorService stage(String threadPrefix, int threads) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadPrefix);
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(STAGE_CAPACITY), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,260 @@
+package com.school.notificationservice.messaging;
+
+import com.school.notificationservice.model.Notification;
+import com.school.notificationservice.model.NotificationDelivery;
+import com.school.notificationservice.repository.NotificationDeliveryRepository;
+import com.school.notificationservice.repository.NotificationJdbcRepository;
+import com.school.notificationservice.repository.NotificationRepository;
+import com.school.notificationservice.service.SMSService;
+import com.school.notificationservice.service.StudentDirectoryClient;
+import com.school.notificationservice.service.WhatsAppService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stage handlers of the notification pipeline:
+ * <ol>
+ *   <li>fanOut: resolves the recipients of a notification and queues them in batches</li>
+ *   <li>deliverBatch: creates the delivery rows for a batch and queues one send per channel</li>
+ *   <li>send: sends a channel batch through the rate-limited bulk dispatcher and records the results</li>
+ * </ol>
+ * fanOut runs at most once per notification: it first moves the
+ * notification from SCHEDULED to SENT in a single conditional update, so
+ * duplicate or redelivered fan-out requests find nothing to do. The later
+ * stages are at least once: a batch or send that fails after publishing
+ * part of its output is redelivered, so a crash there can repeat messages.
+ */
+@Component
+public class NotificationPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPipeline.class);
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final NotificationDeliveryRepository deliveryRepository;
+    private final StudentDirectoryClient studentDirectory;
+    private final SMSService smsService;
+    private final WhatsAppService whatsappService;
+    private final NotificationQueue notificationQueue;
+    private final DeliveryStatusReconciler deliveryStatusReconciler;
+    private final int recipientBatchSize;
+
+    public NotificationPipeline(NotificationRepository notificationRepository,
+                                NotificationJdbcRepository notificationJdbcRepository,
+                                NotificationDeliveryRepository deliveryRepository,
+                                StudentDirectoryClient studentDirectory,
+                                SMSService smsService,
+                                WhatsAppService whatsappService,
+                                NotificationQueue notificationQueue,
+                                DeliveryStatusReconciler deliveryStatusReconciler,
+                                @Value("${notification.queue.recipient-batch-size:200}") int recipientBatchSize) {
+        this.notificationRepository = notificationRepository;
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.studentDirectory = studentDirectory;
+        this.smsService = smsService;
+        this.whatsappService = whatsappService;
+        this.notificationQueue = notificationQueue;
+        this.deliveryStatusReconciler = deliveryStatusReconciler;
+        this.recipientBatchSize = recipientBatchSize;
+    }
+
+    /**
+     * Stage 1. The notification is taken (SCHEDULED to SENT) before any
+     * recipient is published, and only the request that takes it fans out.
+     * If the fan-out then fails part way, the notification is marked FAILED
+     * rather than retried, since retrying would resend to recipients that
+     * were already published.
+     */
+    public void fanOut(FanoutRequest request) {
+        if (!notificationJdbcRepository.takeForFanout(request.notificationId(), LocalDateTime.now())) {
+            logger.info("Notification {} is no longer SCHEDULED; skipping fan-out", request.notificationId());
+            return;
+        }
+        Notification notification = notificationRepository.findById(request.notificationId()).orElse(null);
+        if (notification == null) {
+            logger.warn("Notification {} no longer exists; skipping fan-out", request.notificationId());
+            return;
+        }
+        try {
+            publishRecipients(notification, request.deliveryMethods());
+        } catch (RuntimeException e) {
+            logger.error("Fan-out of notification {} failed: {}", notification.getId(), e.getMessage(), e);
+            notification.setStatus(Notification.Status.FAILED);
+            notificationRepository.save(notification);
+        }
+    }
+
+    private void publishRecipients(Notification notification, List<String> deliveryMethods) {
+        List<Map<String, Object>> students;
+        switch (notification.getTargetAudience()) {
+            case ALL_PARENTS:
+            case ALL_STUDENTS:
+                students = studentDirectory.getAllStudents();
+                break;
+            case SPECIFIC_CLASS:
+                students = notification.getSection() != null
+                        ? studentDirectory.getStudentsByClassSection(notification.getClassId(), notification.getSection())
+                        : studentDirectory.getStudentsByClass(notification.getClassId());
+                break;
+            default:
+                logger.warn("Unsupported target audience: {}", notification.getTargetAudience());
+                notification.setStatus(Notification.Status.FAILED);
+                notificationRepository.save(notification);
+                return;
+        }
+
+        int batches = 0;
+        List<RecipientBatch.Recipient> recipients = new ArrayList<>(recipientBatchSize);
+        for (Map<String, Object> student : students) {
+            recipients.add(new RecipientBatch.Recipient(
+                    Long.valueOf(student.get("id").toString()),
+                    (String) student.get("name"),
+                    (String) student.get("parentPhone")));
+            if (recipients.size() == recipientBatchSize) {
+                notificationQueue.publishRecipientBatch(
+                        new RecipientBatch(notification.getId(), deliveryMethods, recipients));
+                recipients = new ArrayList<>(recipientBatchSize);
+                batches++;
+            }
+        }
+        if (!recipients.isEmpty()) {
+            notificationQueue.publishRecipientBatch(
+                    new RecipientBatch(notification.getId(), deliveryMethods, recipients));
+            batches++;
+        }
+
+        logger.info("Notification {} fanned out to {} recipients in {} batches via {} methods", notification.getId(),
+                students.size(), batches, deliveryMethods != null ? deliveryMethods.size() : 1);
+    }
+
+    /**
+     * Stage 2.
+     */
+    public void deliverBatch(RecipientBatch batch) {
+        Notification notification = notificationRepository.findById(batch.notificationId()).orElse(null);
+        if (notification == null) {
+            logger.warn("Notification {} no longer exists; dropping recipient batch", batch.notificationId());
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationDelivery> deliveries = new ArrayList<>();
+        Map<String, String> smsRecipients = new HashMap<>();
+        Map<String, String> whatsappRecipients = new HashMap<>();
+        // Which delivery rows each phone's send result settles, filled in once the rows have ids
+        Map<String, List<NotificationDelivery>> smsDeliveriesByPhone = new HashMap<>();
+        Map<String, List<NotificationDelivery>> whatsappDeliveriesByPhone = new HashMap<>();
+        for (RecipientBatch.Recipient recipient : batch.recipients()) {
+            String parentPhone = recipient.parentPhone();
+            if (batch.deliveryMethods() != null) {
+                for (String method : batch.deliveryMethods()) {
+                    NotificationDelivery.DeliveryMethod deliveryMethod =
+                            NotificationDelivery.DeliveryMethod.valueOf(method.toUpperCase());
+                    NotificationDelivery delivery = new NotificationDelivery(
+                            notification.getId(),
+                            recipient.studentId(),
+                            NotificationDelivery.RecipientType.STUDENT,
+                            deliveryMethod
+                    );
+                    deliveries.add(delivery);
+                    if (deliveryMethod == NotificationDelivery.DeliveryMethod.SMS) {
+                        String formattedPhone = parentPhone != null ? smsService.formatPhoneNumber(parentPhone) : null;
+                        if (formattedPhone != null && smsService.isValidPhoneNumber(formattedPhone)) {
+                            smsRecipients.put(formattedPhone, createSMSMessage(notification, recipient.studentName()));
+                            smsDeliveriesByPhone.computeIfAbsent(formattedPhone, phone -> new ArrayList<>()).add(delivery);
+                        } else {
+                            markUnreachable(delivery);
+                        }
+                    } else if (deliveryMethod == NotificationDelivery.DeliveryMethod.WHATSAPP) {
+                        String formattedPhone = parentPhone != null ? whatsappService.formatPhoneForWhatsApp(parentPhone) : null;
+                        if (formattedPhone != null && whatsappService.isValidWhatsAppNumber(formattedPhone)) {
+                            whatsappRecipients.put(formattedPhone, createWhatsAppMessage(notification));
+                            whatsappDeliveriesByPhone.computeIfAbsent(formattedPhone, phone -> new ArrayList<>()).add(delivery);
+                        } else {
+                            markUnreachable(delivery);
+                        }
+                    } else if (deliveryMethod == NotificationDelivery.DeliveryMethod.IN_APP) {
+                        markDeliveredInApp(delivery, now);
+                    }
+                }
+            } else {
+                NotificationDelivery delivery = new NotificationDelivery(
+                        notification.getId(),
+                        recipient.studentId(),
+                        NotificationDelivery.RecipientType.STUDENT,
+                        NotificationDelivery.DeliveryMethod.IN_APP
+                );
+                markDeliveredInApp(delivery, now);
+                deliveries.add(delivery);
+            }
+        }
+        deliveryRepository.saveAll(deliveries);
+
+        if (!smsRecipients.isEmpty()) {
+            notificationQueue.publishChannelSend(new ChannelSend(notification.getId(),
+                    NotificationDelivery.DeliveryMethod.SMS, smsRecipients, deliveryIds(smsDeliveriesByPhone)));
+        }
+        if (!whatsappRecipients.isEmpty()) {
+            notificationQueue.publishChannelSend(new ChannelSend(notification.getId(),
+                    NotificationDelivery.DeliveryMethod.WHATSAPP, whatsappRecipients, deliveryIds(whatsappDeliveriesByPhone)));
+        }
+    }
+
+    /**
+     * Stage 3.
+     */
+    public void send(ChannelSend send) {
+        switch (send.channel()) {
+            case SMS:
+                deliveryStatusReconciler.reconcile(send, smsService.sendBulkSMS(send.phoneNumberToMessage()));
+                break;
+            case WHATSAPP:
+                deliveryStatusReconciler.reconcile(send, whatsappService.sendBulkWhatsApp(send.phoneNumberToMessage()));
+                break;
+            default:
+                logger.warn("Unsupported send channel: {}", send.channel());
+        }
+    }
+
+    private String createSMSMessage(Notification notification, String studentName) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("school_name", "School Name"); // Should come from configuration
+        variables.put("student_name", studentName);
+        variables.put("title", notification.getTitle());
+        variables.put("message", notification.getMessage());
+
+        return smsService.getTemplateMessage(notification.getType().name().toLowerCase(), variables);
+    }
+
+    private String createWhatsAppMessage(Notification notification) {
+        return "*" + notification.getTitle() + "*\n" + notification.getMessage(); // Simple formatting, can use template
+    }
+
+    // In-app notifications are delivered once the row exists
+    private static void markDeliveredInApp(NotificationDelivery delivery, LocalDateTime now) {
+        delivery.setStatus(NotificationDelivery.DeliveryStatus.DELIVERED);
+        delivery.setSentAt(now);
+        delivery.setDeliveredAt(now);
+    }
+
+    private static void markUnreachable(NotificationDelivery delivery) {
+        delivery.setStatus(NotificationDelivery.DeliveryStatus.FAILED);
+        delivery.setErrorMessage("No valid parent phone number");
+    }
+
+    private static Map<String, List<Long>> deliveryIds(Map<String, List<NotificationDelivery>> deliveriesByPhone) {
+        Map<String, List<Long>> ids = new HashMap<>(deliveriesByPhone.size() * 2);
+        deliveriesByPhone.forEach((phone, deliveries) ->
+                ids.put(phone, deliveries.stream().map(NotificationDelivery::getId).toList()));
+        return ids;
+    }
+}
@@ -0,0 +1,41 @@
+package com.school.notificationservice.messaging;
+
+import com.school.notificationservice.config.NotificationQueueConfig;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * RabbitMQ consumers for the pipeline stages. SMS and WhatsApp sends have
+ * separate queues so a backlog on one provider does not hold up the other.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.queue.mode", havingValue = "rabbit", matchIfMissing = true)
+public class NotificationPipelineListener {
+
+    private final NotificationPipeline pipeline;
+
+    public NotificationPipelineListener(NotificationPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @RabbitListener(queues = NotificationQueueConfig.FANOUT_QUEUE, containerFactory = "fanoutContainerFactory")
+    public void onFanout(FanoutRequest request) {
+        pipeline.fanOut(request);
+    }
+
+    @RabbitListener(queues = NotificationQueueConfig.RECIPIENTS_QUEUE, containerFactory = "recipientsContainerFactory")
+    public void onRecipientBatch(RecipientBatch batch) {
+        pipeline.deliverBatch(batch);
+    }
+
+    @RabbitListener(queues = NotificationQueueConfig.SMS_QUEUE, containerFactory = "sendContainerFactory")
+    public void onSmsSend(ChannelSend send) {
+        pipeline.send(send);
+    }
+
+    @RabbitListener(queues = NotificationQueueConfig.WHATSAPP_QUEUE, containerFactory = "sendContainerFactory")
+    public void onWhatsAppSend(ChannelSend send) {
+        pipeline.send(send);
+    }
+}
@@ -0,0 +1,14 @@
+package com.school.notificationservice.messaging;
+
+/**
+ * Transport between the stages of the notification pipeline. Backed by
+ * RabbitMQ, or by in-process executors when notification.queue.mode=in-memory.
+ */
+public interface NotificationQueue {
+
+    void publishFanout(FanoutRequest request);
+
+    void publishRecipientBatch(RecipientBatch batch);
+
+    void publishChannelSend(ChannelSend send);
+}
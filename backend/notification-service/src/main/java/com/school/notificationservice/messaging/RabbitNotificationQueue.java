@@ -0,0 +1,40 @@
+package com.school.notificationservice.messaging;
+
+import com.school.notificationservice.config.NotificationQueueConfig;
+import com.school.notificationservice.model.NotificationDelivery;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes pipeline messages to the durable RabbitMQ queues, so queued
+ * broadcasts survive a restart of notification-service.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.queue.mode", havingValue = "rabbit", matchIfMissing = true)
+public class RabbitNotificationQueue implements NotificationQueue {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public RabbitNotificationQueue(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Override
+    public void publishFanout(FanoutRequest request) {
+        rabbitTemplate.convertAndSend(NotificationQueueConfig.EXCHANGE, NotificationQueueConfig.FANOUT_QUEUE, request);
+    }
+
+    @Override
+    public void publishRecipientBatch(RecipientBatch batch) {
+        rabbitTemplate.convertAndSend(NotificationQueueConfig.EXCHANGE, NotificationQueueConfig.RECIPIENTS_QUEUE, batch);
+    }
+
+    @Override
+    public void publishChannelSend(ChannelSend send) {
+        String queue = send.channel() == NotificationDelivery.DeliveryMethod.WHATSAPP
+                ? NotificationQueueConfig.WHATSAPP_QUEUE
+                : NotificationQueueConfig.SMS_QUEUE;
+        rabbitTemplate.convertAndSend(NotificationQueueConfig.EXCHANGE, queue, send);
+    }
+}
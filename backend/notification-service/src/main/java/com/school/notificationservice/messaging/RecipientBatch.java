@@ -0,0 +1,12 @@
+package com.school.notificationservice.messaging;
+
+import java.util.List;
+
+/**
+ * Stage 2: create the delivery rows for a batch of recipients and queue the channel sends.
+ */
+public record RecipientBatch(Long notificationId, List<String> deliveryMethods, List<Recipient> recipients) {
+
+    public record Recipient(Long studentId, String studentName, String parentPhone) {
+    }
+}
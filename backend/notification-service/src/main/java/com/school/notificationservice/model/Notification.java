@@ -6,7 +6,9 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_due", columnList = "status, scheduled_at")
+})
 public class Notification {
     
     @Id
@@ -59,6 +61,12 @@ public class Notification {
     @Column(name = "section")
     private String section; // null for all sections
     
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy; // instance that claimed this notification for sending
+    
+    @Column(name = "claim_expires_at")
+    private LocalDateTime claimExpiresAt; // another instance may claim it after this
+    
     public enum NotificationType {
         HOLIDAY, CIRCULAR, ANNOUNCEMENT, FEE_REMINDER, EXAM_SCHEDULE, 
         SPORTS_EVENT, CULTURAL_EVENT, EMERGENCY, GENERAL
@@ -210,6 +218,22 @@ public class Notification {
         this.section = section;
     }
     
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+    
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+    
+    public LocalDateTime getClaimExpiresAt() {
+        return claimExpiresAt;
+    }
+    
+    public void setClaimExpiresAt(LocalDateTime claimExpiresAt) {
+        this.claimExpiresAt = claimExpiresAt;
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
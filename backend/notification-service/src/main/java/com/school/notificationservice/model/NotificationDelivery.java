@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notification_deliveries")
+@Table(name = "notification_deliveries", indexes = {
+        @Index(name = "idx_notification_deliveries_retry", columnList = "delivery_status, next_retry_at")
+})
 public class NotificationDelivery {
     
     @Id
@@ -44,6 +46,9 @@ public class NotificationDelivery {
     @Column(name = "retry_count")
     private Integer retryCount = 0;
     
+    @Column(name = "next_retry_at")
+    private LocalDateTime nextRetryAt; // null = retry on the next run
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -159,6 +164,14 @@ public class NotificationDelivery {
         this.retryCount = retryCount;
     }
     
+    public LocalDateTime getNextRetryAt() {
+        return nextRetryAt;
+    }
+    
+    public void setNextRetryAt(LocalDateTime nextRetryAt) {
+        this.nextRetryAt = nextRetryAt;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
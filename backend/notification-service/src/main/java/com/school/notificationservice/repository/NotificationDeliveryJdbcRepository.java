@@ -0,0 +1,121 @@
+package com.school.notificationservice.repository;
+
+import com.school.notificationservice.model.NotificationDelivery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Batch update path for notification_deliveries, so send results for a
+ * whole channel batch are written in one JDBC batch instead of one entity
+ * save per row. Also claims pages of failed deliveries for the retry job.
+ */
+@Repository
+public class NotificationDeliveryJdbcRepository {
+
+    private static final String UPDATE_STATUS =
+            "UPDATE notification_deliveries SET delivery_status = ?, sent_at = COALESCE(?, sent_at), " +
+            "error_message = ? WHERE id = ?";
+
+    private static final String UPDATE_RETRY_OUTCOME =
+            "UPDATE notification_deliveries SET delivery_status = ?, sent_at = COALESCE(?, sent_at), " +
+            "delivered_at = COALESCE(?, delivered_at), error_message = ?, retry_count = ?, next_retry_at = ? " +
+            "WHERE id = ?";
+
+    // Failed deliveries whose backoff has elapsed; SKIP LOCKED keeps concurrent claimers on disjoint rows
+    private static final String SELECT_RETRYABLE =
+            "SELECT id FROM notification_deliveries WHERE delivery_status = 'FAILED' AND retry_count < ? " +
+            "AND delivery_method IN (%s) AND (next_retry_at IS NULL OR next_retry_at <= ?) " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String LEASE_RETRY =
+            "UPDATE notification_deliveries SET next_retry_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationDeliveryJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * New status, send time and error for one delivery row. A null sentAt
+     * keeps the stored value.
+     */
+    public record StatusUpdate(Long deliveryId, NotificationDelivery.DeliveryStatus status,
+                               LocalDateTime sentAt, String errorMessage) {
+    }
+
+    /**
+     * Result of one retry attempt: the status fields plus the attempt count
+     * and the earliest time of the next attempt.
+     */
+    public record RetryOutcome(Long deliveryId, NotificationDelivery.DeliveryStatus status, LocalDateTime sentAt,
+                               LocalDateTime deliveredAt, String errorMessage, int retryCount,
+                               LocalDateTime nextRetryAt) {
+    }
+
+    /**
+     * Claims up to limit retryable deliveries by pushing their next_retry_at
+     * to leaseUntil, so no other instance picks them up while this one
+     * retries them. The retry outcome then overwrites next_retry_at; if the
+     * claimer dies first, the rows become due again when the lease ends.
+     *
+     * @return ids of the claimed deliveries
+     */
+    @Transactional
+    public List<Long> claimRetryable(int maxAttempts, List<NotificationDelivery.DeliveryMethod> methods,
+                                     LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        List<Object> args = new ArrayList<>(methods.size() + 3);
+        args.add(maxAttempts);
+        methods.forEach(method -> args.add(method.name()));
+        args.add(Timestamp.valueOf(now));
+        args.add(limit);
+        String sql = String.format(SELECT_RETRYABLE, String.join(", ", Collections.nCopies(methods.size(), "?")));
+        List<Long> ids = jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+        if (!ids.isEmpty()) {
+            Timestamp leaseTimestamp = Timestamp.valueOf(leaseUntil);
+            jdbcTemplate.batchUpdate(LEASE_RETRY, ids, ids.size(), (ps, id) -> {
+                ps.setTimestamp(1, leaseTimestamp);
+                ps.setLong(2, id);
+            });
+        }
+        return ids;
+    }
+
+    public void batchUpdateStatus(List<StatusUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STATUS, updates, updates.size(), (ps, update) -> {
+            ps.setString(1, update.status().name());
+            ps.setTimestamp(2, toTimestamp(update.sentAt()));
+            ps.setString(3, update.errorMessage());
+            ps.setLong(4, update.deliveryId());
+        });
+    }
+
+    public void batchUpdateRetryOutcomes(List<RetryOutcome> outcomes) {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_RETRY_OUTCOME, outcomes, outcomes.size(), (ps, outcome) -> {
+            ps.setString(1, outcome.status().name());
+            ps.setTimestamp(2, toTimestamp(outcome.sentAt()));
+            ps.setTimestamp(3, toTimestamp(outcome.deliveredAt()));
+            ps.setString(4, outcome.errorMessage());
+            ps.setInt(5, outcome.retryCount());
+            ps.setTimestamp(6, toTimestamp(outcome.nextRetryAt()));
+            ps.setLong(7, outcome.deliveryId());
+        });
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
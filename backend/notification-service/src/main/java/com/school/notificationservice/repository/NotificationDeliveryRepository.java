@@ -51,8 +51,8 @@ public interface NotificationDeliveryRepository extends JpaRepository<Notificati
     Long countByNotificationIdAndStatus(@Param("notificationId") Long notificationId, 
                                        @Param("status") NotificationDelivery.DeliveryStatus status);
     
-    // Count successful deliveries for a notification
-    @Query("SELECT COUNT(nd) FROM NotificationDelivery nd WHERE nd.notificationId = :notificationId AND nd.status IN ('DELIVERED', 'READ')")
+    // Count successful deliveries for a notification (SENT = accepted by the SMS/WhatsApp provider)
+    @Query("SELECT COUNT(nd) FROM NotificationDelivery nd WHERE nd.notificationId = :notificationId AND nd.status IN ('SENT', 'DELIVERED', 'READ')")
     Long countSuccessfulDeliveriesByNotificationId(@Param("notificationId") Long notificationId);
     
     // Find recent deliveries for a recipient
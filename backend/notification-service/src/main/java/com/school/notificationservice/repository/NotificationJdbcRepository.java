@@ -0,0 +1,71 @@
+package com.school.notificationservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Claims notifications for sending with conditional row updates, so several
+ * instances can poll the same table and consume the same fan-out queue
+ * without sending a notification twice.
+ */
+@Repository
+public class NotificationJdbcRepository {
+
+    // SKIP LOCKED lets concurrent claimers take disjoint pages instead of waiting on each other
+    private static final String SELECT_CLAIMABLE =
+            "SELECT id FROM notifications WHERE status = 'SCHEDULED' AND scheduled_at <= ? " +
+            "AND (claim_expires_at IS NULL OR claim_expires_at < ?) " +
+            "ORDER BY scheduled_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM =
+            "UPDATE notifications SET claimed_by = ?, claim_expires_at = ? WHERE id = ?";
+
+    private static final String TAKE_FOR_FANOUT =
+            "UPDATE notifications SET status = 'SENT', sent_at = ?, updated_at = ? " +
+            "WHERE id = ? AND status = 'SCHEDULED'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Leases up to limit due notifications to owner until leaseUntil. Rows
+     * locked by another claimer or still under an unexpired lease are
+     * skipped; an expired lease (the owner died before the notification was
+     * sent) can be claimed again.
+     *
+     * @return ids of the claimed notifications, oldest schedule first
+     */
+    @Transactional
+    public List<Long> claimDueScheduled(String owner, LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_CLAIMABLE, Long.class, nowTimestamp, nowTimestamp, limit);
+        if (!ids.isEmpty()) {
+            Timestamp leaseTimestamp = Timestamp.valueOf(leaseUntil);
+            jdbcTemplate.batchUpdate(CLAIM, ids, ids.size(), (ps, id) -> {
+                ps.setString(1, owner);
+                ps.setTimestamp(2, leaseTimestamp);
+                ps.setLong(3, id);
+            });
+        }
+        return ids;
+    }
+
+    /**
+     * Moves a SCHEDULED notification to SENT. Only one caller can win for a
+     * given notification; the rest see false.
+     *
+     * @return true if this caller took the notification and should fan it out
+     */
+    public boolean takeForFanout(Long notificationId, LocalDateTime sentAt) {
+        Timestamp sentTimestamp = Timestamp.valueOf(sentAt);
+        return jdbcTemplate.update(TAKE_FOR_FANOUT, sentTimestamp, sentTimestamp, notificationId) == 1;
+    }
+}
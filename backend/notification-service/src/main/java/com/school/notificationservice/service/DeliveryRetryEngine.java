@@ -0,0 +1,222 @@
+package com.school.notificationservice.service;
+
+import com.school.notificationservice.model.Notification;
+import com.school.notificationservice.model.NotificationDelivery;
+import com.school.notificationservice.repository.NotificationDeliveryJdbcRepository;
+import com.school.notificationservice.repository.NotificationDeliveryJdbcRepository.RetryOutcome;
+import com.school.notificationservice.repository.NotificationDeliveryRepository;
+import com.school.notificationservice.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Retries failed deliveries whose backoff has elapsed, a page at a time.
+ * Every instance runs the retry job, so each page is claimed first (see
+ * NotificationDeliveryJdbcRepository.claimRetryable) and a delivery is
+ * retried by one instance only.
+ *
+ * Each page needs one bulk contact lookup for all its recipients and one
+ * query for all its notification bodies. Deliveries are grouped by
+ * notification and each group's SMS and WhatsApp retries go out through
+ * the rate-limited bulk senders. Outcomes are written back in one JDBC
+ * batch: a failed attempt stores the attempt count and the next retry
+ * time, using exponential backoff with jitter so retries of one broadcast
+ * do not all hit the provider again at the same moment.
+ */
+@Component
+public class DeliveryRetryEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryRetryEngine.class);
+
+    // EMAIL and PUSH_NOTIFICATION have no sender yet
+    private static final List<NotificationDelivery.DeliveryMethod> RETRYABLE_METHODS = List.of(
+            NotificationDelivery.DeliveryMethod.IN_APP,
+            NotificationDelivery.DeliveryMethod.SMS,
+            NotificationDelivery.DeliveryMethod.WHATSAPP);
+
+    private final NotificationDeliveryRepository deliveryRepository;
+    private final NotificationDeliveryJdbcRepository deliveryJdbcRepository;
+    private final NotificationRepository notificationRepository;
+    private final StudentDirectoryClient studentDirectory;
+    private final SMSService smsService;
+    private final WhatsAppService whatsappService;
+    private final int maxAttempts;
+    private final int batchSize;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final Duration lease;
+
+    public DeliveryRetryEngine(NotificationDeliveryRepository deliveryRepository,
+                               NotificationDeliveryJdbcRepository deliveryJdbcRepository,
+                               NotificationRepository notificationRepository,
+                               StudentDirectoryClient studentDirectory,
+                               SMSService smsService,
+                               WhatsAppService whatsappService,
+                               @Value("${notification.retry.max-attempts:3}") int maxAttempts,
+                               @Value("${notification.retry.batch-size:500}") int batchSize,
+                               @Value("${notification.retry.base-delay:1m}") Duration baseDelay,
+                               @Value("${notification.retry.max-delay:1h}") Duration maxDelay,
+                               @Value("${notification.retry.lease:10m}") Duration lease) {
+        this.deliveryRepository = deliveryRepository;
+        this.deliveryJdbcRepository = deliveryJdbcRepository;
+        this.notificationRepository = notificationRepository;
+        this.studentDirectory = studentDirectory;
+        this.smsService = smsService;
+        this.whatsappService = whatsappService;
+        this.maxAttempts = maxAttempts;
+        this.batchSize = batchSize;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.lease = lease;
+    }
+
+    /**
+     * Retries every delivery that is due, page by page. Each attempt either
+     * settles a delivery or moves its next retry time into the future, so
+     * the loop ends once the due rows are used up.
+     *
+     * @return number of deliveries attempted
+     */
+    public int retryDue() {
+        int attempted = 0;
+        List<Long> claimed;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            claimed = deliveryJdbcRepository.claimRetryable(maxAttempts, RETRYABLE_METHODS, now, now.plus(lease),
+                    batchSize);
+            if (!claimed.isEmpty()) {
+                retryPage(deliveryRepository.findAllById(claimed));
+                attempted += claimed.size();
+            }
+        } while (claimed.size() == batchSize);
+        return attempted;
+    }
+
+    private void retryPage(List<NotificationDelivery> deliveries) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // One contact lookup and one notification query for the whole page
+        Map<Long, Map<String, Object>> contacts = studentDirectory.getContacts(deliveries.stream()
+                .filter(delivery -> delivery.getDeliveryMethod() != NotificationDelivery.DeliveryMethod.IN_APP)
+                .map(NotificationDelivery::getRecipientId)
+                .distinct()
+                .toList());
+        Map<Long, Notification> notifications = notificationRepository.findAllById(deliveries.stream()
+                        .map(NotificationDelivery::getNotificationId)
+                        .distinct()
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Notification::getId, Function.identity()));
+        Map<Long, List<NotificationDelivery>> byNotification = deliveries.stream()
+                .collect(Collectors.groupingBy(NotificationDelivery::getNotificationId, LinkedHashMap::new,
+                        Collectors.toList()));
+
+        List<RetryOutcome> outcomes = new ArrayList<>(deliveries.size());
+        byNotification.forEach((notificationId, group) ->
+                retryGroup(notifications.get(notificationId), group, contacts, outcomes, now));
+        deliveryJdbcRepository.batchUpdateRetryOutcomes(outcomes);
+
+        long sent = outcomes.stream()
+                .filter(outcome -> outcome.status() != NotificationDelivery.DeliveryStatus.FAILED)
+                .count();
+        logger.info("Retried {} deliveries across {} notifications: {} settled, {} still failing",
+                deliveries.size(), byNotification.size(), sent, outcomes.size() - sent);
+    }
+
+    private void retryGroup(Notification notification, List<NotificationDelivery> deliveries,
+                            Map<Long, Map<String, Object>> contacts, List<RetryOutcome> outcomes, LocalDateTime now) {
+        Map<String, String> smsRecipients = new HashMap<>();
+        Map<String, String> whatsappRecipients = new HashMap<>();
+        Map<String, List<NotificationDelivery>> smsDeliveriesByPhone = new HashMap<>();
+        Map<String, List<NotificationDelivery>> whatsappDeliveriesByPhone = new HashMap<>();
+
+        for (NotificationDelivery delivery : deliveries) {
+            if (delivery.getDeliveryMethod() == NotificationDelivery.DeliveryMethod.IN_APP) {
+                // For in-app, just mark as delivered
+                outcomes.add(new RetryOutcome(delivery.getId(), NotificationDelivery.DeliveryStatus.DELIVERED, now, now,
+                        null, attempts(delivery), null));
+                continue;
+            }
+            if (notification == null) {
+                outcomes.add(new RetryOutcome(delivery.getId(), NotificationDelivery.DeliveryStatus.CANCELLED, null, null,
+                        "Notification no longer exists", attempts(delivery), null));
+                continue;
+            }
+            Map<String, Object> contact = contacts.get(delivery.getRecipientId());
+            String parentPhone = contact != null ? (String) contact.get("parentPhone") : null;
+            if (delivery.getDeliveryMethod() == NotificationDelivery.DeliveryMethod.SMS) {
+                String formattedPhone = parentPhone != null ? smsService.formatPhoneNumber(parentPhone) : null;
+                if (formattedPhone != null && smsService.isValidPhoneNumber(formattedPhone)) {
+                    smsRecipients.put(formattedPhone, "Retry: " + notification.getMessage());
+                    smsDeliveriesByPhone.computeIfAbsent(formattedPhone, phone -> new ArrayList<>()).add(delivery);
+                } else {
+                    outcomes.add(failed(delivery, "No valid parent phone number", now));
+                }
+            } else {
+                String formattedPhone = parentPhone != null ? whatsappService.formatPhoneForWhatsApp(parentPhone) : null;
+                if (formattedPhone != null && whatsappService.isValidWhatsAppNumber(formattedPhone)) {
+                    whatsappRecipients.put(formattedPhone, "*" + notification.getTitle() + "*\n" + notification.getMessage());
+                    whatsappDeliveriesByPhone.computeIfAbsent(formattedPhone, phone -> new ArrayList<>()).add(delivery);
+                } else {
+                    outcomes.add(failed(delivery, "No valid parent phone number", now));
+                }
+            }
+        }
+
+        if (!smsRecipients.isEmpty()) {
+            settle(smsDeliveriesByPhone, smsService.sendBulkSMS(smsRecipients),
+                    "SMS provider did not accept the message", outcomes, now);
+        }
+        if (!whatsappRecipients.isEmpty()) {
+            settle(whatsappDeliveriesByPhone, whatsappService.sendBulkWhatsApp(whatsappRecipients),
+                    "WhatsApp provider did not accept the message", outcomes, now);
+        }
+    }
+
+    private void settle(Map<String, List<NotificationDelivery>> deliveriesByPhone, Map<String, Boolean> results,
+                        String failure, List<RetryOutcome> outcomes, LocalDateTime now) {
+        deliveriesByPhone.forEach((phone, deliveries) -> {
+            boolean success = Boolean.TRUE.equals(results.get(phone));
+            for (NotificationDelivery delivery : deliveries) {
+                outcomes.add(success
+                        ? new RetryOutcome(delivery.getId(), NotificationDelivery.DeliveryStatus.SENT, now, null, null,
+                                attempts(delivery) + 1, null)
+                        : failed(delivery, failure, now));
+            }
+        });
+    }
+
+    private RetryOutcome failed(NotificationDelivery delivery, String error, LocalDateTime now) {
+        int attempts = attempts(delivery) + 1;
+        return new RetryOutcome(delivery.getId(), NotificationDelivery.DeliveryStatus.FAILED, null, null, error,
+                attempts, now.plus(backoff(attempts)));
+    }
+
+    /**
+     * Doubles per attempt up to maxDelay, then picks a random point in the
+     * upper half of that delay.
+     */
+    Duration backoff(int attempts) {
+        long delayMillis = baseDelay.toMillis() << Math.min(attempts - 1, 20);
+        delayMillis = Math.min(delayMillis, maxDelay.toMillis());
+        long half = delayMillis / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static int attempts(NotificationDelivery delivery) {
+        return delivery.getRetryCount() != null ? delivery.getRetryCount() : 0;
+    }
+}
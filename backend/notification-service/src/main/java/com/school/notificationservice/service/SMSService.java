@@ -1,5 +1,6 @@
 package com.school.notificationservice.service;
 
+import com.school.notificationservice.service.dispatch.BulkSendDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,8 +33,11 @@ public class SMSService {
     
     private final RestTemplate restTemplate;
     
-    public SMSService(RestTemplate restTemplate) {
+    private final BulkSendDispatcher bulkSendDispatcher;
+    
+    public SMSService(RestTemplate restTemplate, BulkSendDispatcher bulkSendDispatcher) {
         this.restTemplate = restTemplate;
+        this.bulkSendDispatcher = bulkSendDispatcher;
     }
     
     /**
@@ -80,28 +84,10 @@ public class SMSService {
     }
     
     /**
-     * Send bulk SMS to multiple phone numbers
+     * Send bulk SMS to multiple phone numbers, concurrently within the SMS rate limit
      */
     public Map<String, Boolean> sendBulkSMS(Map<String, String> phoneNumberToMessage) {
-        Map<String, Boolean> results = new HashMap<>();
-        
-        for (Map.Entry<String, String> entry : phoneNumberToMessage.entrySet()) {
-            String phoneNumber = entry.getKey();
-            String message = entry.getValue();
-            
-            boolean success = sendSMS(phoneNumber, message);
-            results.put(phoneNumber, success);
-            
-            // Add delay to avoid rate limiting
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-        
-        return results;
+        return bulkSendDispatcher.dispatch(BulkSendDispatcher.Channel.SMS, phoneNumberToMessage, this::sendSMS);
     }
     
     /**
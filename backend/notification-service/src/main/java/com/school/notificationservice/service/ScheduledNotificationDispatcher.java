@@ -0,0 +1,97 @@
+package com.school.notificationservice.service;
+
+import com.school.notificationservice.messaging.FanoutRequest;
+import com.school.notificationservice.messaging.NotificationQueue;
+import com.school.notificationservice.model.Notification;
+import com.school.notificationservice.repository.NotificationJdbcRepository;
+import com.school.notificationservice.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hands due scheduled notifications to the fan-out pipeline.
+ *
+ * Every instance runs this on its own schedule. Work is claimed in pages
+ * with a lease, so each due notification is published by one instance
+ * only; the fan-out itself then runs on whichever instance's pipeline
+ * consumer takes the request. Notifications sent straight away are leased
+ * the same way before they are saved, so the scheduler leaves them alone.
+ * A notification whose lease runs out before the fan-out takes it is
+ * claimed again on a later run; should the earlier request still arrive,
+ * the fan-out's conditional take lets only one of them through.
+ */
+@Component
+public class ScheduledNotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledNotificationDispatcher.class);
+
+    // Scheduled notifications carry no delivery methods of their own
+    private static final List<String> DELIVERY_METHODS = List.of("IN_APP");
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationQueue notificationQueue;
+    private final int pageSize;
+    private final Duration lease;
+
+    public ScheduledNotificationDispatcher(NotificationJdbcRepository notificationJdbcRepository,
+                                           NotificationRepository notificationRepository,
+                                           NotificationQueue notificationQueue,
+                                           @Value("${notification.scheduler.page-size:100}") int pageSize,
+                                           @Value("${notification.scheduler.lease:10m}") Duration lease) {
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.notificationRepository = notificationRepository;
+        this.notificationQueue = notificationQueue;
+        this.pageSize = pageSize;
+        this.lease = lease;
+    }
+
+    /**
+     * Leases a notification that the caller is about to save and publish
+     * itself, so dispatchDue does not publish it a second time.
+     */
+    public void leaseForDirectPublish(Notification notification) {
+        notification.setClaimedBy(instanceId);
+        notification.setClaimExpiresAt(LocalDateTime.now().plus(lease));
+    }
+
+    /**
+     * Claims and publishes due notifications a page at a time until a short
+     * page shows nothing claimable is left.
+     *
+     * @return number of notifications claimed by this instance
+     */
+    public int dispatchDue() {
+        int claimed = 0;
+        List<Long> ids;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            ids = notificationJdbcRepository.claimDueScheduled(instanceId, now, now.plus(lease), pageSize);
+            ids.forEach(this::publish);
+            claimed += ids.size();
+        } while (ids.size() == pageSize);
+        return claimed;
+    }
+
+    private void publish(Long notificationId) {
+        try {
+            notificationQueue.publishFanout(new FanoutRequest(notificationId, DELIVERY_METHODS));
+        } catch (AmqpException e) {
+            logger.error("Error processing scheduled notification {}: {}", notificationId, e.getMessage());
+            notificationRepository.findById(notificationId).ifPresent(notification -> {
+                notification.setStatus(Notification.Status.FAILED);
+                notificationRepository.save(notification);
+            });
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.school.notificationservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads notification recipients (students with their parent contacts) from student-service.
+ */
+@Service
+public class StudentDirectoryClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentDirectoryClient.class);
+
+    // student-service accepts up to 1000 ids per contacts request
+    private static final int CONTACT_BATCH_SIZE = 500;
+    
+    private final RestTemplate restTemplate;
+    
+    // Same base URL as the student-service route of the shared service client
+    private final String studentsUrl;
+
+    public StudentDirectoryClient(RestTemplate restTemplate,
+                                  @Value("${student.service.url:http://localhost:8081}") String studentServiceUrl) {
+        this.restTemplate = restTemplate;
+        this.studentsUrl = studentServiceUrl + "/api/students";
+    }
+
+    public List<Map<String, Object>> getAllStudents() {
+        try {
+            ResponseEntity<List> response = restTemplate.exchange(
+                    studentsUrl,
+                    HttpMethod.GET,
+                    new HttpEntity<>(new HttpHeaders()),
+                    List.class
+            );
+            return response.getBody();
+        } catch (Exception e) {
+            logger.error("Error fetching all students: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    public List<Map<String, Object>> getStudentsByClass(Long classId) {
+        try {
+            ResponseEntity<List> response = restTemplate.exchange(
+                    studentsUrl + "/class/" + classId,
+                    HttpMethod.GET,
+                    new HttpEntity<>(new HttpHeaders()),
+                    List.class
+            );
+            return response.getBody();
+        } catch (Exception e) {
+            logger.error("Error fetching students for class {}: {}", classId, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    public List<Map<String, Object>> getStudentsByClassSection(Long classId, String section) {
+        try {
+            ResponseEntity<List> response = restTemplate.exchange(
+                studentsUrl + "/class/" + classId + "/section/" + section,
+                HttpMethod.GET,
+                new HttpEntity<>(new HttpHeaders()),
+                List.class
+            );
+            return response.getBody();
+        } catch (Exception e) {
+            logger.error("Error fetching students for class {} section {}: {}", classId, section, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Parent contacts for the given students, keyed by student id, fetched
+     * with one bulk request per CONTACT_BATCH_SIZE ids. Students that are
+     * unknown or could not be fetched are missing from the map.
+     */
+    public Map<Long, Map<String, Object>> getContacts(Collection<Long> studentIds) {
+        List<Long> ids = new ArrayList<>(studentIds);
+        Map<Long, Map<String, Object>> contacts = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += CONTACT_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CONTACT_BATCH_SIZE, ids.size()));
+            try {
+                ResponseEntity<List> response = restTemplate.exchange(
+                        studentsUrl + "/bulk/contacts",
+                        HttpMethod.POST,
+                        new HttpEntity<>(chunk, new HttpHeaders()),
+                        List.class
+                );
+                List<Map<String, Object>> rows = response.getBody();
+                if (rows != null) {
+                    for (Map<String, Object> row : rows) {
+                        contacts.put(Long.valueOf(row.get("studentId").toString()), row);
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("Error fetching contacts for {} students: {}", chunk.size(), e.getMessage());
+            }
+        }
+        return contacts;
+    }
+}
@@ -1,5 +1,6 @@
 package com.school.notificationservice.service;
 
+import com.school.notificationservice.service.dispatch.BulkSendDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -35,8 +36,11 @@ public class WhatsAppService {
     
     private final RestTemplate restTemplate;
     
-    public WhatsAppService(RestTemplate restTemplate) {
+    private final BulkSendDispatcher bulkSendDispatcher;
+    
+    public WhatsAppService(RestTemplate restTemplate, BulkSendDispatcher bulkSendDispatcher) {
         this.restTemplate = restTemplate;
+        this.bulkSendDispatcher = bulkSendDispatcher;
     }
     
     /**
@@ -176,28 +180,10 @@ public class WhatsAppService {
     }
     
     /**
-     * Send bulk WhatsApp to multiple phone numbers
+     * Send bulk WhatsApp to multiple phone numbers, concurrently within the WhatsApp rate limit
      */
     public Map<String, Boolean> sendBulkWhatsApp(Map<String, String> phoneNumberToMessage) {
-        Map<String, Boolean> results = new HashMap<>();
-        
-        for (Map.Entry<String, String> entry : phoneNumberToMessage.entrySet()) {
-            String phoneNumber = entry.getKey();
-            String message = entry.getValue();
-            
-            boolean success = sendWhatsApp(phoneNumber, message);
-            results.put(phoneNumber, success);
-            
-            // Add delay to avoid rate limiting
-            try {
-                Thread.sleep(200); // WhatsApp has stricter rate limits
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-        
-        return results;
+        return bulkSendDispatcher.dispatch(BulkSendDispatcher.Channel.WHATSAPP, phoneNumberToMessage, this::sendWhatsApp);
     }
     
     /**
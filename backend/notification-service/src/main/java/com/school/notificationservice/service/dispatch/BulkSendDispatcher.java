@@ -0,0 +1,166 @@
+package com.school.notificationservice.service.dispatch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends bulk SMS and WhatsApp messages concurrently under each provider's
+ * rate limit, so a broadcast takes as long as the provider quota requires
+ * rather than one round trip plus a fixed sleep per message.
+ *
+ * Each channel has a token bucket sized to the provider's throughput, a
+ * cap on messages in flight and a fixed pool of sender threads. The bucket
+ * and cap are shared by all broadcasts on the channel, so concurrent
+ * broadcasts together stay within the provider limit.
+ */
+@Component
+public class BulkSendDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkSendDispatcher.class);
+
+    public enum Channel {
+        SMS, WHATSAPP
+    }
+
+    /**
+     * Sends one message; returns whether the provider accepted it.
+     */
+    @FunctionalInterface
+    public interface MessageSender {
+        boolean send(String phoneNumber, String message);
+    }
+
+    private final Map<Channel, Lane> lanes = new EnumMap<>(Channel.class);
+
+    public BulkSendDispatcher(MeterRegistry meterRegistry,
+                              @Value("${notification.dispatch.sms.rate-per-second:10}") double smsRate,
+                              @Value("${notification.dispatch.sms.burst:10}") int smsBurst,
+                              @Value("${notification.dispatch.sms.max-concurrency:10}") int smsConcurrency,
+                              @Value("${notification.dispatch.whatsapp.rate-per-second:80}") double whatsappRate,
+                              @Value("${notification.dispatch.whatsapp.burst:20}") int whatsappBurst,
+                              @Value("${notification.dispatch.whatsapp.max-concurrency:10}") int whatsappConcurrency) {
+        lanes.put(Channel.SMS, new Lane(Channel.SMS, smsRate, smsBurst, smsConcurrency, meterRegistry));
+        lanes.put(Channel.WHATSAPP,
+                new Lane(Channel.WHATSAPP, whatsappRate, whatsappBurst, whatsappConcurrency, meterRegistry));
+    }
+
+    /**
+     * Sends every message and waits for all of them to finish.
+     *
+     * @return per phone number, whether the send succeeded; messages that
+     *         were never sent because the caller was interrupted are false
+     */
+    public Map<String, Boolean> dispatch(Channel channel, Map<String, String> phoneNumberToMessage,
+                                         MessageSender sender) {
+        Lane lane = lanes.get(channel);
+        Map<String, Boolean> results = new ConcurrentHashMap<>();
+        List<Future<?>> inFlight = new ArrayList<>(phoneNumberToMessage.size());
+        long started = System.nanoTime();
+
+        try {
+            for (Map.Entry<String, String> entry : phoneNumberToMessage.entrySet()) {
+                lane.rateLimiter.acquire();
+                lane.permits.acquire();
+                try {
+                    inFlight.add(lane.executor.submit(() -> send(lane, sender, entry.getKey(), entry.getValue(), results)));
+                } catch (RejectedExecutionException e) {
+                    lane.permits.release();
+                    logger.warn("{} dispatcher is shut down; remaining messages are not sent", channel);
+                    break;
+                }
+            }
+            for (Future<?> future : inFlight) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Bulk {} dispatch interrupted after {} of {} messages", channel, results.size(),
+                    phoneNumberToMessage.size());
+        } catch (ExecutionException e) {
+            // send() handles its own failures; this only happens on an unexpected error
+            logger.error("Bulk {} dispatch failed: {}", channel, e.getCause().getMessage(), e.getCause());
+        }
+
+        Map<String, Boolean> outcome = new HashMap<>(results);
+        for (String phoneNumber : phoneNumberToMessage.keySet()) {
+            outcome.putIfAbsent(phoneNumber, false);
+        }
+        lane.duration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        logger.info("Bulk {} dispatch of {} messages finished in {} ms", channel, phoneNumberToMessage.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return outcome;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.executor.shutdown());
+    }
+
+    private static void send(Lane lane, MessageSender sender, String phoneNumber, String message,
+                             Map<String, Boolean> results) {
+        boolean success = false;
+        try {
+            success = sender.send(phoneNumber, message);
+        } catch (RuntimeException e) {
+            logger.error("Error sending {} to {}: {}", lane.channel, phoneNumber, e.getMessage());
+        } finally {
+            lane.permits.release();
+        }
+        results.put(phoneNumber, success);
+        (success ? lane.sent : lane.failed).increment();
+    }
+
+    private static final class Lane {
+        private final Channel channel;
+        private final TokenBucket rateLimiter;
+        private final Semaphore permits;
+        private final ExecutorService executor;
+        private final Counter sent;
+        private final Counter failed;
+        private final Timer duration;
+
+        private Lane(Channel channel, double ratePerSecond, int burst, int maxConcurrency,
+                     MeterRegistry meterRegistry) {
+            String name = channel.name().toLowerCase();
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(name + "-dispatch-");
+            threadFactory.setDaemon(true);
+
+            this.channel = channel;
+            this.rateLimiter = new TokenBucket(ratePerSecond, burst);
+            this.permits = new Semaphore(maxConcurrency);
+            this.executor = Executors.newFixedThreadPool(maxConcurrency, threadFactory);
+            this.sent = Counter.builder("notification.dispatch.messages")
+                    .tag("channel", name)
+                    .tag("result", "sent")
+                    .register(meterRegistry);
+            this.failed = Counter.builder("notification.dispatch.messages")
+                    .tag("channel", name)
+                    .tag("result", "failed")
+                    .register(meterRegistry);
+            this.duration = Timer.builder("notification.dispatch.duration")
+                    .tag("channel", name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.school.notificationservice.messaging;
+
+import com.school.notificationservice.model.Notification;
+import com.school.notificationservice.model.NotificationDelivery;
+import com.school.notificationservice.model.NotificationDelivery.DeliveryMethod;
+import com.school.notificationservice.model.NotificationDelivery.DeliveryStatus;
+import com.school.notificationservice.repository.NotificationDeliveryJdbcRepository;
+import com.school.notificationservice.repository.NotificationDeliveryRepository;
+import com.school.notificationservice.repository.NotificationJdbcRepository;
+import com.school.notificationservice.repository.NotificationRepository;
+import com.school.notificationservice.service.SMSService;
+import com.school.notificationservice.service.StudentDirectoryClient;
+import com.school.notificationservice.service.WhatsAppService;
+import com.school.notificationservice.service.dispatch.BulkSendDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a notification through fan-out, recipient batches and channel sends
+ * on the in-memory queue, with the repositories, student directory and
+ * providers replaced by in-memory fakes, and checks the delivery rows.
+ */
+class NotificationPipelineTest {
+
+    private static final long NOTIFICATION_ID = 42L;
+    private static final String SHARED_PHONE = "9876500001";
+    private static final String SMS_REJECTED_PHONE = "9876500002";
+
+    private final Map<Long, Notification> notifications = new ConcurrentHashMap<>();
+    private final Map<Long, NotificationDelivery> deliveries = new ConcurrentHashMap<>();
+    private final AtomicLong deliveryIds = new AtomicLong();
+    private final List<String> smsSent = new CopyOnWriteArrayList<>();
+    private final List<String> whatsappSent = new CopyOnWriteArrayList<>();
+
+    private BulkSendDispatcher dispatcher;
+    private InMemoryNotificationQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        Notification notification = new Notification("Sports day", "Sports day is on Friday",
+                Notification.NotificationType.CIRCULAR, Notification.TargetAudience.SPECIFIC_CLASS);
+        notification.setId(NOTIFICATION_ID);
+        notification.setClassId(5L);
+        notification.setSection("A");
+        notification.setStatus(Notification.Status.SCHEDULED);
+        notifications.put(NOTIFICATION_ID, notification);
+
+        dispatcher = new BulkSendDispatcher(new SimpleMeterRegistry(), 1_000, 100, 4, 1_000, 100, 4);
+        NotificationPipeline[] pipeline = new NotificationPipeline[1];
+        queue = new InMemoryNotificationQueue(provider(() -> pipeline[0]), 1, 2, 2);
+        pipeline[0] = new NotificationPipeline(
+                notificationRepository(),
+                new FakeNotificationJdbcRepository(),
+                deliveryRepository(),
+                new FakeStudentDirectory(),
+                new FakeSmsService(dispatcher),
+                new FakeWhatsAppService(dispatcher),
+                queue,
+                new DeliveryStatusReconciler(new FakeDeliveryJdbcRepository()),
+                2);
+    }
+
+    @Test
+    void fanOutCreatesAndSettlesOneDeliveryPerStudentAndMethod() throws InterruptedException {
+        queue.publishFanout(new FanoutRequest(NOTIFICATION_ID, List.of("SMS", "WHATSAPP", "IN_APP")));
+        drain();
+
+        assertTrue(queue.getDeadLetters().isEmpty(), "dead letters: " + queue.getDeadLetters());
+        assertEquals(Notification.Status.SENT, notifications.get(NOTIFICATION_ID).getStatus());
+        // Five students in three batches of at most two, three methods each
+        assertEquals(15, deliveries.size());
+
+        for (long studentId = 1; studentId <= 5; studentId++) {
+            NotificationDelivery inApp = delivery(studentId, DeliveryMethod.IN_APP);
+            assertEquals(DeliveryStatus.DELIVERED, inApp.getStatus());
+            assertNotNull(inApp.getDeliveredAt());
+        }
+
+        // Siblings 1 and 2 share a parent phone: one message per channel settles both rows
+        for (long studentId : new long[] {1, 2, 4}) {
+            assertSent(delivery(studentId, DeliveryMethod.SMS));
+            assertSent(delivery(studentId, DeliveryMethod.WHATSAPP));
+        }
+        assertEquals(1, smsSent.stream().filter(phone -> phone.endsWith(SHARED_PHONE)).count());
+        assertEquals(1, whatsappSent.stream().filter(phone -> phone.endsWith(SHARED_PHONE)).count());
+
+        // Student 3's SMS is rejected by the provider; WhatsApp still goes out
+        NotificationDelivery rejected = delivery(3, DeliveryMethod.SMS);
+        assertEquals(DeliveryStatus.FAILED, rejected.getStatus());
+        assertEquals("SMS provider did not accept the message", rejected.getErrorMessage());
+        assertNull(rejected.getSentAt());
+        assertSent(delivery(3, DeliveryMethod.WHATSAPP));
+
+        // Student 5 has no parent phone, so nothing is sent to them
+        for (DeliveryMethod method : List.of(DeliveryMethod.SMS, DeliveryMethod.WHATSAPP)) {
+            NotificationDelivery unreachable = delivery(5, method);
+            assertEquals(DeliveryStatus.FAILED, unreachable.getStatus());
+            assertEquals("No valid parent phone number", unreachable.getErrorMessage());
+        }
+        // One message per distinct phone: the shared one, student 3's and student 4's
+        assertEquals(3, smsSent.size());
+        assertEquals(3, whatsappSent.size());
+    }
+
+    @Test
+    void repeatedFanOutRequestSendsNothingMore() throws InterruptedException {
+        queue.publishFanout(new FanoutRequest(NOTIFICATION_ID, List.of("SMS")));
+        queue.publishFanout(new FanoutRequest(NOTIFICATION_ID, List.of("SMS")));
+        drain();
+
+        assertEquals(5, deliveries.size());
+        assertEquals(3, smsSent.size());
+    }
+
+    private void drain() throws InterruptedException {
+        // Stops the stages in order, each after the one feeding it has finished
+        queue.shutdown();
+        dispatcher.shutdown();
+    }
+
+    private NotificationDelivery delivery(long studentId, DeliveryMethod method) {
+        return deliveries.values().stream()
+                .filter(delivery -> delivery.getRecipientId() == studentId && delivery.getDeliveryMethod() == method)
+                .reduce((first, second) -> {
+                    throw new AssertionError("two " + method + " deliveries for student " + studentId);
+                })
+                .orElseThrow(() -> new AssertionError("no " + method + " delivery for student " + studentId));
+    }
+
+    private static void assertSent(NotificationDelivery delivery) {
+        assertEquals(DeliveryStatus.SENT, delivery.getStatus(),
+                delivery.getDeliveryMethod() + " to student " + delivery.getRecipientId());
+        assertNotNull(delivery.getSentAt());
+    }
+
+    private NotificationRepository notificationRepository() {
+        return repository(NotificationRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.ofNullable(notifications.get((Long) args[0]));
+            case "save" -> {
+                Notification notification = (Notification) args[0];
+                notifications.put(notification.getId(), notification);
+                yield notification;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private NotificationDeliveryRepository deliveryRepository() {
+        return repository(NotificationDeliveryRepository.class, (method, args) -> {
+            if (!method.equals("saveAll")) {
+                throw new UnsupportedOperationException(method);
+            }
+            List<NotificationDelivery> saved = new ArrayList<>();
+            for (NotificationDelivery delivery : (Iterable<NotificationDelivery>) args[0]) {
+                delivery.setId(deliveryIds.incrementAndGet());
+                deliveries.put(delivery.getId(), delivery);
+                saved.add(delivery);
+            }
+            return saved;
+        });
+    }
+
+    interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <T> T repository(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> handler.handle(method.getName(), args)));
+    }
+
+    private static ObjectProvider<NotificationPipeline> provider(Supplier<NotificationPipeline> pipeline) {
+        return new ObjectProvider<>() {
+            @Override
+            public NotificationPipeline getObject() {
+                return pipeline.get();
+            }
+
+            @Override
+            public NotificationPipeline getObject(Object... args) {
+                return pipeline.get();
+            }
+
+            @Override
+            public NotificationPipeline getIfAvailable() {
+                return pipeline.get();
+            }
+
+            @Override
+            public NotificationPipeline getIfUnique() {
+                return pipeline.get();
+            }
+        };
+    }
+
+    private class FakeNotificationJdbcRepository extends NotificationJdbcRepository {
+        FakeNotificationJdbcRepository() {
+            super(null);
+        }
+
+        @Override
+        public synchronized boolean takeForFanout(Long notificationId, LocalDateTime sentAt) {
+            Notification notification = notifications.get(notificationId);
+            if (notification == null || notification.getStatus() != Notification.Status.SCHEDULED) {
+                return false;
+            }
+            notification.setStatus(Notification.Status.SENT);
+            notification.setSentAt(sentAt);
+            return true;
+        }
+    }
+
+    private class FakeDeliveryJdbcRepository extends NotificationDeliveryJdbcRepository {
+        FakeDeliveryJdbcRepository() {
+            super(null);
+        }
+
+        @Override
+        public void batchUpdateStatus(List<StatusUpdate> updates) {
+            for (StatusUpdate update : updates) {
+                NotificationDelivery delivery = deliveries.get(update.deliveryId());
+                delivery.setStatus(update.status());
+                if (update.sentAt() != null) {
+                    delivery.setSentAt(update.sentAt());
+                }
+                delivery.setErrorMessage(update.errorMessage());
+            }
+        }
+    }
+
+    private static class FakeStudentDirectory extends StudentDirectoryClient {
+        FakeStudentDirectory() {
+            super(null, "http://localhost:8081");
+        }
+
+        @Override
+        public List<Map<String, Object>> getStudentsByClassSection(Long classId, String section) {
+            List<Map<String, Object>> students = new ArrayList<>();
+            students.add(student(1, SHARED_PHONE));
+            students.add(student(2, SHARED_PHONE));
+            students.add(student(3, SMS_REJECTED_PHONE));
+            students.add(student(4, "9876500004"));
+            students.add(student(5, null));
+            return students;
+        }
+
+        private static Map<String, Object> student(long id, String parentPhone) {
+            Map<String, Object> student = new HashMap<>();
+            student.put("id", id);
+            student.put("name", "Student " + id);
+            student.put("parentPhone", parentPhone);
+            return student;
+        }
+    }
+
+    private class FakeSmsService extends SMSService {
+        FakeSmsService(BulkSendDispatcher dispatcher) {
+            super(null, dispatcher);
+        }
+
+        @Override
+        public boolean sendSMS(String toPhoneNumber, String message) {
+            smsSent.add(toPhoneNumber);
+            return !toPhoneNumber.endsWith(SMS_REJECTED_PHONE);
+        }
+    }
+
+    private class FakeWhatsAppService extends WhatsAppService {
+        FakeWhatsAppService(BulkSendDispatcher dispatcher) {
+            super(null, dispatcher);
+        }
+
+        @Override
+        public boolean sendWhatsApp(String toPhoneNumber, String message) {
+            whatsappSent.add(toPhoneNumber);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.school.notificationservice.repository;
+
+import com.school.notificationservice.messaging.ChannelSend;
+import com.school.notificationservice.messaging.FanoutRequest;
+import com.school.notificationservice.messaging.NotificationQueue;
+import com.school.notificationservice.messaging.RecipientBatch;
+import com.school.notificationservice.service.ScheduledNotificationDispatcher;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs two scheduler instances against one MySQL notifications table at
+ * the same time and checks that each due notification is claimed and
+ * published by exactly one of them, and that the fan-out take lets one
+ * caller through per notification.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class NotificationClaimConcurrencyTest {
+
+    private static final int DUE = 300;
+    // Small pages so the two instances go through many claim rounds against each other
+    private static final int PAGE_SIZE = 7;
+
+    private static final String INSERT =
+            "INSERT INTO notifications (title, message, type, target_audience, status, scheduled_at, " +
+            "claimed_by, claim_expires_at, created_at) " +
+            "VALUES ('Notice', 'Message', 'GENERAL', 'ALL_PARENTS', ?, ?, ?, ?, ?)";
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void createNotificationsTable() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        // notifications as Hibernate creates it from the Notification entity
+        jdbcTemplate.execute("CREATE TABLE notifications (" +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(255), message TEXT, " +
+                "type VARCHAR(32), priority VARCHAR(16), target_audience VARCHAR(32), class_id BIGINT, " +
+                "academic_year_id BIGINT, scheduled_at DATETIME(6), sent_at DATETIME(6), status VARCHAR(16), " +
+                "created_by VARCHAR(255), created_at DATETIME(6), updated_at DATETIME(6), section VARCHAR(255), " +
+                "claimed_by VARCHAR(64), claim_expires_at DATETIME(6), " +
+                "INDEX idx_notifications_due (status, scheduled_at))");
+    }
+
+    @Test
+    void twoInstancesPublishEachDueNotificationExactlyOnce() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.execute("TRUNCATE TABLE notifications");
+        Set<Long> due = new HashSet<>(insert(DUE, "SCHEDULED", now.minusMinutes(30), null, null));
+        // A lease that ran out belongs to an instance that died before publishing
+        due.addAll(insert(10, "SCHEDULED", now.minusMinutes(30), "crashed-instance", now.minusMinutes(1)));
+        insert(20, "SCHEDULED", now.minusMinutes(30), "live-instance", now.plusMinutes(5));
+        insert(20, "SCHEDULED", now.plusHours(1), null, null);
+        insert(10, "SENT", now.minusMinutes(30), null, null);
+
+        Map<Long, AtomicInteger> published = new ConcurrentHashMap<>();
+        List<ScheduledNotificationDispatcher> instances = List.of(dispatcher(published), dispatcher(published));
+
+        List<Integer> claimed = runTogether(instances.stream()
+                .<Callable<Integer>>map(instance -> instance::dispatchDue)
+                .toList());
+
+        assertEquals(due.size(), claimed.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(due, published.keySet());
+        published.forEach((id, count) -> assertEquals(1, count.get(), "notification " + id + " was published twice"));
+        // Whatever is left is leased or not due yet
+        for (ScheduledNotificationDispatcher instance : instances) {
+            assertEquals(0, instance.dispatchDue());
+        }
+        assertEquals(due.size(), published.size());
+        Integer unleased = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications " +
+                "WHERE status = 'SCHEDULED' AND scheduled_at <= ? AND claim_expires_at IS NULL",
+                Integer.class, Timestamp.valueOf(now));
+        assertEquals(0, unleased.intValue());
+    }
+
+    @Test
+    void concurrentFanoutTakesLetOneCallerThrough() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.execute("TRUNCATE TABLE notifications");
+        List<Long> ids = insert(DUE, "SCHEDULED", now.minusMinutes(30), null, null);
+        NotificationJdbcRepository repository = new TransactionalNotificationJdbcRepository();
+
+        Callable<Integer> take = () -> {
+            int taken = 0;
+            for (Long id : ids) {
+                if (repository.takeForFanout(id, LocalDateTime.now())) {
+                    taken++;
+                }
+            }
+            return taken;
+        };
+        List<Integer> taken = runTogether(List.of(take, take, take));
+
+        assertEquals(DUE, taken.stream().mapToInt(Integer::intValue).sum());
+        Integer sent = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications WHERE status = 'SENT'",
+                Integer.class);
+        assertEquals(DUE, sent.intValue());
+    }
+
+    private static ScheduledNotificationDispatcher dispatcher(Map<Long, AtomicInteger> published) {
+        NotificationQueue queue = new NotificationQueue() {
+            @Override
+            public void publishFanout(FanoutRequest request) {
+                published.computeIfAbsent(request.notificationId(), id -> new AtomicInteger()).incrementAndGet();
+            }
+
+            @Override
+            public void publishRecipientBatch(RecipientBatch batch) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void publishChannelSend(ChannelSend send) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        return new ScheduledNotificationDispatcher(new TransactionalNotificationJdbcRepository(), null, queue,
+                PAGE_SIZE, Duration.ofMinutes(10));
+    }
+
+    private static List<Long> insert(int count, String status, LocalDateTime scheduledAt,
+                                     String claimedBy, LocalDateTime claimExpiresAt) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            KeyHolder key = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, status);
+                ps.setTimestamp(2, Timestamp.valueOf(scheduledAt));
+                ps.setString(3, claimedBy);
+                ps.setTimestamp(4, claimExpiresAt != null ? Timestamp.valueOf(claimExpiresAt) : null);
+                ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                return ps;
+            }, key);
+            ids.add(key.getKey().longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Starts all tasks together and waits for their results.
+     */
+    private static <T> List<T> runTogether(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Stands in for the transactional proxy Spring puts around the
+     * repository, so the claim's row locks are held until its leases are
+     * written.
+     */
+    private static final class TransactionalNotificationJdbcRepository extends NotificationJdbcRepository {
+        TransactionalNotificationJdbcRepository() {
+            super(jdbcTemplate);
+        }
+
+        @Override
+        public List<Long> claimDueScheduled(String owner, LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+            return transactionTemplate.execute(status -> super.claimDueScheduled(owner, now, leaseUntil, limit));
+        }
+    }
+}
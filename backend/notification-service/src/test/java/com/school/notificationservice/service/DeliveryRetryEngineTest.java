@@ -0,0 +1,281 @@
+package com.school.notificationservice.service;
+
+import com.school.notificationservice.model.Notification;
+import com.school.notificationservice.model.NotificationDelivery;
+import com.school.notificationservice.model.NotificationDelivery.DeliveryMethod;
+import com.school.notificationservice.model.NotificationDelivery.DeliveryStatus;
+import com.school.notificationservice.repository.NotificationDeliveryJdbcRepository;
+import com.school.notificationservice.repository.NotificationDeliveryJdbcRepository.RetryOutcome;
+import com.school.notificationservice.repository.NotificationDeliveryRepository;
+import com.school.notificationservice.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeliveryRetryEngineTest {
+
+    private static final Duration BASE_DELAY = Duration.ofMinutes(1);
+    private static final Duration MAX_DELAY = Duration.ofHours(1);
+
+    private final Map<Long, NotificationDelivery> deliveries = new LinkedHashMap<>();
+    private final Map<Long, Notification> notifications = new HashMap<>();
+    private final Map<String, String> contactPhones = new HashMap<>();
+    private final Set<String> rejectedPhones = new HashSet<>();
+    private final List<Long> due = new ArrayList<>();
+    private final List<RetryOutcome> outcomes = new ArrayList<>();
+    private final List<Collection<Long>> contactLookups = new ArrayList<>();
+    private final List<Map<String, String>> smsBatches = new ArrayList<>();
+    private final List<Map<String, String>> whatsappBatches = new ArrayList<>();
+
+    @Test
+    void backoffDoublesPerAttemptAndStaysInTheUpperHalf() {
+        DeliveryRetryEngine engine = engine(500);
+        for (int attempts = 1; attempts <= 30; attempts++) {
+            long delay = Math.min(BASE_DELAY.toMillis() << Math.min(attempts - 1, 20), MAX_DELAY.toMillis());
+            for (int sample = 0; sample < 200; sample++) {
+                long backoff = engine.backoff(attempts).toMillis();
+                assertTrue(backoff >= delay / 2 && backoff <= delay,
+                        "attempt " + attempts + ": " + backoff + " ms outside [" + delay / 2 + ", " + delay + "]");
+            }
+        }
+    }
+
+    @Test
+    void backoffIsJittered() {
+        DeliveryRetryEngine engine = engine(500);
+        Set<Duration> seen = new HashSet<>();
+        for (int sample = 0; sample < 50; sample++) {
+            seen.add(engine.backoff(3));
+        }
+        assertTrue(seen.size() > 10, "only " + seen.size() + " distinct delays in 50 retries");
+    }
+
+    @Test
+    void outcomesAreSentFailedWithNextRetryOrCancelled() {
+        notification(1);
+        contactPhones.put("11", "9876500011");
+        contactPhones.put("12", "9876500012");
+        rejectedPhones.add("+919876500012");
+        delivery(101, 1, 11, DeliveryMethod.SMS, 0);
+        delivery(102, 1, 12, DeliveryMethod.SMS, 1);
+        delivery(103, 1, 13, DeliveryMethod.WHATSAPP, 0);
+        delivery(104, 1, 11, DeliveryMethod.IN_APP, 2);
+        // Notification 2 was deleted after its deliveries failed
+        delivery(105, 2, 11, DeliveryMethod.SMS, 0);
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(5, engine(500).retryDue());
+
+        RetryOutcome sent = outcome(101);
+        assertEquals(DeliveryStatus.SENT, sent.status());
+        assertNotNull(sent.sentAt());
+        assertEquals(1, sent.retryCount());
+        assertNull(sent.nextRetryAt());
+
+        RetryOutcome rejected = outcome(102);
+        assertEquals(DeliveryStatus.FAILED, rejected.status());
+        assertEquals("SMS provider did not accept the message", rejected.errorMessage());
+        assertEquals(2, rejected.retryCount());
+        // Second failed attempt: two minutes doubled from the base, jittered into the upper half
+        assertNextRetryWithin(rejected, before, Duration.ofMinutes(1), Duration.ofMinutes(2));
+
+        RetryOutcome unreachable = outcome(103);
+        assertEquals(DeliveryStatus.FAILED, unreachable.status());
+        assertEquals("No valid parent phone number", unreachable.errorMessage());
+        assertEquals(1, unreachable.retryCount());
+        assertNextRetryWithin(unreachable, before, Duration.ofSeconds(30), Duration.ofMinutes(1));
+
+        RetryOutcome inApp = outcome(104);
+        assertEquals(DeliveryStatus.DELIVERED, inApp.status());
+        assertNotNull(inApp.deliveredAt());
+
+        RetryOutcome cancelled = outcome(105);
+        assertEquals(DeliveryStatus.CANCELLED, cancelled.status());
+        assertEquals("Notification no longer exists", cancelled.errorMessage());
+        assertNull(cancelled.nextRetryAt());
+
+        assertEquals(5, outcomes.size());
+    }
+
+    @Test
+    void eachPageLooksUpContactsOnceAndSendsOneBatchPerNotification() {
+        notification(1);
+        notification(2);
+        for (long student = 1; student <= 4; student++) {
+            contactPhones.put(String.valueOf(student), "98765000" + (10 + student));
+        }
+        // Page one: notifications 1 and 2 mixed; page two: the rest of notification 2
+        delivery(201, 1, 1, DeliveryMethod.SMS, 0);
+        delivery(202, 2, 2, DeliveryMethod.SMS, 0);
+        delivery(203, 1, 3, DeliveryMethod.SMS, 0);
+        delivery(204, 1, 1, DeliveryMethod.IN_APP, 0);
+        delivery(205, 2, 4, DeliveryMethod.WHATSAPP, 0);
+        delivery(206, 2, 1, DeliveryMethod.SMS, 0);
+
+        assertEquals(6, engine(4).retryDue());
+
+        // One lookup per page, with the distinct non-in-app recipients of that page
+        assertEquals(2, contactLookups.size());
+        assertEquals(Set.of(1L, 2L, 3L), new HashSet<>(contactLookups.get(0)));
+        assertEquals(Set.of(4L, 1L), new HashSet<>(contactLookups.get(1)));
+        // Page one sends one SMS batch per notification, page two one SMS and one WhatsApp batch
+        assertEquals(3, smsBatches.size());
+        assertEquals(2, smsBatches.get(0).size());
+        assertEquals(1, smsBatches.get(1).size());
+        assertEquals(1, whatsappBatches.size());
+        assertEquals(6, outcomes.size());
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.status() == DeliveryStatus.SENT
+                || outcome.status() == DeliveryStatus.DELIVERED));
+    }
+
+    private void assertNextRetryWithin(RetryOutcome outcome, LocalDateTime before, Duration min, Duration max) {
+        LocalDateTime nextRetryAt = outcome.nextRetryAt();
+        assertNotNull(nextRetryAt);
+        assertTrue(!nextRetryAt.isBefore(before.plus(min)), "next retry " + nextRetryAt + " before " + min);
+        assertTrue(!nextRetryAt.isAfter(LocalDateTime.now().plus(max)), "next retry " + nextRetryAt + " after " + max);
+    }
+
+    private RetryOutcome outcome(long deliveryId) {
+        return outcomes.stream()
+                .filter(outcome -> outcome.deliveryId() == deliveryId)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no outcome for delivery " + deliveryId));
+    }
+
+    private void notification(long id) {
+        Notification notification = new Notification("Notice " + id, "Message " + id,
+                Notification.NotificationType.GENERAL, Notification.TargetAudience.ALL_PARENTS);
+        notification.setId(id);
+        notifications.put(id, notification);
+    }
+
+    private void delivery(long id, long notificationId, long studentId, DeliveryMethod method, int retryCount) {
+        NotificationDelivery delivery = new NotificationDelivery(notificationId, studentId,
+                NotificationDelivery.RecipientType.STUDENT, method);
+        delivery.setId(id);
+        delivery.setStatus(DeliveryStatus.FAILED);
+        delivery.setRetryCount(retryCount);
+        deliveries.put(id, delivery);
+        due.add(id);
+    }
+
+    private DeliveryRetryEngine engine(int batchSize) {
+        return new DeliveryRetryEngine(deliveryRepository(), new FakeDeliveryJdbcRepository(),
+                notificationRepository(), new FakeStudentDirectory(), new FakeSmsService(), new FakeWhatsAppService(),
+                3, batchSize, BASE_DELAY, MAX_DELAY, Duration.ofMinutes(10));
+    }
+
+    @SuppressWarnings("unchecked")
+    private NotificationDeliveryRepository deliveryRepository() {
+        return repository(NotificationDeliveryRepository.class, "findAllById", ids -> {
+            List<NotificationDelivery> found = new ArrayList<>();
+            ((Iterable<Long>) ids).forEach(id -> found.add(deliveries.get(id)));
+            return found;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private NotificationRepository notificationRepository() {
+        return repository(NotificationRepository.class, "findAllById", ids -> {
+            List<Notification> found = new ArrayList<>();
+            ((Iterable<Long>) ids).forEach(id -> {
+                if (notifications.containsKey(id)) {
+                    found.add(notifications.get(id));
+                }
+            });
+            return found;
+        });
+    }
+
+    private static <T> T repository(Class<T> type, String supported, java.util.function.Function<Object, Object> handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (!method.getName().equals(supported)) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return handler.apply(args[0]);
+        }));
+    }
+
+    private class FakeDeliveryJdbcRepository extends NotificationDeliveryJdbcRepository {
+        FakeDeliveryJdbcRepository() {
+            super(null);
+        }
+
+        @Override
+        public List<Long> claimRetryable(int maxAttempts, List<DeliveryMethod> methods, LocalDateTime now,
+                                         LocalDateTime leaseUntil, int limit) {
+            List<Long> page = new ArrayList<>(due.subList(0, Math.min(limit, due.size())));
+            due.removeAll(page);
+            return page;
+        }
+
+        @Override
+        public void batchUpdateRetryOutcomes(List<RetryOutcome> page) {
+            outcomes.addAll(page);
+        }
+    }
+
+    private class FakeStudentDirectory extends StudentDirectoryClient {
+        FakeStudentDirectory() {
+            super(null, "http://localhost:8081");
+        }
+
+        @Override
+        public Map<Long, Map<String, Object>> getContacts(Collection<Long> studentIds) {
+            contactLookups.add(List.copyOf(studentIds));
+            Map<Long, Map<String, Object>> contacts = new HashMap<>();
+            for (Long studentId : studentIds) {
+                String phone = contactPhones.get(String.valueOf(studentId));
+                if (phone != null) {
+                    contacts.put(studentId, Map.of("studentId", studentId, "parentPhone", phone));
+                }
+            }
+            return contacts;
+        }
+    }
+
+    private class FakeSmsService extends SMSService {
+        FakeSmsService() {
+            super(null, null);
+        }
+
+        @Override
+        public Map<String, Boolean> sendBulkSMS(Map<String, String> phoneNumberToMessage) {
+            smsBatches.add(phoneNumberToMessage);
+            return results(phoneNumberToMessage);
+        }
+    }
+
+    private class FakeWhatsAppService extends WhatsAppService {
+        FakeWhatsAppService() {
+            super(null, null);
+        }
+
+        @Override
+        public Map<String, Boolean> sendBulkWhatsApp(Map<String, String> phoneNumberToMessage) {
+            whatsappBatches.add(phoneNumberToMessage);
+            return results(phoneNumberToMessage);
+        }
+    }
+
+    private Map<String, Boolean> results(Map<String, String> phoneNumberToMessage) {
+        Map<String, Boolean> results = new HashMap<>();
+        phoneNumberToMessage.keySet().forEach(phone -> results.put(phone, !rejectedPhones.contains(phone)));
+        return results;
+    }
+}
@@ -0,0 +1,146 @@
+package com.school.notificationservice.service.dispatch;
+
+import com.school.notificationservice.service.dispatch.BulkSendDispatcher.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkSendDispatcherTest {
+
+    private static final int MAX_CONCURRENCY = 3;
+
+    @Test
+    void keepsAtMostMaxConcurrencyMessagesInFlight() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BulkSendDispatcher dispatcher = dispatcher(meterRegistry, 10_000, 1_000);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        Map<String, Boolean> results = dispatcher.dispatch(Channel.WHATSAPP, messages(40), (phone, message) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(10);
+            inFlight.decrementAndGet();
+            return true;
+        });
+
+        assertEquals(40, results.size());
+        assertTrue(results.values().stream().allMatch(Boolean::booleanValue));
+        assertTrue(maxInFlight.get() <= MAX_CONCURRENCY, "in flight reached " + maxInFlight.get());
+        assertEquals(40.0, meterRegistry.get("notification.dispatch.messages")
+                .tag("channel", "whatsapp").tag("result", "sent").counter().count());
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void sendsNoFasterThanTheChannelRate() {
+        BulkSendDispatcher dispatcher = dispatcher(new SimpleMeterRegistry(), 50, 1);
+
+        long started = System.nanoTime();
+        Map<String, Boolean> results = dispatcher.dispatch(Channel.SMS, messages(11), (phone, message) -> true);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals(11, results.size());
+        // The first message goes at once, the other ten 20 ms apart
+        assertTrue(elapsed >= 190, "eleven messages at 50/s took only " + elapsed + " ms");
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void failedAndThrowingSendsAreReportedFalse() {
+        BulkSendDispatcher dispatcher = dispatcher(new SimpleMeterRegistry(), 10_000, 1_000);
+
+        Map<String, Boolean> results = dispatcher.dispatch(Channel.SMS, messages(3), (phone, message) -> {
+            if (phone.endsWith("0")) {
+                return true;
+            }
+            if (phone.endsWith("1")) {
+                return false;
+            }
+            throw new IllegalStateException("provider down");
+        });
+
+        assertEquals(Map.of("9000000000", true, "9000000001", false, "9000000002", false), results);
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void messagesNotSentBeforeAnInterruptAreReportedFalse() throws Exception {
+        // Two messages a second, so the interrupt lands while later ones wait for a token
+        BulkSendDispatcher dispatcher = dispatcher(new SimpleMeterRegistry(), 2, 1);
+        CountDownLatch firstSent = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<Map<String, Boolean>> dispatch = caller.submit(() -> {
+                Map<String, Boolean> results = dispatcher.dispatch(Channel.SMS, messages(10), (phone, message) -> {
+                    sent.incrementAndGet();
+                    firstSent.countDown();
+                    return true;
+                });
+                assertTrue(Thread.currentThread().isInterrupted(), "interrupt status was not restored");
+                return results;
+            });
+            assertTrue(firstSent.await(5, TimeUnit.SECONDS));
+            caller.shutdownNow();
+
+            Map<String, Boolean> results = dispatch.get(5, TimeUnit.SECONDS);
+            assertEquals(10, results.size());
+            // A send still in flight at the interrupt may be reported false, but
+            // nothing the sender never saw is reported true
+            long reportedSent = results.values().stream().filter(Boolean::booleanValue).count();
+            assertTrue(reportedSent <= sent.get(), reportedSent + " reported sent, " + sent.get() + " sent");
+            assertTrue(sent.get() < 10, "every message was sent despite the interrupt");
+        } finally {
+            caller.shutdownNow();
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void messagesAfterShutdownAreReportedFalse() {
+        BulkSendDispatcher dispatcher = dispatcher(new SimpleMeterRegistry(), 10_000, 1_000);
+        dispatcher.shutdown();
+        AtomicInteger sent = new AtomicInteger();
+
+        Map<String, Boolean> results = dispatcher.dispatch(Channel.WHATSAPP, messages(5), (phone, message) -> {
+            sent.incrementAndGet();
+            return true;
+        });
+
+        assertEquals(5, results.size());
+        assertFalse(results.containsValue(true));
+        assertEquals(0, sent.get());
+    }
+
+    private static BulkSendDispatcher dispatcher(SimpleMeterRegistry meterRegistry, double rate, int burst) {
+        return new BulkSendDispatcher(meterRegistry, rate, burst, MAX_CONCURRENCY, rate, burst, MAX_CONCURRENCY);
+    }
+
+    private static Map<String, String> messages(int count) {
+        Map<String, String> messages = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            messages.put(String.valueOf(9_000_000_000L + i), "Fee reminder " + i);
+        }
+        return messages;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.school.notificationservice.service.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    @Test
+    void burstIsAvailableWithoutWaiting() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 20);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            bucket.acquire();
+        }
+        // At one token a second, any wait would take far longer than this
+        assertTrue(elapsedMillis(started) < 500, "burst tokens were not handed out immediately");
+    }
+
+    @Test
+    void pacesAcquiresAtTheRateOnceTheBurstIsUsed() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(50, 1);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            bucket.acquire();
+        }
+        long elapsed = elapsedMillis(started);
+        // One token up front, then ten more at 20 ms each
+        assertTrue(elapsed >= 190, "ten paced acquires took only " + elapsed + " ms");
+        assertTrue(elapsed < 1_000, "ten paced acquires took " + elapsed + " ms");
+    }
+
+    @Test
+    void waitingAcquireIsInterruptible() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0.1, 1);
+        bucket.acquire();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedException.class, bucket::acquire);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveRateOrBurst() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0));
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+}
@@ -0,0 +1,14 @@
+package com.school.serviceclient;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown when a downstream service already has its maximum number of calls in
+ * flight, so the caller fails fast instead of queueing behind a slow service.
+ */
+public class BulkheadFullException extends RestClientException {
+
+    public BulkheadFullException(String route, int maxConcurrentCalls) {
+        super("Too many concurrent calls to " + route + " (limit " + maxConcurrentCalls + ")");
+    }
+}
@@ -0,0 +1,139 @@
+package com.school.serviceclient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Guards each call with its route's bulkhead and times it into the
+ * service.client.requests histogram, tagged by route, method, status and
+ * outcome. The permit is held, and the timer runs, until the response is
+ * closed, so reading the body counts towards both.
+ */
+public class ServiceCallInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String METRIC_NAME = "service.client.requests";
+
+    private final ServiceRoutes routes;
+    private final MeterRegistry meterRegistry;
+
+    public ServiceCallInterceptor(ServiceRoutes routes, MeterRegistry meterRegistry) {
+        this.routes = routes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        ServiceRoutes.Route route = routes.resolve(request.getURI());
+        long start = System.nanoTime();
+        if (!route.tryAcquire()) {
+            record(route, request, "NONE", "REJECTED", start);
+            throw new BulkheadFullException(route.getName(), route.getMaxConcurrentCalls());
+        }
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            route.release();
+            record(route, request, "IO_ERROR", "IO_ERROR", start);
+            throw e;
+        }
+        return new TrackedResponse(response, route, request, start);
+    }
+
+    private void record(ServiceRoutes.Route route, HttpRequest request, String status, String outcome, long start) {
+        Timer.builder(METRIC_NAME)
+                .description("Latency of calls made through the shared service client")
+                .tag("route", route.getName())
+                .tag("method", request.getMethod().name())
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        if (status >= 300) {
+            return "REDIRECTION";
+        }
+        return status >= 200 ? "SUCCESS" : "INFORMATIONAL";
+    }
+
+    private final class TrackedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final ServiceRoutes.Route route;
+        private final HttpRequest request;
+        private final long start;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private TrackedResponse(ClientHttpResponse delegate, ServiceRoutes.Route route, HttpRequest request,
+                                long start) {
+            this.delegate = delegate;
+            this.route = route;
+            this.request = request;
+            this.start = start;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            String status;
+            String outcome;
+            try {
+                int code = delegate.getStatusCode().value();
+                status = String.valueOf(code);
+                outcome = outcome(code);
+            } catch (IOException e) {
+                status = "IO_ERROR";
+                outcome = "IO_ERROR";
+            }
+            try {
+                delegate.close();
+            } finally {
+                route.release();
+                record(route, request, status, outcome, start);
+            }
+        }
+    }
+}
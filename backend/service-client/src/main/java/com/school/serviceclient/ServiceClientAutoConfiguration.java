@@ -0,0 +1,88 @@
+package com.school.serviceclient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Provides the shared RestTemplate used for calls between services, backed
+ * by one pooled Apache HttpClient with keep-alive connections, per-route
+ * timeouts and pool limits, a per-route bulkhead and latency histograms.
+ *
+ * Services pick it up by depending on this module and injecting RestTemplate.
+ */
+@AutoConfiguration(after = RestTemplateAutoConfiguration.class)
+@ConditionalOnClass({RestTemplate.class, CloseableHttpClient.class})
+@EnableConfigurationProperties(ServiceClientProperties.class)
+public class ServiceClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ServiceRoutes serviceRoutes(ServiceClientProperties properties,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ServiceRoutes(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public PoolingHttpClientConnectionManager serviceClientConnectionManager(ServiceClientProperties properties,
+                                                                            ServiceRoutes routes) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .build();
+        connectionManager.setConnectionConfigResolver(route -> routes.resolve(route.getTargetHost()).getConnectionConfig());
+        for (ServiceRoutes.Route route : routes.configuredRoutes()) {
+            connectionManager.setMaxPerRoute(new HttpRoute(route.toHttpHost(), null, route.isSecure()),
+                    route.getMaxConnections());
+        }
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public CloseableHttpClient serviceHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                 ServiceClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                // Used when the server does not send its own Keep-Alive timeout
+                .setConnectionKeepAlive(TimeValue.of(properties.getIdleTimeout()))
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(RestTemplate.class)
+    public RestTemplate restTemplate(ObjectProvider<RestTemplateBuilder> restTemplateBuilder,
+                                     CloseableHttpClient serviceHttpClient,
+                                     ServiceRoutes routes,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return restTemplateBuilder.getIfAvailable(RestTemplateBuilder::new)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serviceHttpClient))
+                .additionalInterceptors(new ServiceCallInterceptor(routes,
+                        meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)))
+                .build();
+    }
+}
@@ -0,0 +1,201 @@
+package com.school.serviceclient;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for the shared inter-service HTTP client.
+ *
+ * The top-level values apply to every host; entries under {@code routes}
+ * override them for one downstream service, matched on the host and port of
+ * the route's {@code url}. For example:
+ *
+ * <pre>
+ * service-client.routes.student-service.url=http://localhost:8081
+ * service-client.routes.student-service.read-timeout=5s
+ * service-client.routes.student-service.max-concurrent-calls=20
+ * </pre>
+ */
+@ConfigurationProperties("service-client")
+public class ServiceClientProperties {
+
+    /** Connections kept across all hosts. */
+    private int maxConnections = 200;
+
+    /** Connections kept per host unless a route overrides it. */
+    private int maxConnectionsPerRoute = 50;
+
+    /** How long an idle pooled connection is kept alive before it is closed. */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    /** Upper bound on the lifetime of a pooled connection, so DNS changes are picked up. */
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+
+    /** How long a call waits for a free pooled connection. */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /** Calls allowed in flight per host before the bulkhead rejects new ones. */
+    private int maxConcurrentCalls = 50;
+
+    /** How long a call waits for a bulkhead permit before it is rejected. */
+    private Duration maxWait = Duration.ZERO;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getConnectionTimeToLive() {
+        return connectionTimeToLive;
+    }
+
+    public void setConnectionTimeToLive(Duration connectionTimeToLive) {
+        this.connectionTimeToLive = connectionTimeToLive;
+    }
+
+    public Duration getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Overrides for one downstream service. Unset values fall back to the
+     * top-level defaults.
+     */
+    public static class Route {
+
+        /** Base URL of the service; only its scheme, host and port are used. */
+        private String url;
+
+        private Duration connectTimeout;
+
+        private Duration readTimeout;
+
+        private Integer maxConnections;
+
+        private Integer maxConcurrentCalls;
+
+        private Duration maxWait;
+
+        // Getters and Setters
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Integer getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
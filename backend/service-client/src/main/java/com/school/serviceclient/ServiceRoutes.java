@@ -0,0 +1,205 @@
+package com.school.serviceclient;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the route settings (timeouts, pool size, bulkhead) for the host a
+ * call goes to. Configured routes are built up front; any other host gets a
+ * route with the default settings the first time it is called.
+ *
+ * Each route's free bulkhead permits are published as
+ * service.client.bulkhead.available.
+ */
+public class ServiceRoutes {
+
+    private final ServiceClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Route> routesByAuthority = new ConcurrentHashMap<>();
+    private final List<Route> configuredRoutes;
+
+    public ServiceRoutes(ServiceClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.configuredRoutes = properties.getRoutes().entrySet().stream()
+                .filter(entry -> entry.getValue().getUrl() != null && !entry.getValue().getUrl().isBlank())
+                .map(entry -> configuredRoute(entry.getKey(), entry.getValue()))
+                .toList();
+        for (Route route : configuredRoutes) {
+            Route previous = routesByAuthority.putIfAbsent(route.authority, route);
+            if (previous != null) {
+                throw new IllegalStateException("Service client routes '" + previous.name + "' and '"
+                        + route.name + "' point at the same host " + route.authority);
+            }
+        }
+    }
+
+    public Route resolve(URI uri) {
+        return resolve(uri.getScheme(), uri.getHost(), uri.getPort());
+    }
+
+    public Route resolve(HttpHost host) {
+        return resolve(host.getSchemeName(), host.getHostName(), host.getPort());
+    }
+
+    public Collection<Route> configuredRoutes() {
+        return configuredRoutes;
+    }
+
+    private Route resolve(String scheme, String host, int port) {
+        String authority = authority(scheme, host, port);
+        Route route = routesByAuthority.get(authority);
+        if (route != null) {
+            return route;
+        }
+        return routesByAuthority.computeIfAbsent(authority, key -> defaultRoute(scheme, host, port));
+    }
+
+    private Route configuredRoute(String name, ServiceClientProperties.Route config) {
+        URI uri = URI.create(config.getUrl());
+        return register(new Route(
+                name,
+                uri.getScheme(),
+                uri.getHost(),
+                port(uri.getScheme(), uri.getPort()),
+                orDefault(config.getConnectTimeout(), properties.getConnectTimeout()),
+                orDefault(config.getReadTimeout(), properties.getReadTimeout()),
+                orDefault(config.getMaxConnections(), properties.getMaxConnectionsPerRoute()),
+                orDefault(config.getMaxConcurrentCalls(), properties.getMaxConcurrentCalls()),
+                orDefault(config.getMaxWait(), properties.getMaxWait()),
+                properties.getConnectionTimeToLive()));
+    }
+
+    private Route defaultRoute(String scheme, String host, int port) {
+        return register(new Route(
+                host,
+                scheme,
+                host,
+                port(scheme, port),
+                properties.getConnectTimeout(),
+                properties.getReadTimeout(),
+                properties.getMaxConnectionsPerRoute(),
+                properties.getMaxConcurrentCalls(),
+                properties.getMaxWait(),
+                properties.getConnectionTimeToLive()));
+    }
+
+    private Route register(Route route) {
+        Gauge.builder("service.client.bulkhead.available", route.bulkhead, Semaphore::availablePermits)
+                .tag("route", route.name)
+                .description("Free bulkhead permits for calls to a downstream service")
+                .register(meterRegistry);
+        return route;
+    }
+
+    private static String authority(String scheme, String host, int port) {
+        String normalizedScheme = scheme != null ? scheme.toLowerCase(Locale.ROOT) : "http";
+        return normalizedScheme + "://" + String.valueOf(host).toLowerCase(Locale.ROOT) + ":" + port(scheme, port);
+    }
+
+    private static int port(String scheme, int port) {
+        if (port > 0) {
+            return port;
+        }
+        return "https".equalsIgnoreCase(scheme) ? 443 : 80;
+    }
+
+    private static <T> T orDefault(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+
+    /**
+     * Settings and bulkhead for calls to one host.
+     */
+    public static final class Route {
+        private final String name;
+        private final String scheme;
+        private final String host;
+        private final int port;
+        private final String authority;
+        private final int maxConnections;
+        private final int maxConcurrentCalls;
+        private final long maxWaitMillis;
+        private final Semaphore bulkhead;
+        private final ConnectionConfig connectionConfig;
+
+        private Route(String name, String scheme, String host, int port, Duration connectTimeout,
+                      Duration readTimeout, int maxConnections, int maxConcurrentCalls, Duration maxWait,
+                      Duration timeToLive) {
+            this.name = name;
+            this.scheme = scheme;
+            this.host = host;
+            this.port = port;
+            this.authority = authority(scheme, host, port);
+            this.maxConnections = maxConnections;
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            this.maxWaitMillis = maxWait.toMillis();
+            this.bulkhead = new Semaphore(maxConcurrentCalls, true);
+            this.connectionConfig = ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(connectTimeout))
+                    .setSocketTimeout(Timeout.of(readTimeout))
+                    .setTimeToLive(TimeValue.of(timeToLive))
+                    .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                    .build();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public ConnectionConfig getConnectionConfig() {
+            return connectionConfig;
+        }
+
+        public HttpHost toHttpHost() {
+            return new HttpHost(scheme, host, port);
+        }
+
+        public boolean isSecure() {
+            return "https".equalsIgnoreCase(scheme);
+        }
+
+        /**
+         * Takes a bulkhead permit, waiting at most the route's max-wait.
+         *
+         * @return false if the route is saturated
+         */
+        boolean tryAcquire() {
+            if (maxWaitMillis <= 0) {
+                return bulkhead.tryAcquire();
+            }
+            try {
+                return bulkhead.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        void release() {
+            bulkhead.release();
+        }
+    }
+}
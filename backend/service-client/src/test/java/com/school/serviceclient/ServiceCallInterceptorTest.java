@@ -0,0 +1,159 @@
+package com.school.serviceclient;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServiceCallInterceptorTest {
+
+    private static final URI STUDENTS = URI.create("http://localhost:8081/api/students");
+    private static final int MAX_CONCURRENT_CALLS = 2;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServiceCallInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        ServiceClientProperties properties = new ServiceClientProperties();
+        properties.getRoutes().put("student-service",
+                ServiceRoutesTest.route("http://localhost:8081", MAX_CONCURRENT_CALLS));
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new ServiceCallInterceptor(new ServiceRoutes(properties, meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void rejectsCallsOnceMaxConcurrentCallsAreInFlight() throws IOException {
+        ClientHttpResponse first = interceptor.intercept(request(), new byte[0], respond(200));
+        ClientHttpResponse second = interceptor.intercept(request(), new byte[0], respond(200));
+
+        BulkheadFullException rejected = assertThrows(BulkheadFullException.class,
+                () -> interceptor.intercept(request(), new byte[0], respond(200)));
+        assertTrue(rejected.getMessage().contains("student-service"));
+        assertEquals(0, availablePermits());
+        assertEquals(1, timer("NONE", "REJECTED").count());
+
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void closingTheResponseReleasesThePermitOnce() throws IOException {
+        ClientHttpResponse first = interceptor.intercept(request(), new byte[0], respond(200));
+        ClientHttpResponse second = interceptor.intercept(request(), new byte[0], respond(404));
+        assertEquals(0, availablePermits());
+
+        first.close();
+        assertEquals(1, availablePermits());
+        // A second close must not hand out an extra permit
+        first.close();
+        assertEquals(1, availablePermits());
+
+        ClientHttpResponse third = interceptor.intercept(request(), new byte[0], respond(200));
+        third.close();
+        second.close();
+        assertEquals(MAX_CONCURRENT_CALLS, availablePermits());
+        assertEquals(2, timer("200", "SUCCESS").count());
+        assertEquals(1, timer("404", "CLIENT_ERROR").count());
+    }
+
+    @Test
+    void ioErrorReleasesThePermit() {
+        ClientHttpRequestExecution refused = (request, body) -> {
+            throw new ConnectException("Connection refused");
+        };
+        for (int i = 0; i < MAX_CONCURRENT_CALLS + 1; i++) {
+            assertThrows(ConnectException.class, () -> interceptor.intercept(request(), new byte[0], refused));
+        }
+
+        assertEquals(MAX_CONCURRENT_CALLS, availablePermits());
+        assertEquals(MAX_CONCURRENT_CALLS + 1, timer("IO_ERROR", "IO_ERROR").count());
+        assertNull(meterRegistry.find(ServiceCallInterceptor.METRIC_NAME).tag("outcome", "REJECTED").timer());
+    }
+
+    @Test
+    void runtimeFailureReleasesThePermit() {
+        ClientHttpRequestExecution failing = (request, body) -> {
+            throw new IllegalStateException("pool shut down");
+        };
+        assertThrows(IllegalStateException.class, () -> interceptor.intercept(request(), new byte[0], failing));
+
+        assertEquals(MAX_CONCURRENT_CALLS, availablePermits());
+    }
+
+    private int availablePermits() {
+        return (int) meterRegistry.get("service.client.bulkhead.available").tag("route", "student-service").gauge().value();
+    }
+
+    private Timer timer(String status, String outcome) {
+        return meterRegistry.get(ServiceCallInterceptor.METRIC_NAME)
+                .tag("route", "student-service")
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    private static HttpRequest request() {
+        return new HttpRequest() {
+            @Override
+            public HttpMethod getMethod() {
+                return HttpMethod.GET;
+            }
+
+            @Override
+            public URI getURI() {
+                return STUDENTS;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return new HttpHeaders();
+            }
+        };
+    }
+
+    private static ClientHttpRequestExecution respond(int status) {
+        return (request, body) -> new ClientHttpResponse() {
+            @Override
+            public HttpStatusCode getStatusCode() {
+                return HttpStatusCode.valueOf(status);
+            }
+
+            @Override
+            public String getStatusText() {
+                return "";
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return new HttpHeaders();
+            }
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(new byte[0]);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.school.serviceclient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ServiceRoutesTest {
+
+    @Test
+    void configuredRouteIsResolvedByHostAndPort() {
+        ServiceClientProperties properties = new ServiceClientProperties();
+        properties.getRoutes().put("student-service", route("http://localhost:8081", 5));
+        properties.getRoutes().put("fee-service", route("http://localhost:8086", 7));
+        ServiceRoutes routes = new ServiceRoutes(properties, new SimpleMeterRegistry());
+
+        ServiceRoutes.Route student = routes.resolve(URI.create("http://localhost:8081/api/students/1"));
+        assertEquals("student-service", student.getName());
+        assertEquals(5, student.getMaxConcurrentCalls());
+        // Path, query and host case do not matter; only scheme, host and port do
+        assertSame(student, routes.resolve(URI.create("http://LOCALHOST:8081/api/classes?page=2")));
+        assertSame(student, routes.resolve(new HttpHost("http", "localhost", 8081)));
+
+        ServiceRoutes.Route fee = routes.resolve(URI.create("http://localhost:8086/api/fees"));
+        assertEquals("fee-service", fee.getName());
+        assertEquals(7, fee.getMaxConcurrentCalls());
+    }
+
+    @Test
+    void missingPortMatchesTheSchemeDefault() {
+        ServiceClientProperties properties = new ServiceClientProperties();
+        properties.getRoutes().put("gateway", route("http://gateway", 3));
+        properties.getRoutes().put("payments", route("https://payments.example.com", 4));
+        ServiceRoutes routes = new ServiceRoutes(properties, new SimpleMeterRegistry());
+
+        ServiceRoutes.Route gateway = routes.resolve(URI.create("http://gateway:80/api/auth/login"));
+        assertEquals("gateway", gateway.getName());
+        assertEquals(3, gateway.getMaxConcurrentCalls());
+        assertEquals("payments", routes.resolve(URI.create("https://payments.example.com:443/orders")).getName());
+        // Same host on another port is a different service with the default settings
+        ServiceRoutes.Route otherPort = routes.resolve(URI.create("http://gateway:8080/"));
+        assertNotSame(gateway, otherPort);
+        assertEquals(properties.getMaxConcurrentCalls(), otherPort.getMaxConcurrentCalls());
+    }
+
+    @Test
+    void unconfiguredHostGetsOneDefaultRoute() {
+        ServiceClientProperties properties = new ServiceClientProperties();
+        properties.setMaxConcurrentCalls(11);
+        properties.getRoutes().put("student-service", route("http://localhost:8081", 5));
+        ServiceRoutes routes = new ServiceRoutes(properties, new SimpleMeterRegistry());
+
+        ServiceRoutes.Route other = routes.resolve(URI.create("http://notification:8085/api/notify"));
+        assertEquals("notification", other.getName());
+        assertEquals(11, other.getMaxConcurrentCalls());
+        assertSame(other, routes.resolve(URI.create("http://notification:8085/api/other")));
+        assertEquals(1, routes.configuredRoutes().size());
+    }
+
+    @Test
+    void routesPointingAtTheSameHostAreRejected() {
+        ServiceClientProperties properties = new ServiceClientProperties();
+        properties.getRoutes().put("gateway", route("http://localhost:8080", 5));
+        properties.getRoutes().put("auth-service", route("http://localhost:8080/api/auth", 5));
+
+        assertThrows(IllegalStateException.class, () -> new ServiceRoutes(properties, new SimpleMeterRegistry()));
+    }
+
+    static ServiceClientProperties.Route route(String url, int maxConcurrentCalls) {
+        ServiceClientProperties.Route route = new ServiceClientProperties.Route();
+        route.setUrl(url);
+        route.setMaxConcurrentCalls(maxConcurrentCalls);
+        return route;
+    }
+}
@@ -1,6 +1,8 @@
 package com.school.studentservice.controller;
 
 import com.school.studentservice.dto.HomeworkDTO;
+import com.school.studentservice.dto.HomeworkFilter;
+import com.school.studentservice.dto.HomeworkQueryPage;
 import com.school.studentservice.model.Homework;
 import com.school.studentservice.service.HomeworkService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -351,4 +353,18 @@ public class HomeworkController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Query homework by any combination of filters, one page at a time.
+     * Pass the returned nextCursor to fetch the following page.
+     */
+    @GetMapping("/query")
+    public ResponseEntity<HomeworkQueryPage> queryHomework(
+            HomeworkFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) List<String> fields) {
+        // Invalid cursors and unknown fields surface as 400 from the exception handler
+        return ResponseEntity.ok(homeworkService.queryHomework(filter, cursor, size, fields));
+    }
+}
@@ -1,13 +1,21 @@
 package com.school.studentservice.controller;
 
+import com.school.studentservice.dto.RosterEntry;
+import com.school.studentservice.dto.StudentContactDTO;
 import com.school.studentservice.dto.StudentDTO;
+import com.school.studentservice.dto.StudentImportResult;
+import com.school.studentservice.dto.StudentSearchPage;
 import com.school.studentservice.service.StudentService;
+import com.school.studentservice.service.bulk.StudentImportService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +26,9 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentImportService studentImportService;
+
     @GetMapping
     public ResponseEntity<List<StudentDTO>> getAllStudents() {
         List<StudentDTO> students = studentService.getAllStudents();
@@ -48,6 +59,19 @@ public class StudentController {
         return ResponseEntity.ok(students);
     }
 
+    @GetMapping("/class/{classId}/roster")
+    public ResponseEntity<List<RosterEntry>> getClassRoster(@PathVariable Long classId,
+                                                            @RequestParam(required = false) Long academicYearId) {
+        return ResponseEntity.ok(studentService.getClassRoster(classId, null, academicYearId));
+    }
+
+    @GetMapping("/class/{classId}/section/{section}")
+    public ResponseEntity<List<RosterEntry>> getClassSectionRoster(@PathVariable Long classId,
+                                                                   @PathVariable String section,
+                                                                   @RequestParam(required = false) Long academicYearId) {
+        return ResponseEntity.ok(studentService.getClassRoster(classId, section, academicYearId));
+    }
+
     @GetMapping("/academic-year/{academicYearId}")
     public ResponseEntity<List<StudentDTO>> getStudentsByAcademicYear(@PathVariable Long academicYearId) {
         List<StudentDTO> students = studentService.getStudentsByAcademicYear(academicYearId);
@@ -67,6 +91,13 @@ public class StudentController {
         return ResponseEntity.ok(students);
     }
 
+    @GetMapping("/search/ranked")
+    public ResponseEntity<StudentSearchPage> searchStudents(@RequestParam String q,
+                                                            @RequestParam(required = false) Integer page,
+                                                            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(studentService.searchStudents(q, page, size));
+    }
+
     @GetMapping("/parent/email/{parentEmail}")
     public ResponseEntity<List<StudentDTO>> getStudentsByParentEmail(@PathVariable String parentEmail) {
         List<StudentDTO> students = studentService.getStudentsByParentEmail(parentEmail);
@@ -85,6 +116,21 @@ public class StudentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<StudentImportResult> importStudentsCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(studentImportService.importCsv(body));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StudentImportResult> importStudentsJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(studentImportService.importJson(body));
+    }
+
+    @PostMapping("/bulk/contacts")
+    public ResponseEntity<List<StudentContactDTO>> getStudentContacts(@RequestBody List<Long> studentIds) {
+        return ResponseEntity.ok(studentService.getStudentContacts(studentIds));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<StudentDTO> updateStudent(@PathVariable Long id, 
                                                    @Valid @RequestBody StudentDTO studentDTO) {
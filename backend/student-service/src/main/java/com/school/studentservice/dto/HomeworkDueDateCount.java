@@ -0,0 +1,18 @@
+package com.school.studentservice.dto;
+
+import com.school.studentservice.model.Homework;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the per-teacher homework aggregate: how many homework items
+ * share a status and due date.
+ */
+public interface HomeworkDueDateCount {
+
+    Homework.Status getStatus();
+
+    LocalDate getDueDate();
+
+    Long getHomeworkCount();
+}
@@ -0,0 +1,132 @@
+package com.school.studentservice.dto;
+
+import com.school.studentservice.model.Homework;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Optional filters for the homework query endpoint, bound from request
+ * parameters. Filters that are left unset do not restrict the result.
+ */
+public class HomeworkFilter {
+
+    private Long teacherId;
+
+    private Long subjectId;
+
+    private Long classId;
+
+    private String section;
+
+    private Long academicYearId;
+
+    private List<Homework.Status> status;
+
+    private Homework.Priority priority;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate assignedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate assignedTo;
+
+    // Constructors
+    public HomeworkFilter() {}
+
+    // Getters and Setters
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public void setTeacherId(Long teacherId) {
+        this.teacherId = teacherId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public void setSection(String section) {
+        this.section = section;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public void setAcademicYearId(Long academicYearId) {
+        this.academicYearId = academicYearId;
+    }
+
+    public List<Homework.Status> getStatus() {
+        return status;
+    }
+
+    public void setStatus(List<Homework.Status> status) {
+        this.status = status;
+    }
+
+    public Homework.Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Homework.Priority priority) {
+        this.priority = priority;
+    }
+
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    public void setDueFrom(LocalDate dueFrom) {
+        this.dueFrom = dueFrom;
+    }
+
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+
+    public void setDueTo(LocalDate dueTo) {
+        this.dueTo = dueTo;
+    }
+
+    public LocalDate getAssignedFrom() {
+        return assignedFrom;
+    }
+
+    public void setAssignedFrom(LocalDate assignedFrom) {
+        this.assignedFrom = assignedFrom;
+    }
+
+    public LocalDate getAssignedTo() {
+        return assignedTo;
+    }
+
+    public void setAssignedTo(LocalDate assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+}
@@ -0,0 +1,51 @@
+package com.school.studentservice.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of the homework query endpoint. Each item holds only the
+ * requested fields; nextCursor is null on the last page.
+ */
+public class HomeworkQueryPage {
+
+    private int size;
+
+    private List<Map<String, Object>> content;
+
+    private String nextCursor;
+
+    // Constructors
+    public HomeworkQueryPage() {}
+
+    public HomeworkQueryPage(int size, List<Map<String, Object>> content, String nextCursor) {
+        this.size = size;
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public List<Map<String, Object>> getContent() {
+        return content;
+    }
+
+    public void setContent(List<Map<String, Object>> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,70 @@
+package com.school.studentservice.dto;
+
+/**
+ * One active student in a class roster. Entries are shared by every reader
+ * of the roster cache, so they are read-only.
+ */
+public class RosterEntry {
+
+    private final Long id;
+
+    private final String studentId;
+
+    private final String name;
+
+    private final String section;
+
+    private final Long academicYearId;
+
+    private final String parentName;
+
+    private final String parentPhone;
+
+    private final String parentEmail;
+
+    // Constructors
+    public RosterEntry(Long id, String studentId, String name, String section, Long academicYearId,
+                       String parentName, String parentPhone, String parentEmail) {
+        this.id = id;
+        this.studentId = studentId;
+        this.name = name;
+        this.section = section;
+        this.academicYearId = academicYearId;
+        this.parentName = parentName;
+        this.parentPhone = parentPhone;
+        this.parentEmail = parentEmail;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public Long getAcademicYearId() {
+        return academicYearId;
+    }
+
+    public String getParentName() {
+        return parentName;
+    }
+
+    public String getParentPhone() {
+        return parentPhone;
+    }
+
+    public String getParentEmail() {
+        return parentEmail;
+    }
+}
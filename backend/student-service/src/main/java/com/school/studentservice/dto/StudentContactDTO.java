@@ -0,0 +1,93 @@
+package com.school.studentservice.dto;
+
+/**
+ * Contact fields other services need to notify a student's parent, without
+ * the rest of StudentDTO.
+ */
+public class StudentContactDTO {
+
+    private Long studentId;
+
+    private String studentName;
+
+    private String parentName;
+
+    private String parentPhone;
+
+    private String parentEmail;
+
+    private Long classId;
+
+    private String className;
+
+    // Constructors
+    public StudentContactDTO() {}
+
+    public StudentContactDTO(Long studentId, String studentName, String parentName, String parentPhone,
+                             String parentEmail, Long classId, String className) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.parentName = parentName;
+        this.parentPhone = parentPhone;
+        this.parentEmail = parentEmail;
+        this.classId = classId;
+        this.className = className;
+    }
+
+    // Getters and Setters
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+
+    public String getParentName() {
+        return parentName;
+    }
+
+    public void setParentName(String parentName) {
+        this.parentName = parentName;
+    }
+
+    public String getParentPhone() {
+        return parentPhone;
+    }
+
+    public void setParentPhone(String parentPhone) {
+        this.parentPhone = parentPhone;
+    }
+
+    public String getParentEmail() {
+        return parentEmail;
+    }
+
+    public void setParentEmail(String parentEmail) {
+        this.parentEmail = parentEmail;
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public void setClassId(Long classId) {
+        this.classId = classId;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+}
@@ -4,6 +4,7 @@ import com.school.studentservice.model.Student;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
 
 public class StudentDTO {
@@ -41,6 +42,9 @@ public class StudentDTO {
     @NotNull(message = "Class ID is required")
     private Long classId;
     
+    @Size(max = 10, message = "Section must not exceed 10 characters")
+    private String section;
+    
     @NotNull(message = "Academic year ID is required")
     private Long academicYearId;
     
@@ -71,6 +75,7 @@ public class StudentDTO {
         this.primaryContact = "father"; // Default to father
         this.primaryContactPhone = student.getParentPhone(); // Default to parent phone
         this.classId = student.getClassId();
+        this.section = student.getSection();
         this.academicYearId = student.getAcademicYearId();
         this.admissionDate = student.getAdmissionDate();
         this.isActive = student.getIsActive();
@@ -115,6 +120,7 @@ public class StudentDTO {
         student.setParentPhone(this.parentPhone);
         student.setParentEmail(this.parentEmail);
         student.setClassId(this.classId);
+        student.setSection(this.section);
         student.setAcademicYearId(this.academicYearId);
         student.setAdmissionDate(this.admissionDate);
         student.setIsActive(this.isActive);
@@ -276,6 +282,14 @@ public class StudentDTO {
         this.className = computeClassName();
     }
     
+    public String getSection() {
+        return section;
+    }
+    
+    public void setSection(String section) {
+        this.section = section;
+    }
+    
     public Long getAcademicYearId() {
         return academicYearId;
     }
@@ -0,0 +1,100 @@
+package com.school.studentservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StudentImportResult {
+    
+    private int totalRows;
+    
+    private int imported;
+    
+    private int failed;
+    
+    private long durationMillis;
+    
+    private List<RowError> errors = new ArrayList<>();
+    
+    // Getters and Setters
+    public int getTotalRows() {
+        return totalRows;
+    }
+    
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+    
+    public int getImported() {
+        return imported;
+    }
+    
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+    
+    public static class RowError {
+        
+        // 1-based data row; the CSV header is not counted
+        private int row;
+        
+        private String studentId;
+        
+        private List<String> messages;
+        
+        public RowError() {}
+        
+        public RowError(int row, String studentId, List<String> messages) {
+            this.row = row;
+            this.studentId = studentId;
+            this.messages = messages;
+        }
+        
+        public int getRow() {
+            return row;
+        }
+        
+        public void setRow(int row) {
+            this.row = row;
+        }
+        
+        public String getStudentId() {
+            return studentId;
+        }
+        
+        public void setStudentId(String studentId) {
+            this.studentId = studentId;
+        }
+        
+        public List<String> getMessages() {
+            return messages;
+        }
+        
+        public void setMessages(List<String> messages) {
+            this.messages = messages;
+        }
+    }
+}
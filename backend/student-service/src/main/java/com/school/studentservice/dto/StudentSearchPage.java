@@ -0,0 +1,68 @@
+package com.school.studentservice.dto;
+
+import java.util.List;
+
+public class StudentSearchPage {
+    
+    private String query;
+    
+    private int page;
+    
+    private int size;
+    
+    private long totalMatches;
+    
+    private List<StudentDTO> content;
+    
+    // Constructors
+    public StudentSearchPage() {}
+    
+    public StudentSearchPage(String query, int page, int size, long totalMatches, List<StudentDTO> content) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+        this.totalMatches = totalMatches;
+        this.content = content;
+    }
+    
+    // Getters and Setters
+    public String getQuery() {
+        return query;
+    }
+    
+    public void setQuery(String query) {
+        this.query = query;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public void setPage(int page) {
+        this.page = page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public long getTotalMatches() {
+        return totalMatches;
+    }
+    
+    public void setTotalMatches(long totalMatches) {
+        this.totalMatches = totalMatches;
+    }
+    
+    public List<StudentDTO> getContent() {
+        return content;
+    }
+    
+    public void setContent(List<StudentDTO> content) {
+        this.content = content;
+    }
+}
@@ -54,6 +54,9 @@ public class Student {
     @Column(name = "class_id")
     private Long classId;
     
+    @Column(name = "section", length = 10)
+    private String section;
+    
     @Column(name = "academic_year_id")
     private Long academicYearId;
     
@@ -189,6 +192,14 @@ public class Student {
         this.classId = classId;
     }
     
+    public String getSection() {
+        return section;
+    }
+    
+    public void setSection(String section) {
+        this.section = section;
+    }
+    
     public Long getAcademicYearId() {
         return academicYearId;
     }
@@ -1,10 +1,12 @@
 package com.school.studentservice.model;
 
+import com.school.studentservice.service.homework.TeacherSubjectListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "teacher_subjects")
+@EntityListeners(TeacherSubjectListener.class)
 public class TeacherSubject {
     
     @Id
@@ -0,0 +1,76 @@
+package com.school.studentservice.repository;
+
+import com.school.studentservice.model.Homework;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs homework Specifications as projected, bounded queries: only the
+ * requested columns are selected and the result is ordered by
+ * (createdAt DESC, id DESC) with a row limit, so callers can page by keyset.
+ */
+@Repository
+public class HomeworkQueryRepository {
+
+    /** Homework properties that may be requested, in default output order. */
+    public static final List<String> FIELDS = List.of(
+            "id", "title", "description", "subjectId", "classId", "section", "teacherId", "academicYearId",
+            "assignedDate", "dueDate", "attachmentUrl", "attachmentName", "priority", "status",
+            "createdAt", "updatedAt");
+
+    private final EntityManager entityManager;
+
+    public HomeworkQueryRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Rows matching the specification, newest first. Each row maps property
+     * name to value; id and createdAt are always selected so the caller can
+     * build a cursor, even when not among the requested fields.
+     */
+    public List<Map<String, Object>> find(Specification<Homework> specification, List<String> fields, int limit) {
+        Set<String> selected = new LinkedHashSet<>(fields);
+        selected.add("id");
+        selected.add("createdAt");
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Homework> root = query.from(Homework.class);
+
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        for (String field : selected) {
+            selections.add(root.get(field).alias(field));
+        }
+        query.multiselect(selections);
+        query.where(specification.toPredicate(root, query, cb));
+        query.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : selected) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,22 @@
+package com.school.studentservice.repository;
+
+import com.school.studentservice.model.ParentAccountRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ParentAccountRequestRepository extends JpaRepository<ParentAccountRequest, Long> {
+    
+    @Query("SELECT r FROM ParentAccountRequest r WHERE r.status = :status AND r.nextAttemptAt <= :now ORDER BY r.id")
+    List<ParentAccountRequest> findDue(@Param("status") ParentAccountRequest.Status status,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+    
+    long countByStatus(ParentAccountRequest.Status status);
+}
@@ -0,0 +1,138 @@
+package com.school.studentservice.repository;
+
+import com.school.studentservice.model.Student;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Set-based lookups and JDBC batch inserts for bulk student import. Student
+ * uses IDENTITY generation, which stops Hibernate from batching inserts.
+ */
+@Repository
+public class StudentBatchRepository {
+
+    private static final String INSERT_STUDENT =
+            "INSERT INTO students (student_id, first_name, last_name, date_of_birth, gender, address, phone, email, " +
+            "parent_name, parent_phone, parent_email, class_id, section, academic_year_id, admission_date, is_active, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PARENT_ACCOUNT_REQUEST =
+            "INSERT INTO parent_account_outbox (student_id, phone, full_name, status, attempts, next_attempt_at, " +
+            "created_at, updated_at) SELECT id, ?, ?, 'PENDING', 0, ?, ?, ? FROM students WHERE student_id = ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public StudentBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Student IDs and emails from the given sets that are already taken, in
+     * one query. Both are returned lower-cased.
+     */
+    public ExistingStudents findExisting(Collection<String> studentIds, Collection<String> emails) {
+        Set<String> existingIds = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        if (studentIds.isEmpty() && emails.isEmpty()) {
+            return new ExistingStudents(existingIds, existingEmails);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", studentIds.isEmpty() ? List.of("") : studentIds)
+                .addValue("emails", emails.isEmpty() ? List.of("") : emails);
+        jdbcTemplate.query(
+                "SELECT student_id, email FROM students WHERE student_id IN (:ids) OR email IN (:emails)",
+                params,
+                rs -> {
+                    existingIds.add(rs.getString("student_id").toLowerCase(Locale.ROOT));
+                    String email = rs.getString("email");
+                    if (email != null) {
+                        existingEmails.add(email.toLowerCase(Locale.ROOT));
+                    }
+                });
+        return new ExistingStudents(existingIds, existingEmails);
+    }
+
+    public Set<Long> findExistingClassIds(Collection<Long> classIds) {
+        return findExistingIds("classes", classIds);
+    }
+
+    public Set<Long> findExistingAcademicYearIds(Collection<Long> academicYearIds) {
+        return findExistingIds("academic_years", academicYearIds);
+    }
+
+    private Set<Long> findExistingIds(String table, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM " + table + " WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids), Long.class));
+    }
+
+    /**
+     * Inserts the given students as one JDBC batch.
+     */
+    public void batchInsert(List<Student> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_STUDENT, students, students.size(), (ps, student) -> {
+            ps.setString(1, student.getStudentId());
+            ps.setString(2, student.getFirstName());
+            ps.setString(3, student.getLastName());
+            ps.setDate(4, student.getDateOfBirth() != null ? Date.valueOf(student.getDateOfBirth()) : null);
+            ps.setString(5, student.getGender() != null ? student.getGender().name() : null);
+            ps.setString(6, student.getAddress());
+            ps.setString(7, student.getPhone());
+            ps.setString(8, student.getEmail());
+            ps.setString(9, student.getParentName());
+            ps.setString(10, student.getParentPhone());
+            ps.setString(11, student.getParentEmail());
+            ps.setObject(12, student.getClassId(), Types.BIGINT);
+            ps.setString(13, student.getSection());
+            ps.setObject(14, student.getAcademicYearId(), Types.BIGINT);
+            ps.setDate(15, student.getAdmissionDate() != null ? Date.valueOf(student.getAdmissionDate()) : null);
+            ps.setBoolean(16, !Boolean.FALSE.equals(student.getIsActive()));
+            ps.setTimestamp(17, now);
+            ps.setTimestamp(18, now);
+        });
+    }
+
+    /**
+     * Records parent account requests for students inserted in the current
+     * transaction, resolving each student's id by its student ID.
+     */
+    public void batchInsertParentAccountRequests(List<ParentAccountRow> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_PARENT_ACCOUNT_REQUEST, requests, requests.size(),
+                (ps, request) -> {
+                    ps.setString(1, request.phone());
+                    ps.setString(2, request.fullName());
+                    ps.setTimestamp(3, now);
+                    ps.setTimestamp(4, now);
+                    ps.setTimestamp(5, now);
+                    ps.setString(6, request.studentId());
+                });
+    }
+
+    public record ParentAccountRow(String studentId, String phone, String fullName) {
+    }
+
+    public record ExistingStudents(Set<String> studentIds, Set<String> emails) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.school.studentservice.repository;
+
+import com.school.studentservice.dto.RosterEntry;
+import com.school.studentservice.dto.StudentContactDTO;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads parent contact projections and class rosters straight from the
+ * students and classes tables, so notification fan-out and class-wide
+ * screens do not load full Student entities.
+ */
+@Repository
+public class StudentContactRepository {
+
+    private static final String FIND_CONTACTS =
+            "SELECT s.id, s.first_name, s.last_name, s.parent_name, s.parent_phone, s.parent_email, " +
+            "s.class_id, c.class_name " +
+            "FROM students s LEFT JOIN classes c ON c.id = s.class_id " +
+            "WHERE s.id IN (:ids)";
+
+    private static final String FIND_ACTIVE_ROSTER =
+            "SELECT id, student_id, first_name, last_name, section, academic_year_id, parent_name, parent_phone, " +
+            "parent_email FROM students WHERE class_id = :classId AND is_active = TRUE " +
+            "ORDER BY first_name, last_name, id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public StudentContactRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Contacts for the given student ids in one query. Unknown ids are
+     * skipped; rows come back in no particular order.
+     */
+    public List<StudentContactDTO> findContacts(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(FIND_CONTACTS, new MapSqlParameterSource("ids", ids), (rs, rowNum) ->
+                new StudentContactDTO(
+                        rs.getLong("id"),
+                        fullName(rs.getString("first_name"), rs.getString("last_name")),
+                        rs.getString("parent_name"),
+                        rs.getString("parent_phone"),
+                        rs.getString("parent_email"),
+                        rs.getObject("class_id", Long.class),
+                        rs.getString("class_name")));
+    }
+
+    /**
+     * Active students of a class across all sections and years, ordered by name.
+     */
+    public List<RosterEntry> findActiveRoster(Long classId) {
+        return jdbcTemplate.query(FIND_ACTIVE_ROSTER, new MapSqlParameterSource("classId", classId), (rs, rowNum) ->
+                new RosterEntry(
+                        rs.getLong("id"),
+                        rs.getString("student_id"),
+                        fullName(rs.getString("first_name"), rs.getString("last_name")),
+                        rs.getString("section"),
+                        rs.getObject("academic_year_id", Long.class),
+                        rs.getString("parent_name"),
+                        rs.getString("parent_phone"),
+                        rs.getString("parent_email")));
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        if (lastName == null || lastName.isBlank()) {
+            return firstName;
+        }
+        return firstName == null ? lastName : firstName + " " + lastName;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,8 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     
     Optional<Student> findByStudentId(String studentId);
     
+    List<Student> findByStudentIdIn(Collection<String> studentIds);
+    
     List<Student> findByClassId(Long classId);
     
     List<Student> findByAcademicYearId(Long academicYearId);
@@ -11,6 +11,8 @@ import java.util.List;
 @Repository
 public interface TeacherSubjectRepository extends JpaRepository<TeacherSubject, Long> {
     
+    List<TeacherSubject> findByIsActiveTrue();
+    
     List<TeacherSubject> findByTeacherIdAndIsActiveTrue(Long teacherId);
     
     List<TeacherSubject> findBySubjectIdAndIsActiveTrue(Long subjectId);
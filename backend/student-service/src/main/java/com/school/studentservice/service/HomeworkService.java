@@ -1,17 +1,26 @@
 package com.school.studentservice.service;
 
 import com.school.studentservice.dto.HomeworkDTO;
+import com.school.studentservice.dto.HomeworkFilter;
+import com.school.studentservice.dto.HomeworkQueryPage;
 import com.school.studentservice.model.Homework;
-import com.school.studentservice.model.TeacherSubject;
+import com.school.studentservice.repository.HomeworkQueryRepository;
 import com.school.studentservice.repository.HomeworkRepository;
-import com.school.studentservice.repository.TeacherSubjectRepository;
+import com.school.studentservice.service.homework.HomeworkCursor;
+import com.school.studentservice.service.homework.HomeworkSpecifications;
+import com.school.studentservice.service.homework.HomeworkStatisticsEngine;
+import com.school.studentservice.service.homework.TeacherAuthorizationMatrix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,15 +28,25 @@ public class HomeworkService {
     
     private static final Logger logger = LoggerFactory.getLogger(HomeworkService.class);
     
+    private static final int DEFAULT_QUERY_PAGE_SIZE = 20;
+    private static final int MAX_QUERY_PAGE_SIZE = 100;
+    
     @Autowired
     private HomeworkRepository homeworkRepository;
     
     @Autowired
-    private TeacherSubjectRepository teacherSubjectRepository;
+    private HomeworkQueryRepository homeworkQueryRepository;
+    
+    @Autowired
+    private TeacherAuthorizationMatrix teacherAuthorizationMatrix;
+    
+    @Autowired
+    private HomeworkStatisticsEngine homeworkStatisticsEngine;
     
     /**
      * Create homework assignment (with teacher authorization)
      */
+    @Transactional
     public HomeworkDTO createHomework(HomeworkDTO homeworkDTO) {
         logger.info("Creating homework: {}", homeworkDTO.getTitle());
         
@@ -42,6 +61,7 @@ public class HomeworkService {
         homework.setUpdatedAt(java.time.LocalDateTime.now());
         
         homework = homeworkRepository.save(homework);
+        homeworkStatisticsEngine.added(homework);
         logger.info("Homework created successfully with ID: {}", homework.getId());
         
         return new HomeworkDTO(homework);
@@ -50,6 +70,7 @@ public class HomeworkService {
     /**
      * Update homework assignment (with teacher authorization)
      */
+    @Transactional
     public HomeworkDTO updateHomework(Long homeworkId, HomeworkDTO homeworkDTO) {
         logger.info("Updating homework: {}", homeworkId);
         
@@ -67,6 +88,8 @@ public class HomeworkService {
             throw new RuntimeException("Teacher is not authorized to assign homework for this subject, class, and section");
         }
         
+        HomeworkStatisticsEngine.HomeworkState before = HomeworkStatisticsEngine.HomeworkState.of(existingHomework);
+        
         // Update fields
         existingHomework.setTitle(homeworkDTO.getTitle());
         existingHomework.setDescription(homeworkDTO.getDescription());
@@ -82,6 +105,7 @@ public class HomeworkService {
         existingHomework.setUpdatedAt(java.time.LocalDateTime.now());
         
         existingHomework = homeworkRepository.save(existingHomework);
+        homeworkStatisticsEngine.changed(before, existingHomework);
         logger.info("Homework updated successfully: {}", homeworkId);
         
         return new HomeworkDTO(existingHomework);
@@ -191,6 +215,7 @@ public class HomeworkService {
     /**
      * Delete homework (with teacher authorization)
      */
+    @Transactional
     public void deleteHomework(Long homeworkId, Long teacherId) {
         logger.info("Deleting homework: {} by teacher: {}", homeworkId, teacherId);
         
@@ -203,12 +228,14 @@ public class HomeworkService {
         }
         
         homeworkRepository.delete(homework);
+        homeworkStatisticsEngine.removed(HomeworkStatisticsEngine.HomeworkState.of(homework));
         logger.info("Homework deleted successfully: {}", homeworkId);
     }
     
     /**
      * Archive homework (with teacher authorization)
      */
+    @Transactional
     public HomeworkDTO archiveHomework(Long homeworkId, Long teacherId) {
         logger.info("Archiving homework: {} by teacher: {}", homeworkId, teacherId);
         
@@ -220,10 +247,12 @@ public class HomeworkService {
             throw new RuntimeException("Teacher is not authorized to archive this homework");
         }
         
+        HomeworkStatisticsEngine.HomeworkState before = HomeworkStatisticsEngine.HomeworkState.of(homework);
         homework.setStatus(Homework.Status.ARCHIVED);
         homework.setUpdatedAt(java.time.LocalDateTime.now());
         
         homework = homeworkRepository.save(homework);
+        homeworkStatisticsEngine.changed(before, homework);
         logger.info("Homework archived successfully: {}", homeworkId);
         
         return new HomeworkDTO(homework);
@@ -232,6 +261,7 @@ public class HomeworkService {
     /**
      * Complete homework (with teacher authorization)
      */
+    @Transactional
     public HomeworkDTO completeHomework(Long homeworkId, Long teacherId) {
         logger.info("Completing homework: {} by teacher: {}", homeworkId, teacherId);
         
@@ -243,10 +273,12 @@ public class HomeworkService {
             throw new RuntimeException("Teacher is not authorized to complete this homework");
         }
         
+        HomeworkStatisticsEngine.HomeworkState before = HomeworkStatisticsEngine.HomeworkState.of(homework);
         homework.setStatus(Homework.Status.COMPLETED);
         homework.setUpdatedAt(java.time.LocalDateTime.now());
         
         homework = homeworkRepository.save(homework);
+        homeworkStatisticsEngine.changed(before, homework);
         logger.info("Homework completed successfully: {}", homeworkId);
         
         return new HomeworkDTO(homework);
@@ -256,19 +288,13 @@ public class HomeworkService {
      * Get homework statistics for a teacher
      */
     public HomeworkStatistics getHomeworkStatistics(Long teacherId) {
-        HomeworkStatistics stats = new HomeworkStatistics();
-        
-        stats.setTotalHomework(homeworkRepository.countByTeacherId(teacherId));
-        stats.setActiveHomework(homeworkRepository.countActiveByTeacherId(teacherId));
-        
-        List<Homework> overdueHomework = homeworkRepository.findOverdueHomework(LocalDate.now());
-        stats.setOverdueHomework((long) overdueHomework.size());
-        
-        LocalDate today = LocalDate.now();
-        LocalDate nextWeek = today.plusDays(7);
-        List<Homework> upcomingHomework = homeworkRepository.findUpcomingHomework(today, nextWeek);
-        stats.setUpcomingHomework((long) upcomingHomework.size());
+        HomeworkStatisticsEngine.Counts counts = homeworkStatisticsEngine.getCounts(teacherId, LocalDate.now());
         
+        HomeworkStatistics stats = new HomeworkStatistics();
+        stats.setTotalHomework(counts.total());
+        stats.setActiveHomework(counts.active());
+        stats.setOverdueHomework(counts.overdue());
+        stats.setUpcomingHomework(counts.upcoming());
         return stats;
     }
     
@@ -276,31 +302,21 @@ public class HomeworkService {
      * Check if teacher is authorized to assign homework for the given subject, class, and section
      */
     private boolean isTeacherAuthorized(Long teacherId, Long subjectId, Long classId, String section) {
-        List<TeacherSubject> teacherSubjects = teacherSubjectRepository
-                .findByTeacherIdAndSubjectIdAndClassIdAndSectionAndIsActiveTrue(teacherId, subjectId, classId, section);
-        return !teacherSubjects.isEmpty();
+        return teacherAuthorizationMatrix.isAuthorized(teacherId, subjectId, classId, section);
     }
     
     /**
      * Get subjects that a teacher can assign homework for
      */
     public List<Long> getTeacherSubjects(Long teacherId) {
-        List<TeacherSubject> teacherSubjects = teacherSubjectRepository.findByTeacherIdAndIsActiveTrue(teacherId);
-        return teacherSubjects.stream()
-                .map(TeacherSubject::getSubjectId)
-                .distinct()
-                .collect(Collectors.toList());
+        return teacherAuthorizationMatrix.getSubjectIds(teacherId);
     }
     
     /**
      * Get classes that a teacher can assign homework for
      */
     public List<Long> getTeacherClasses(Long teacherId) {
-        List<TeacherSubject> teacherSubjects = teacherSubjectRepository.findByTeacherIdAndIsActiveTrue(teacherId);
-        return teacherSubjects.stream()
-                .map(TeacherSubject::getClassId)
-                .distinct()
-                .collect(Collectors.toList());
+        return teacherAuthorizationMatrix.getClassIds(teacherId);
     }
     
     /**
@@ -373,4 +389,35 @@ public class HomeworkService {
     public List<Homework> getHomeworkBySubjectClassSectionAndAcademicYear(Long subjectId, Long classId, String section, Long academicYearId) {
         return homeworkRepository.findBySubjectIdAndClassIdAndSectionAndAcademicYearIdOrderByCreatedAtDesc(subjectId, classId, section, academicYearId);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * One page of homework matching any combination of filters, newest first.
+     * The cursor is the nextCursor of the previous page; fields limits the
+     * properties returned (all of them when empty).
+     */
+    public HomeworkQueryPage queryHomework(HomeworkFilter filter, String cursor, Integer size, List<String> fields) {
+        List<String> requested = fields == null || fields.isEmpty() ? HomeworkQueryRepository.FIELDS : fields;
+        for (String field : requested) {
+            if (!HomeworkQueryRepository.FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown homework field: " + field);
+            }
+        }
+        int pageSize = size == null || size <= 0 ? DEFAULT_QUERY_PAGE_SIZE : Math.min(size, MAX_QUERY_PAGE_SIZE);
+        
+        Specification<Homework> specification = HomeworkSpecifications.matching(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            specification = specification.and(HomeworkSpecifications.after(HomeworkCursor.decode(cursor)));
+        }
+        
+        // One extra row tells whether there is a next page without a count query
+        List<Map<String, Object>> rows = homeworkQueryRepository.find(specification, requested, pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Map<String, Object> last = rows.get(pageSize - 1);
+            nextCursor = new HomeworkCursor((LocalDateTime) last.get("createdAt"), (Long) last.get("id")).encode();
+        }
+        rows.forEach(row -> row.keySet().retainAll(requested));
+        return new HomeworkQueryPage(pageSize, rows, nextCursor);
+    }
+}
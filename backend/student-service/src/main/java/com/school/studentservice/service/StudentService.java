@@ -1,15 +1,31 @@
 package com.school.studentservice.service;
 
+import com.school.studentservice.dto.RosterEntry;
+import com.school.studentservice.dto.StudentContactDTO;
 import com.school.studentservice.dto.StudentDTO;
+import com.school.studentservice.dto.StudentSearchPage;
 import com.school.studentservice.exception.DuplicateStudentException;
 import com.school.studentservice.exception.StudentNotFoundException;
 import com.school.studentservice.model.Student;
+import com.school.studentservice.repository.StudentContactRepository;
 import com.school.studentservice.repository.StudentRepository;
+import com.school.studentservice.service.provisioning.ParentAccountOutbox;
+import com.school.studentservice.service.roster.ClassRosterCache;
+import com.school.studentservice.service.search.StudentSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,7 +34,25 @@ public class StudentService {
     private StudentRepository studentRepository;
     
     @Autowired
-    private UserService userService;
+    private ParentAccountOutbox parentAccountOutbox;
+    
+    @Autowired
+    private StudentSearchIndex studentSearchIndex;
+    
+    @Autowired
+    private StudentContactRepository studentContactRepository;
+    
+    @Autowired
+    private ClassRosterCache classRosterCache;
+    
+    @Value("${student.contacts.max-ids:1000}")
+    private int maxContactLookupIds;
+    
+    @Value("${student.contacts.chunk-size:500}")
+    private int contactLookupChunkSize;
+    
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
 
     public List<StudentDTO> getAllStudents() {
         return studentRepository.findAll().stream()
@@ -57,11 +91,79 @@ public class StudentService {
     }
 
     public List<StudentDTO> searchStudentsByName(String name) {
-        return studentRepository.findByNameContaining(name).stream()
+        if (!studentSearchIndex.isReady()) {
+            // Index still building at startup
+            return studentRepository.findByNameContaining(name).stream()
+                    .map(StudentDTO::new)
+                    .collect(Collectors.toList());
+        }
+        StudentSearchIndex.SearchHits hits = studentSearchIndex.search(name, 0, Integer.MAX_VALUE);
+        return loadInOrder(hits.getStudentIds());
+    }
+
+    public StudentSearchPage searchStudents(String query, Integer page, Integer size) {
+        int pageNumber = page != null && page > 0 ? page : 0;
+        int pageSize = size == null || size <= 0 ? DEFAULT_SEARCH_PAGE_SIZE : Math.min(size, MAX_SEARCH_PAGE_SIZE);
+        if (!studentSearchIndex.isReady()) {
+            List<StudentDTO> matches = searchStudentsByName(query);
+            int from = (int) Math.min((long) pageNumber * pageSize, matches.size());
+            int to = Math.min(from + pageSize, matches.size());
+            return new StudentSearchPage(query, pageNumber, pageSize, matches.size(), matches.subList(from, to));
+        }
+        StudentSearchIndex.SearchHits hits = studentSearchIndex.search(query, pageNumber, pageSize);
+        return new StudentSearchPage(query, pageNumber, pageSize, hits.getTotalMatches(),
+                loadInOrder(hits.getStudentIds()));
+    }
+
+    private List<StudentDTO> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Student> byId = studentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(StudentDTO::new)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Parent contact details for a batch of students, one IN query per chunk
+     * of ids. Results follow the order of the requested ids; duplicates and
+     * unknown ids are dropped.
+     */
+    public List<StudentContactDTO> getStudentContacts(List<Long> studentIds) {
+        if (studentIds == null || studentIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(studentIds));
+        ids.removeIf(Objects::isNull);
+        if (ids.size() > maxContactLookupIds) {
+            throw new IllegalArgumentException("At most " + maxContactLookupIds
+                    + " student ids can be looked up at once, got " + ids.size());
+        }
+        Map<Long, StudentContactDTO> byId = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += contactLookupChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + contactLookupChunkSize, ids.size()));
+            for (StudentContactDTO contact : studentContactRepository.findContacts(chunk)) {
+                byId.put(contact.getStudentId(), contact);
+            }
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Compact roster of a class's active students from the roster cache.
+     * Section and academic year are optional filters.
+     */
+    public List<RosterEntry> getClassRoster(Long classId, String section, Long academicYearId) {
+        return classRosterCache.getRoster(classId, section, academicYearId);
+    }
+
     public List<StudentDTO> getStudentsByClassAndYear(Long classId, Long academicYearId) {
         return studentRepository.findByClassIdAndAcademicYearId(classId, academicYearId).stream()
                 .map(StudentDTO::new)
@@ -80,6 +182,7 @@ public class StudentService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public StudentDTO createStudent(StudentDTO studentDTO) {
         // Check for duplicate student ID
         if (studentRepository.existsByStudentId(studentDTO.getStudentId())) {
@@ -110,26 +213,16 @@ public class StudentService {
         
         Student student = studentDTO.toEntity();
         Student savedStudent = studentRepository.save(student);
+        studentSearchIndex.indexAfterCommit(savedStudent);
+        classRosterCache.invalidate(savedStudent.getClassId());
         
-        // Create user account for parent login
-        if (studentDTO.getPrimaryContactPhone() != null && !studentDTO.getPrimaryContactPhone().trim().isEmpty()) {
-            String parentName = studentDTO.getParentName() != null ? studentDTO.getParentName() : 
-                               "Parent of " + studentDTO.getFirstName() + " " + studentDTO.getLastName();
-            
-            boolean userCreated = userService.createParentUser(
-                studentDTO.getPrimaryContactPhone().trim(),
-                parentName,
-                savedStudent.getId()
-            );
-            
-            if (!userCreated) {
-                System.err.println("Warning: Failed to create user account for parent: " + studentDTO.getPrimaryContactPhone());
-            }
-        }
+        // Parent login account is created asynchronously from the outbox
+        parentAccountOutbox.enqueue(savedStudent.getId(), studentDTO);
         
         return new StudentDTO(savedStudent);
     }
 
+    @Transactional
     public StudentDTO updateStudent(Long id, StudentDTO studentDTO) {
         Student existingStudent = studentRepository.findById(id)
                 .orElseThrow(() -> new StudentNotFoundException(id));
@@ -147,6 +240,8 @@ public class StudentService {
             throw new DuplicateStudentException("email", studentDTO.getEmail());
         }
         
+        Long previousClassId = existingStudent.getClassId();
+        
         // Update fields
         existingStudent.setStudentId(studentDTO.getStudentId());
         existingStudent.setFirstName(studentDTO.getFirstName());
@@ -160,32 +255,41 @@ public class StudentService {
         existingStudent.setParentPhone(studentDTO.getParentPhone());
         existingStudent.setParentEmail(studentDTO.getParentEmail());
         existingStudent.setClassId(studentDTO.getClassId());
+        existingStudent.setSection(studentDTO.getSection());
         existingStudent.setAcademicYearId(studentDTO.getAcademicYearId());
         existingStudent.setAdmissionDate(studentDTO.getAdmissionDate());
         existingStudent.setIsActive(studentDTO.getIsActive());
         
         Student updatedStudent = studentRepository.save(existingStudent);
+        studentSearchIndex.indexAfterCommit(updatedStudent);
+        classRosterCache.invalidate(Arrays.asList(previousClassId, updatedStudent.getClassId()));
         return new StudentDTO(updatedStudent);
     }
 
+    @Transactional
     public void deleteStudent(Long id) {
-        if (!studentRepository.existsById(id)) {
-            throw new StudentNotFoundException(id);
-        }
-        studentRepository.deleteById(id);
+        Student student = studentRepository.findById(id)
+                .orElseThrow(() -> new StudentNotFoundException(id));
+        studentRepository.delete(student);
+        studentSearchIndex.removeAfterCommit(id);
+        classRosterCache.invalidate(student.getClassId());
     }
 
+    @Transactional
     public void deactivateStudent(Long id) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new StudentNotFoundException(id));
         student.setIsActive(false);
-        studentRepository.save(student);
+        studentSearchIndex.indexAfterCommit(studentRepository.save(student));
+        classRosterCache.invalidate(student.getClassId());
     }
 
+    @Transactional
     public void activateStudent(Long id) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new StudentNotFoundException(id));
         student.setIsActive(true);
-        studentRepository.save(student);
+        studentSearchIndex.indexAfterCommit(studentRepository.save(student));
+        classRosterCache.invalidate(student.getClassId());
     }
 } 
\ No newline at end of file
@@ -1,14 +1,19 @@
 package com.school.studentservice.service;
 
+import com.school.studentservice.model.ParentAccountRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -17,48 +22,83 @@ public class UserService {
     @Autowired
     private RestTemplate restTemplate;
     
+    @Value("${student.parent-accounts.auth-url:http://localhost:8080/api/auth/users/bulk}")
+    private String bulkUsersUrl;
+    
+    @Value("${student.parent-accounts.service-token:}")
+    private String serviceToken;
+    
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
     
     // Default password for all new users
     private static final String DEFAULT_PASSWORD = "password";
     
     /**
-     * Create a user account for a parent when a student is registered
-     * @param phoneNumber The phone number to use as username
-     * @param fullName The full name of the parent
-     * @param studentId The ID of the student
-     * @return true if user was created successfully, false otherwise
+     * Create parent login accounts on auth-service in one call.
+     * @param requests Parent account requests; the phone number is the username
+     * @return Result per username: status CREATED, EXISTS or FAILED and a message
+     * @throws RestClientException if auth-service could not be reached
      */
-    public boolean createParentUser(String phoneNumber, String fullName, Long studentId) {
-        try {
-            // Prepare the user data
+    @SuppressWarnings("unchecked")
+    public Map<String, ParentUserResult> createParentUsers(List<ParentAccountRequest> requests) {
+        // Every parent starts with the same default password, so one BCrypt hash serves the whole batch
+        String encodedPassword = passwordEncoder.encode(DEFAULT_PASSWORD);
+        
+        List<Map<String, Object>> users = new ArrayList<>(requests.size());
+        for (ParentAccountRequest request : requests) {
             Map<String, Object> userData = new HashMap<>();
-            userData.put("username", phoneNumber); // Use phone as username for easy login
-            userData.put("password", passwordEncoder.encode(DEFAULT_PASSWORD));
-            userData.put("email", phoneNumber + "@school.com"); // Generate a dummy email
-            userData.put("fullName", fullName);
+            userData.put("username", request.getPhone()); // Use phone as username for easy login
+            userData.put("password", encodedPassword);
+            userData.put("email", request.getPhone() + "@school.com"); // Generate a dummy email
+            userData.put("fullName", request.getFullName());
             userData.put("role", "PARENT");
             userData.put("userType", "PARENT");
-            userData.put("phone", phoneNumber); // Add phone field for mobile login
-            userData.put("studentId", studentId);
+            userData.put("phone", request.getPhone()); // Add phone field for mobile login
+            userData.put("studentId", request.getStudentId());
             userData.put("enabled", true);
-            
-            // Set headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            // Create HTTP entity
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(userData, headers);
-            
-            // Make the API call to auth service through gateway
-            String authServiceUrl = "http://localhost:8080/api/auth/users";
-            
-            restTemplate.postForEntity(authServiceUrl, request, Map.class);
-            
-            return true;
-        } catch (Exception e) {
-            System.err.println("Failed to create user account: " + e.getMessage());
-            return false;
+            users.add(userData);
+        }
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Service-Token", serviceToken); // auth-service only accepts bulk creation from services
+        HttpEntity<List<Map<String, Object>>> httpRequest = new HttpEntity<>(users, headers);
+        
+        // Auth service through gateway
+        Map<String, Object> response = restTemplate.postForObject(bulkUsersUrl, httpRequest, Map.class);
+        
+        Map<String, ParentUserResult> results = new HashMap<>();
+        if (response != null && response.get("results") instanceof List<?> items) {
+            for (Object item : items) {
+                Map<String, Object> result = (Map<String, Object>) item;
+                String username = (String) result.get("username");
+                if (username != null) {
+                    results.put(username, new ParentUserResult((String) result.get("status"), (String) result.get("message")));
+                }
+            }
+        }
+        return results;
+    }
+    
+    public static class ParentUserResult {
+        private final String status;
+        private final String message;
+        
+        public ParentUserResult(String status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+        
+        public String getStatus() {
+            return status;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public boolean isProvisioned() {
+            return "CREATED".equals(status) || "EXISTS".equals(status);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,427 @@
+package com.school.studentservice.service.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.school.studentservice.dto.StudentDTO;
+import com.school.studentservice.dto.StudentImportResult;
+import com.school.studentservice.model.Student;
+import com.school.studentservice.repository.StudentBatchRepository;
+import com.school.studentservice.repository.StudentRepository;
+import com.school.studentservice.service.provisioning.ParentAccountOutbox;
+import com.school.studentservice.service.roster.ClassRosterCache;
+import com.school.studentservice.service.search.StudentSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk student import from CSV or a JSON array.
+ *
+ * Input is read one row at a time and processed in chunks. Each chunk is
+ * converted and validated in parallel, checked for duplicates and missing
+ * class/academic year references with set-based queries, and inserted as a
+ * single JDBC batch in its own transaction. If a batch is rejected by the
+ * database the chunk is retried row by row so only the offending rows fail.
+ *
+ * Students with a primary contact phone get a parent account request in
+ * the provisioning outbox, written in the same transaction as the chunk.
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportService.class);
+
+    private static final Pattern EMAIL = Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
+    private static final Pattern PHONE = Pattern.compile("^\\+?[0-9][0-9 ()-]{5,18}[0-9]$");
+    private static final Pattern STUDENT_ID = Pattern.compile("^[A-Za-z0-9_/-]{1,20}$");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+
+    // CSV header (lower-cased, separators removed) to StudentDTO property
+    private static final Map<String, String> CSV_COLUMNS = Map.ofEntries(
+            Map.entry("studentid", "studentId"),
+            Map.entry("firstname", "firstName"),
+            Map.entry("lastname", "lastName"),
+            Map.entry("dateofbirth", "dateOfBirth"),
+            Map.entry("dob", "dateOfBirth"),
+            Map.entry("gender", "gender"),
+            Map.entry("address", "address"),
+            Map.entry("phone", "phone"),
+            Map.entry("email", "email"),
+            Map.entry("parentname", "parentName"),
+            Map.entry("parentphone", "parentPhone"),
+            Map.entry("parentemail", "parentEmail"),
+            Map.entry("primarycontactphone", "primaryContactPhone"),
+            Map.entry("classid", "classId"),
+            Map.entry("section", "section"),
+            Map.entry("academicyearid", "academicYearId"),
+            Map.entry("admissiondate", "admissionDate"),
+            Map.entry("isactive", "isActive"),
+            Map.entry("active", "isActive"));
+
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("studentId", "firstName", "lastName", "classId", "academicYearId");
+
+    private final StudentBatchRepository studentBatchRepository;
+    private final StudentRepository studentRepository;
+    private final StudentSearchIndex studentSearchIndex;
+    private final ClassRosterCache classRosterCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public StudentImportService(StudentBatchRepository studentBatchRepository,
+                                StudentRepository studentRepository,
+                                StudentSearchIndex studentSearchIndex,
+                                ClassRosterCache classRosterCache,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${student.import.chunk-size:500}") int chunkSize) {
+        this.studentBatchRepository = studentBatchRepository;
+        this.studentRepository = studentRepository;
+        this.studentSearchIndex = studentSearchIndex;
+        this.classRosterCache = classRosterCache;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public StudentImportResult importCsv(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+
+        String[] properties = new String[header.size()];
+        Set<String> present = new HashSet<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").toLowerCase(Locale.ROOT);
+            properties[i] = CSV_COLUMNS.get(NON_ALPHANUMERIC.matcher(name).replaceAll(""));
+            if (properties[i] != null) {
+                present.add(properties[i]);
+            }
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !present.contains(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing required columns: " + missing);
+        }
+
+        int[] rowNumber = {0};
+        return run(() -> {
+            List<String> fields = records.next();
+            if (fields == null) {
+                return null;
+            }
+            ObjectNode node = objectMapper.createObjectNode();
+            for (int i = 0; i < fields.size() && i < properties.length; i++) {
+                String value = fields.get(i).trim();
+                if (properties[i] != null && !value.isEmpty()) {
+                    node.put(properties[i], value);
+                }
+            }
+            return new ImportRow(++rowNumber[0], node);
+        });
+    }
+
+    public StudentImportResult importJson(InputStream input) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(input);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("JSON input must be an array of students");
+        }
+
+        int[] rowNumber = {0};
+        return run(() -> {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            rowNumber[0]++;
+            JsonNode node = parser.readValueAsTree();
+            return new ImportRow(rowNumber[0], node);
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    private StudentImportResult run(RowSource source) {
+        long started = System.currentTimeMillis();
+        StudentImportResult result = new StudentImportResult();
+        ImportState state = new ImportState();
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        while (true) {
+            ImportRow row;
+            try {
+                row = source.next();
+            } catch (IOException e) {
+                // Rows read so far are still imported; the rest of the input is unusable
+                result.getErrors().add(new StudentImportResult.RowError(state.rowsRead + 1, null,
+                        List.of("Malformed input, import stopped: " + e.getMessage())));
+                break;
+            }
+            if (row == null) {
+                break;
+            }
+            state.rowsRead++;
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, state, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, state, result);
+        }
+
+        result.setTotalRows(state.rowsRead);
+        result.setFailed(state.rowsRead - result.getImported());
+        result.setDurationMillis(System.currentTimeMillis() - started);
+        log.info("Imported {} of {} students in {} ms", result.getImported(), result.getTotalRows(),
+                result.getDurationMillis());
+        return result;
+    }
+
+    private void processChunk(List<ImportRow> chunk, ImportState state, StudentImportResult result) {
+        // Conversion and field validation are independent per row
+        chunk.parallelStream().forEach(this::convertAndValidate);
+
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (!row.errors.isEmpty()) {
+                continue;
+            }
+            StudentDTO student = row.student;
+            if (!state.studentIds.add(student.getStudentId().toLowerCase(Locale.ROOT))) {
+                row.errors.add("Duplicate student ID in import: " + student.getStudentId());
+            }
+            if (student.getEmail() != null && !state.emails.add(student.getEmail().toLowerCase(Locale.ROOT))) {
+                row.errors.add("Duplicate email in import: " + student.getEmail());
+            }
+            if (row.errors.isEmpty()) {
+                candidates.add(row);
+            }
+        }
+
+        checkAgainstDatabase(candidates);
+
+        List<ImportRow> valid = candidates.stream().filter(row -> row.errors.isEmpty()).toList();
+        List<String> inserted = insert(valid);
+        result.setImported(result.getImported() + inserted.size());
+        indexInserted(inserted);
+
+        for (ImportRow row : chunk) {
+            if (!row.errors.isEmpty()) {
+                result.getErrors().add(new StudentImportResult.RowError(row.rowNumber,
+                        row.student != null ? row.student.getStudentId() : null, row.errors));
+            }
+        }
+    }
+
+    private void convertAndValidate(ImportRow row) {
+        if (!row.source.isObject()) {
+            row.errors.add("Expected a JSON object");
+            return;
+        }
+        StudentDTO student;
+        try {
+            student = objectMapper.treeToValue(row.source, StudentDTO.class);
+        } catch (JsonMappingException e) {
+            String field = e.getPath().isEmpty() ? null : e.getPath().get(e.getPath().size() - 1).getFieldName();
+            row.errors.add(field != null ? "Invalid value for " + field : "Invalid row: " + e.getOriginalMessage());
+            return;
+        } catch (IOException e) {
+            row.errors.add("Invalid row: " + e.getMessage());
+            return;
+        }
+        row.student = student;
+
+        student.setStudentId(trimToNull(student.getStudentId()));
+        student.setFirstName(trimToNull(student.getFirstName()));
+        student.setLastName(trimToNull(student.getLastName()));
+        student.setEmail(trimToNull(student.getEmail()));
+        student.setParentEmail(trimToNull(student.getParentEmail()));
+        student.setPhone(trimToNull(student.getPhone()));
+        student.setParentPhone(trimToNull(student.getParentPhone()));
+        student.setPrimaryContactPhone(trimToNull(student.getPrimaryContactPhone()));
+        if (student.getIsActive() == null) {
+            student.setIsActive(true);
+        }
+
+        List<String> errors = row.errors;
+        if (student.getStudentId() == null) {
+            errors.add("Student ID is required");
+        } else if (!STUDENT_ID.matcher(student.getStudentId()).matches()) {
+            errors.add("Invalid student ID: " + student.getStudentId());
+        }
+        requireLength(errors, "First name", student.getFirstName(), 50, true);
+        requireLength(errors, "Last name", student.getLastName(), 50, true);
+        requireLength(errors, "Parent name", student.getParentName(), 100, false);
+        requireLength(errors, "Section", student.getSection(), 10, false);
+        if (student.getClassId() == null) {
+            errors.add("Class ID is required");
+        }
+        if (student.getAcademicYearId() == null) {
+            errors.add("Academic year ID is required");
+        }
+        checkPattern(errors, "email", student.getEmail(), EMAIL, 100);
+        checkPattern(errors, "parent email", student.getParentEmail(), EMAIL, 100);
+        checkPattern(errors, "phone", student.getPhone(), PHONE, 20);
+        checkPattern(errors, "parent phone", student.getParentPhone(), PHONE, 20);
+        checkPattern(errors, "primary contact phone", student.getPrimaryContactPhone(), PHONE, 20);
+    }
+
+    private void checkAgainstDatabase(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> studentIds = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<Long> classIds = new HashSet<>();
+        Set<Long> academicYearIds = new HashSet<>();
+        for (ImportRow row : rows) {
+            studentIds.add(row.student.getStudentId());
+            if (row.student.getEmail() != null) {
+                emails.add(row.student.getEmail());
+            }
+            classIds.add(row.student.getClassId());
+            academicYearIds.add(row.student.getAcademicYearId());
+        }
+
+        StudentBatchRepository.ExistingStudents existing = studentBatchRepository.findExisting(studentIds, emails);
+        Set<Long> knownClasses = studentBatchRepository.findExistingClassIds(classIds);
+        Set<Long> knownYears = studentBatchRepository.findExistingAcademicYearIds(academicYearIds);
+
+        for (ImportRow row : rows) {
+            StudentDTO student = row.student;
+            if (existing.studentIds().contains(student.getStudentId().toLowerCase(Locale.ROOT))) {
+                row.errors.add("Student ID already exists: " + student.getStudentId());
+            }
+            if (student.getEmail() != null && existing.emails().contains(student.getEmail().toLowerCase(Locale.ROOT))) {
+                row.errors.add("Email already exists: " + student.getEmail());
+            }
+            if (!knownClasses.contains(student.getClassId())) {
+                row.errors.add("Unknown class ID: " + student.getClassId());
+            }
+            if (!knownYears.contains(student.getAcademicYearId())) {
+                row.errors.add("Unknown academic year ID: " + student.getAcademicYearId());
+            }
+        }
+    }
+
+    /**
+     * @return student IDs that were inserted
+     */
+    private List<String> insert(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertRows(rows));
+            return rows.stream().map(row -> row.student.getStudentId()).toList();
+        } catch (DataAccessException e) {
+            log.warn("Batch insert of {} students failed, retrying row by row: {}", rows.size(), e.getMessage());
+        }
+
+        List<String> inserted = new ArrayList<>();
+        for (ImportRow row : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertRows(List.of(row)));
+                inserted.add(row.student.getStudentId());
+            } catch (DataAccessException e) {
+                row.errors.add("Could not insert: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+        return inserted;
+    }
+
+    private void insertRows(List<ImportRow> rows) {
+        studentBatchRepository.batchInsert(rows.stream().map(row -> row.student.toEntity()).toList());
+
+        List<StudentBatchRepository.ParentAccountRow> parentAccounts = new ArrayList<>();
+        for (ImportRow row : rows) {
+            String phone = ParentAccountOutbox.primaryContactPhone(row.student);
+            if (phone != null) {
+                parentAccounts.add(new StudentBatchRepository.ParentAccountRow(row.student.getStudentId(), phone,
+                        ParentAccountOutbox.parentDisplayName(row.student)));
+            }
+        }
+        studentBatchRepository.batchInsertParentAccountRequests(parentAccounts);
+    }
+
+    private void indexInserted(List<String> studentIds) {
+        if (!studentIds.isEmpty()) {
+            List<Student> students = studentRepository.findByStudentIdIn(studentIds);
+            students.forEach(studentSearchIndex::index);
+            classRosterCache.invalidate(students.stream().map(Student::getClassId).toList());
+        }
+    }
+
+    private static void requireLength(List<String> errors, String label, String value, int maxLength, boolean required) {
+        if (value == null || value.isBlank()) {
+            if (required) {
+                errors.add(label + " is required");
+            }
+        } else if (value.length() > maxLength) {
+            errors.add(label + " must be at most " + maxLength + " characters");
+        }
+    }
+
+    private static void checkPattern(List<String> errors, String label, String value, Pattern pattern, int maxLength) {
+        if (value != null && (value.length() > maxLength || !pattern.matcher(value).matches())) {
+            errors.add("Invalid " + label + " format: " + value);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static final class ImportRow {
+        private final int rowNumber;
+        private final JsonNode source;
+        private final List<String> errors = new ArrayList<>();
+        private StudentDTO student;
+
+        private ImportRow(int rowNumber, JsonNode source) {
+            this.rowNumber = rowNumber;
+            this.source = source;
+        }
+    }
+
+    private static final class ImportState {
+        private int rowsRead;
+        // Lower-cased keys seen earlier in this import
+        private final Set<String> studentIds = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+    }
+}
@@ -0,0 +1,35 @@
+package com.school.studentservice.service.homework;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last homework row on a page, handed to clients as an
+ * opaque URL-safe token and decoded to resume the scan after that row.
+ */
+public record HomeworkCursor(LocalDateTime createdAt, long id) {
+
+    private static final String NULL_CREATED_AT = "-";
+
+    public String encode() {
+        String raw = (createdAt != null ? createdAt.toString() : NULL_CREATED_AT) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HomeworkCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid homework cursor: " + token);
+            }
+            String createdAt = raw.substring(0, separator);
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new HomeworkCursor(NULL_CREATED_AT.equals(createdAt) ? null : LocalDateTime.parse(createdAt), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid homework cursor: " + token);
+        }
+    }
+}
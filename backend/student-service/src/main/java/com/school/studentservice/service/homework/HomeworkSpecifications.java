@@ -0,0 +1,81 @@
+package com.school.studentservice.service.homework;
+
+import com.school.studentservice.dto.HomeworkFilter;
+import com.school.studentservice.model.Homework;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds homework Specifications from a query filter and a keyset cursor.
+ */
+public final class HomeworkSpecifications {
+
+    private HomeworkSpecifications() {
+    }
+
+    /**
+     * Conjunction of every filter that is set; matches all homework when none are.
+     */
+    public static Specification<Homework> matching(HomeworkFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getTeacherId() != null) {
+                predicates.add(cb.equal(root.get("teacherId"), filter.getTeacherId()));
+            }
+            if (filter.getSubjectId() != null) {
+                predicates.add(cb.equal(root.get("subjectId"), filter.getSubjectId()));
+            }
+            if (filter.getClassId() != null) {
+                predicates.add(cb.equal(root.get("classId"), filter.getClassId()));
+            }
+            if (filter.getSection() != null && !filter.getSection().isBlank()) {
+                predicates.add(cb.equal(root.get("section"), filter.getSection().trim()));
+            }
+            if (filter.getAcademicYearId() != null) {
+                predicates.add(cb.equal(root.get("academicYearId"), filter.getAcademicYearId()));
+            }
+            if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+                predicates.add(filter.getStatus().size() == 1
+                        ? cb.equal(root.get("status"), filter.getStatus().get(0))
+                        : root.get("status").in(filter.getStatus()));
+            }
+            if (filter.getPriority() != null) {
+                predicates.add(cb.equal(root.get("priority"), filter.getPriority()));
+            }
+            if (filter.getDueFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), filter.getDueFrom()));
+            }
+            if (filter.getDueTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("dueDate"), filter.getDueTo()));
+            }
+            if (filter.getAssignedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("assignedDate"), filter.getAssignedFrom()));
+            }
+            if (filter.getAssignedTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("assignedDate"), filter.getAssignedTo()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Homework strictly after the cursor in (createdAt DESC, id DESC) order.
+     * Rows without a created_at sort last, as MySQL orders NULLs in a
+     * descending sort.
+     */
+    public static Specification<Homework> after(HomeworkCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor.createdAt() == null) {
+                return cb.and(cb.isNull(root.get("createdAt")), cb.lessThan(root.get("id"), cursor.id()));
+            }
+            return cb.or(
+                    cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                    cb.and(cb.equal(root.get("createdAt"), cursor.createdAt()),
+                            cb.lessThan(root.get("id"), cursor.id())),
+                    cb.isNull(root.get("createdAt")));
+        };
+    }
+}
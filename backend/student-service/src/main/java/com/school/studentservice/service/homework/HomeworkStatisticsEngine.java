@@ -0,0 +1,222 @@
+package com.school.studentservice.service.homework;
+
+import com.school.studentservice.dto.HomeworkDueDateCount;
+import com.school.studentservice.model.Homework;
+import com.school.studentservice.repository.HomeworkRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-teacher homework counters: total homework, and active homework
+ * bucketed by due date. Overdue and upcoming counts are read off the
+ * buckets for the current day, so they stay right as days pass without
+ * touching the counters.
+ *
+ * A teacher's counters are loaded on first use with one grouped aggregate
+ * query and then kept current by HomeworkService writes, applied after
+ * commit. They are reloaded after a TTL to repair any drift from writes
+ * made outside this service.
+ *
+ * A load only replaces the cached counters if no write for that teacher
+ * started or was in flight while it ran. Otherwise the load could miss a
+ * write whose delta is then lost, or include one whose delta is then
+ * applied on top of it. Such a load is still returned to its caller; the
+ * next request loads again.
+ */
+@Component
+public class HomeworkStatisticsEngine {
+
+    private static final int UPCOMING_DAYS = 7;
+
+    private final HomeworkRepository homeworkRepository;
+    private final long ttlMillis;
+    private final Map<Long, TeacherEntry> entriesByTeacher = new ConcurrentHashMap<>();
+
+    public HomeworkStatisticsEngine(HomeworkRepository homeworkRepository,
+                                    @Value("${student.homework-stats.ttl-minutes:10}") long ttlMinutes) {
+        this.homeworkRepository = homeworkRepository;
+        this.ttlMillis = ttlMinutes * 60_000;
+    }
+
+    public Counts getCounts(Long teacherId, LocalDate today) {
+        TeacherEntry entry = entry(teacherId);
+        long loadGeneration;
+        synchronized (entry) {
+            TeacherCounters cached = entry.counters;
+            if (cached != null && System.currentTimeMillis() - cached.loadedAt < ttlMillis) {
+                return cached.counts(today);
+            }
+            // A write in flight bumps the generation when it started, so this load can never be kept
+            loadGeneration = entry.pendingWrites == 0 ? entry.generation : -1;
+        }
+
+        TeacherCounters loaded = load(teacherId);
+        synchronized (entry) {
+            if (loadGeneration == entry.generation) {
+                entry.counters = loaded;
+            }
+        }
+        return loaded.counts(today);
+    }
+
+    public void added(Homework homework) {
+        apply(null, HomeworkState.of(homework));
+    }
+
+    public void removed(HomeworkState before) {
+        apply(before, null);
+    }
+
+    public void changed(HomeworkState before, Homework after) {
+        apply(before, HomeworkState.of(after));
+    }
+
+    private void apply(HomeworkState before, HomeworkState after) {
+        List<TeacherEntry> entries = Stream.of(before, after)
+                .filter(Objects::nonNull)
+                .map(HomeworkState::teacherId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(this::entry)
+                .toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            entries.forEach(TeacherEntry::beginWrite);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        applyNow(before, after);
+                    }
+                    entries.forEach(TeacherEntry::endWrite);
+                }
+            });
+        } else {
+            // Already committed, so a concurrent load may or may not include it; start over instead
+            entries.forEach(TeacherEntry::reset);
+        }
+    }
+
+    private void applyNow(HomeworkState before, HomeworkState after) {
+        if (before != null && before.teacherId() != null) {
+            entry(before.teacherId()).add(before, -1);
+        }
+        if (after != null && after.teacherId() != null) {
+            entry(after.teacherId()).add(after, 1);
+        }
+    }
+
+    private TeacherEntry entry(Long teacherId) {
+        return entriesByTeacher.computeIfAbsent(teacherId, id -> new TeacherEntry());
+    }
+
+    private TeacherCounters load(Long teacherId) {
+        List<HomeworkDueDateCount> rows = homeworkRepository.countByTeacherIdGroupByStatusAndDueDate(teacherId);
+        TeacherCounters counters = new TeacherCounters(System.currentTimeMillis());
+        for (HomeworkDueDateCount row : rows) {
+            long count = row.getHomeworkCount() != null ? row.getHomeworkCount() : 0;
+            counters.add(new HomeworkState(teacherId, row.getStatus(), row.getDueDate()), count);
+        }
+        return counters;
+    }
+
+    /**
+     * The fields of a homework item that the counters depend on. Capture it
+     * before changing a homework so the old values can be backed out.
+     */
+    public record HomeworkState(Long teacherId, Homework.Status status, LocalDate dueDate) {
+
+        public static HomeworkState of(Homework homework) {
+            return new HomeworkState(homework.getTeacherId(), homework.getStatus(), homework.getDueDate());
+        }
+    }
+
+    public record Counts(long total, long active, long overdue, long upcoming) {
+    }
+
+    /**
+     * A teacher's cached counters and the bookkeeping that decides whether a
+     * load may replace them.
+     */
+    private static final class TeacherEntry {
+        private TeacherCounters counters;
+        // Bumped whenever a write starts, so a load that overlapped it is not kept
+        private long generation;
+        // Writes registered by transactions that have not completed yet
+        private int pendingWrites;
+
+        private synchronized void beginWrite() {
+            generation++;
+            pendingWrites++;
+        }
+
+        private synchronized void endWrite() {
+            pendingWrites--;
+        }
+
+        private synchronized void reset() {
+            generation++;
+            counters = null;
+        }
+
+        private synchronized void add(HomeworkState state, long delta) {
+            if (counters != null) {
+                counters.add(state, delta);
+            }
+        }
+    }
+
+    private static final class TeacherCounters {
+        private final long loadedAt;
+        private long total;
+        private long active;
+        private final NavigableMap<LocalDate, Long> activeByDueDate = new TreeMap<>();
+        // Last result, valid until the next write or the next day
+        private LocalDate countsDay;
+        private Counts counts;
+
+        private TeacherCounters(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        private synchronized TeacherCounters add(HomeworkState state, long delta) {
+            counts = null;
+            total += delta;
+            if (state.status() == Homework.Status.ACTIVE) {
+                active += delta;
+                if (state.dueDate() != null) {
+                    activeByDueDate.merge(state.dueDate(), delta, (a, b) -> a + b == 0 ? null : a + b);
+                }
+            }
+            return this;
+        }
+
+        private synchronized Counts counts(LocalDate today) {
+            if (counts == null || !today.equals(countsDay)) {
+                long overdue = sum(activeByDueDate.headMap(today, false));
+                long upcoming = sum(activeByDueDate.subMap(today, true, today.plusDays(UPCOMING_DAYS), true));
+                counts = new Counts(total, active, overdue, upcoming);
+                countsDay = today;
+            }
+            return counts;
+        }
+
+        private static long sum(Map<LocalDate, Long> buckets) {
+            long sum = 0;
+            for (Long count : buckets.values()) {
+                sum += count;
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.school.studentservice.service.homework;
+
+import com.school.studentservice.model.TeacherSubject;
+import com.school.studentservice.repository.TeacherSubjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory copy of the active teacher_subjects rows, indexed per teacher as
+ * subject -> class -> sections, so homework authorization checks are a few
+ * hash lookups with no database access.
+ *
+ * The matrix is an immutable snapshot, loaded at startup and rebuilt after
+ * any TeacherSubject change commits (see TeacherSubjectListener) and on a
+ * schedule, since assignments are also maintained with SQL scripts. Until
+ * the first load finishes, checks go to the database.
+ */
+@Component
+public class TeacherAuthorizationMatrix {
+
+    private static final Logger log = LoggerFactory.getLogger(TeacherAuthorizationMatrix.class);
+
+    private static final TeacherGrants NO_GRANTS = new TeacherGrants(Map.of(), List.of(), List.of());
+
+    private final TeacherSubjectRepository teacherSubjectRepository;
+    private final AtomicBoolean reloading = new AtomicBoolean(false);
+    private final AtomicBoolean reloadRequested = new AtomicBoolean(false);
+
+    private volatile Map<Long, TeacherGrants> grantsByTeacher;
+
+    public TeacherAuthorizationMatrix(TeacherSubjectRepository teacherSubjectRepository) {
+        this.teacherSubjectRepository = teacherSubjectRepository;
+    }
+
+    public boolean isReady() {
+        return grantsByTeacher != null;
+    }
+
+    /**
+     * Whether the teacher has an active assignment for the subject, class and
+     * section. Sections compare trimmed and case-insensitively, as the
+     * database collation did.
+     */
+    public boolean isAuthorized(Long teacherId, Long subjectId, Long classId, String section) {
+        Map<Long, TeacherGrants> snapshot = grantsByTeacher;
+        if (snapshot == null) {
+            return !teacherSubjectRepository
+                    .findByTeacherIdAndSubjectIdAndClassIdAndSectionAndIsActiveTrue(teacherId, subjectId, classId, section)
+                    .isEmpty();
+        }
+        if (teacherId == null || subjectId == null || classId == null || section == null) {
+            return false;
+        }
+        TeacherGrants grants = snapshot.get(teacherId);
+        if (grants == null) {
+            return false;
+        }
+        Map<Long, Set<String>> classes = grants.sectionsBySubjectAndClass.get(subjectId);
+        if (classes == null) {
+            return false;
+        }
+        Set<String> sections = classes.get(classId);
+        return sections != null && sections.contains(normalizeSection(section));
+    }
+
+    /**
+     * Distinct subject ids the teacher is assigned to.
+     */
+    public List<Long> getSubjectIds(Long teacherId) {
+        return grantsFor(teacherId).subjectIds;
+    }
+
+    /**
+     * Distinct class ids the teacher is assigned to.
+     */
+    public List<Long> getClassIds(Long teacherId) {
+        return grantsFor(teacherId).classIds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${student.teacher-auth.refresh-interval-ms:300000}",
+            initialDelayString = "${student.teacher-auth.refresh-interval-ms:300000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the matrix once the current transaction commits, or right
+     * away outside a transaction.
+     */
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the matrix from the active teacher_subjects rows. A reload
+     * requested while one is running is folded into one more pass.
+     */
+    public void reload() {
+        reloadRequested.set(true);
+        while (reloadRequested.get() && reloading.compareAndSet(false, true)) {
+            try {
+                reloadRequested.set(false);
+                List<TeacherSubject> assignments = teacherSubjectRepository.findByIsActiveTrue();
+                grantsByTeacher = build(assignments);
+                log.debug("Loaded teacher authorization matrix from {} assignments", assignments.size());
+            } catch (RuntimeException e) {
+                log.warn("Could not reload teacher authorization matrix: {}", e.getMessage());
+                return;
+            } finally {
+                reloading.set(false);
+            }
+        }
+    }
+
+    private TeacherGrants grantsFor(Long teacherId) {
+        if (teacherId == null) {
+            return NO_GRANTS;
+        }
+        Map<Long, TeacherGrants> snapshot = grantsByTeacher;
+        if (snapshot == null) {
+            return build(teacherSubjectRepository.findByTeacherIdAndIsActiveTrue(teacherId))
+                    .getOrDefault(teacherId, NO_GRANTS);
+        }
+        return snapshot.getOrDefault(teacherId, NO_GRANTS);
+    }
+
+    private static Map<Long, TeacherGrants> build(List<TeacherSubject> assignments) {
+        Map<Long, List<TeacherSubject>> byTeacher = new HashMap<>();
+        for (TeacherSubject assignment : assignments) {
+            if (assignment.getTeacherId() != null) {
+                byTeacher.computeIfAbsent(assignment.getTeacherId(), id -> new ArrayList<>()).add(assignment);
+            }
+        }
+        Map<Long, TeacherGrants> grants = new HashMap<>(byTeacher.size() * 2);
+        byTeacher.forEach((teacherId, rows) -> grants.put(teacherId, TeacherGrants.of(rows)));
+        return Map.copyOf(grants);
+    }
+
+    private static String normalizeSection(String section) {
+        return section.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static final class TeacherGrants {
+        private final Map<Long, Map<Long, Set<String>>> sectionsBySubjectAndClass;
+        private final List<Long> subjectIds;
+        private final List<Long> classIds;
+
+        private TeacherGrants(Map<Long, Map<Long, Set<String>>> sectionsBySubjectAndClass,
+                              List<Long> subjectIds, List<Long> classIds) {
+            this.sectionsBySubjectAndClass = sectionsBySubjectAndClass;
+            this.subjectIds = subjectIds;
+            this.classIds = classIds;
+        }
+
+        private static TeacherGrants of(List<TeacherSubject> rows) {
+            Map<Long, Map<Long, Set<String>>> sections = new HashMap<>();
+            Set<Long> subjectIds = new LinkedHashSet<>();
+            Set<Long> classIds = new LinkedHashSet<>();
+            for (TeacherSubject row : rows) {
+                if (row.getSubjectId() != null) {
+                    subjectIds.add(row.getSubjectId());
+                }
+                if (row.getClassId() != null) {
+                    classIds.add(row.getClassId());
+                }
+                if (row.getSubjectId() != null && row.getClassId() != null && row.getSection() != null) {
+                    sections.computeIfAbsent(row.getSubjectId(), id -> new HashMap<>())
+                            .computeIfAbsent(row.getClassId(), id -> new HashSet<>())
+                            .add(normalizeSection(row.getSection()));
+                }
+            }
+            Map<Long, Map<Long, Set<String>>> frozen = new HashMap<>();
+            sections.forEach((subjectId, byClass) -> {
+                Map<Long, Set<String>> frozenByClass = new HashMap<>();
+                byClass.forEach((classId, names) -> frozenByClass.put(classId, Set.copyOf(names)));
+                frozen.put(subjectId, Map.copyOf(frozenByClass));
+            });
+            return new TeacherGrants(Map.copyOf(frozen), List.copyOf(subjectIds), List.copyOf(classIds));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.school.studentservice.service.homework;
+
+import com.school.studentservice.model.TeacherSubject;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Rebuilds the teacher authorization matrix after a TeacherSubject is
+ * inserted, updated or deleted through JPA.
+ */
+public class TeacherSubjectListener {
+
+    private final TeacherAuthorizationMatrix teacherAuthorizationMatrix;
+
+    public TeacherSubjectListener(TeacherAuthorizationMatrix teacherAuthorizationMatrix) {
+        this.teacherAuthorizationMatrix = teacherAuthorizationMatrix;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(TeacherSubject teacherSubject) {
+        teacherAuthorizationMatrix.reloadAfterCommit();
+    }
+}
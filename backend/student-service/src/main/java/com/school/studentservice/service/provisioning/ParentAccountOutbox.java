@@ -0,0 +1,147 @@
+package com.school.studentservice.service.provisioning;
+
+import com.school.studentservice.dto.StudentDTO;
+import com.school.studentservice.model.ParentAccountRequest;
+import com.school.studentservice.repository.ParentAccountRequestRepository;
+import com.school.studentservice.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Durable outbox for parent login accounts.
+ *
+ * Student writes record a request row in their own transaction instead of
+ * calling auth-service inline. A scheduled worker sends due requests to
+ * auth-service's bulk user endpoint in batches. Failed requests are retried
+ * with exponential backoff and jitter until max-attempts, after which they
+ * are left as FAILED for an operator to inspect.
+ */
+@Service
+public class ParentAccountOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(ParentAccountOutbox.class);
+
+    private final ParentAccountRequestRepository parentAccountRequestRepository;
+    private final UserService userService;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    public ParentAccountOutbox(ParentAccountRequestRepository parentAccountRequestRepository,
+                               UserService userService,
+                               @Value("${student.parent-accounts.batch-size:100}") int batchSize,
+                               @Value("${student.parent-accounts.max-attempts:10}") int maxAttempts,
+                               @Value("${student.parent-accounts.initial-backoff-ms:5000}") long initialBackoffMillis,
+                               @Value("${student.parent-accounts.max-backoff-ms:3600000}") long maxBackoffMillis) {
+        this.parentAccountRequestRepository = parentAccountRequestRepository;
+        this.userService = userService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * Records a parent account request for the student if it has a primary
+     * contact phone. Joins the caller's transaction.
+     */
+    public void enqueue(Long studentId, StudentDTO student) {
+        String phone = primaryContactPhone(student);
+        if (phone != null) {
+            parentAccountRequestRepository.save(new ParentAccountRequest(studentId, phone, parentDisplayName(student)));
+        }
+    }
+
+    public static String primaryContactPhone(StudentDTO student) {
+        String phone = student.getPrimaryContactPhone();
+        return phone != null && !phone.trim().isEmpty() ? phone.trim() : null;
+    }
+
+    public static String parentDisplayName(StudentDTO student) {
+        return student.getParentName() != null ? student.getParentName()
+                : "Parent of " + student.getFirstName() + " " + student.getLastName();
+    }
+
+    @Scheduled(fixedDelayString = "${student.parent-accounts.drain-interval-ms:5000}")
+    public void scheduledDrain() {
+        drain();
+    }
+
+    /**
+     * Sends due requests until none are left or auth-service is unreachable.
+     *
+     * @return number of requests provisioned
+     */
+    public int drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int provisioned = 0;
+            while (true) {
+                List<ParentAccountRequest> batch = parentAccountRequestRepository.findDue(
+                        ParentAccountRequest.Status.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    return provisioned;
+                }
+
+                Map<String, UserService.ParentUserResult> results;
+                try {
+                    results = userService.createParentUsers(batch);
+                } catch (RestClientException e) {
+                    log.warn("Auth service unavailable for {} parent accounts: {}", batch.size(), e.getMessage());
+                    batch.forEach(request -> retryLater(request, e.getMessage()));
+                    parentAccountRequestRepository.saveAll(batch);
+                    return provisioned;
+                }
+
+                for (ParentAccountRequest request : batch) {
+                    UserService.ParentUserResult result = results.get(request.getPhone());
+                    if (result != null && result.isProvisioned()) {
+                        request.setStatus(ParentAccountRequest.Status.PROVISIONED);
+                        request.setAttempts(request.getAttempts() + 1);
+                        request.setLastError(null);
+                        provisioned++;
+                    } else {
+                        retryLater(request, result != null ? result.getMessage() : "No result from auth service");
+                    }
+                }
+                parentAccountRequestRepository.saveAll(batch);
+
+                if (batch.size() < batchSize) {
+                    return provisioned;
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private void retryLater(ParentAccountRequest request, String error) {
+        int attempts = request.getAttempts() + 1;
+        request.setAttempts(attempts);
+        request.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        if (attempts >= maxAttempts) {
+            request.setStatus(ParentAccountRequest.Status.FAILED);
+            log.error("Giving up on parent account {} for student {} after {} attempts: {}",
+                    request.getPhone(), request.getStudentId(), attempts, error);
+            return;
+        }
+        long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempts - 1, 20));
+        long jitter = ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        request.setNextAttemptAt(LocalDateTime.now().plusNanos((backoff / 2 + jitter) * 1_000_000));
+    }
+}
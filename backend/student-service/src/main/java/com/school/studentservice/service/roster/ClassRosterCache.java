@@ -0,0 +1,152 @@
+package com.school.studentservice.service.roster;
+
+import com.school.studentservice.dto.RosterEntry;
+import com.school.studentservice.repository.StudentContactRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of active class rosters, one entry per class holding
+ * every section and academic year. Section and year lookups filter the
+ * cached class in memory, so a class-wide operation is one cache read.
+ *
+ * StudentService and the bulk import invalidate the classes they touch;
+ * entries also expire after a TTL and the least recently used classes are
+ * dropped once the cache is full. Hit and miss counts are published as
+ * student.roster.cache.requests.
+ */
+@Component
+public class ClassRosterCache {
+
+    private final StudentContactRepository studentContactRepository;
+    private final int maxClasses;
+    private final long ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final LinkedHashMap<Long, CachedRoster> entries;
+
+    public ClassRosterCache(StudentContactRepository studentContactRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${student.roster-cache.max-classes:500}") int maxClasses,
+                            @Value("${student.roster-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.studentContactRepository = studentContactRepository;
+        this.maxClasses = maxClasses;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedRoster> eldest) {
+                return size() > ClassRosterCache.this.maxClasses;
+            }
+        };
+        this.hits = Counter.builder("student.roster.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("student.roster.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("student.roster.cache.size", this, ClassRosterCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Active students of a class, optionally narrowed to one section
+     * (case-insensitive) and one academic year.
+     */
+    public List<RosterEntry> getRoster(Long classId, String section, Long academicYearId) {
+        List<RosterEntry> roster = getClassRoster(classId);
+        if ((section == null || section.isBlank()) && academicYearId == null) {
+            return roster;
+        }
+        String wantedSection = section != null && !section.isBlank() ? section.trim() : null;
+        return roster.stream()
+                .filter(entry -> wantedSection == null || wantedSection.equalsIgnoreCase(entry.getSection()))
+                .filter(entry -> academicYearId == null || academicYearId.equals(entry.getAcademicYearId()))
+                .toList();
+    }
+
+    public void invalidate(Long classId) {
+        if (classId != null) {
+            invalidate(List.of(classId));
+        }
+    }
+
+    /**
+     * Drops the rosters of the given classes. Inside a transaction they are
+     * dropped again after completion, so a reader that loaded the roster
+     * before the commit cannot leave stale entries behind.
+     */
+    public void invalidate(Collection<Long> classIds) {
+        List<Long> ids = classIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        evict(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(ids);
+                }
+            });
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private List<RosterEntry> getClassRoster(Long classId) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedRoster cached = entries.get(classId);
+            if (cached != null && now - cached.loadedAt < ttlMillis) {
+                hits.increment();
+                return cached.entries;
+            }
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        List<RosterEntry> roster = List.copyOf(studentContactRepository.findActiveRoster(classId));
+        synchronized (entries) {
+            if (loadGeneration == generation.get()) {
+                entries.put(classId, new CachedRoster(roster, now));
+            }
+        }
+        return roster;
+    }
+
+    private void evict(List<Long> classIds) {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            classIds.forEach(entries::remove);
+        }
+    }
+
+    private static final class CachedRoster {
+        private final List<RosterEntry> entries;
+        private final long loadedAt;
+
+        private CachedRoster(List<RosterEntry> entries, long loadedAt) {
+            this.entries = entries;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
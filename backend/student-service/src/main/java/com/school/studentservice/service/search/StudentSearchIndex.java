@@ -0,0 +1,550 @@
+package com.school.studentservice.service.search;
+
+import com.school.studentservice.model.Student;
+import com.school.studentservice.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over student names, student IDs and parent phone
+ * numbers, replacing LIKE '%name%' scans on the students table.
+ *
+ * Every token is stored in a prefix trie whose nodes hold the ids of all
+ * students with a token under that prefix, so prefix lookups cost one walk
+ * of the query term. Trigram postings answer infix queries, and a bounded
+ * edit-distance walk of the trie tolerates typos. Results are ranked by
+ * match quality: exact, then prefix, infix and fuzzy.
+ *
+ * The index is rebuilt from the database when the application starts and
+ * kept current by StudentService on create, update and delete. Changes made
+ * inside a transaction are applied once it commits, so a rolled-back write
+ * never shows up in search results.
+ */
+@Component
+public class StudentSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentSearchIndex.class);
+
+    private static final int EXACT_SCORE = 100;
+    private static final int PREFIX_SCORE = 70;
+    private static final int INFIX_SCORE = 40;
+    private static final int FUZZY_SCORE = 30;
+
+    private final StudentRepository studentRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segment segment = new Segment();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    private final Queue<Long> touchedDuringRebuild = new ConcurrentLinkedQueue<>();
+
+    public StudentSearchIndex(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the index from the students table. Searches keep using the old
+     * index until the new one is swapped in; students changed while the
+     * rebuild was loading are re-read afterwards.
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        rebuilding = true;
+        touchedDuringRebuild.clear();
+        try {
+            Segment rebuilt = new Segment();
+            for (Student student : studentRepository.findAll()) {
+                rebuilt.add(IndexedStudent.of(student));
+            }
+
+            lock.writeLock().lock();
+            try {
+                segment = rebuilt;
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Set<Long> touched = new HashSet<>(touchedDuringRebuild);
+            touchedDuringRebuild.clear();
+            for (Long id : touched) {
+                studentRepository.findById(id).ifPresentOrElse(this::index, () -> remove(id));
+            }
+
+            ready = true;
+            log.info("Built student search index with {} students in {} ms", rebuilt.size(),
+                    System.currentTimeMillis() - started);
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    /**
+     * Indexes the student once the surrounding transaction commits, or
+     * straight away when there is none.
+     */
+    public void indexAfterCommit(Student student) {
+        afterCommit(() -> index(student));
+    }
+
+    /**
+     * Removes the student once the surrounding transaction commits, or
+     * straight away when there is none.
+     */
+    public void removeAfterCommit(Long studentId) {
+        afterCommit(() -> remove(studentId));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    public void index(Student student) {
+        if (student == null || student.getId() == null) {
+            return;
+        }
+        IndexedStudent indexed = IndexedStudent.of(student);
+        // Recorded before applying, so a rebuild swapping in concurrently cannot lose it
+        if (rebuilding) {
+            touchedDuringRebuild.add(indexed.id);
+        }
+        lock.writeLock().lock();
+        try {
+            segment.remove(indexed.id);
+            segment.add(indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long studentId) {
+        if (studentId == null) {
+            return;
+        }
+        if (rebuilding) {
+            touchedDuringRebuild.add(studentId);
+        }
+        lock.writeLock().lock();
+        try {
+            segment.remove(studentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked search. Every term of the query must match some token of a
+     * student; the student's score is the sum of its best match per term.
+     *
+     * @return ids of the requested page, best match first, and the total hit count
+     */
+    public SearchHits search(String query, int page, int size) {
+        List<String> terms = parseQuery(query);
+        if (terms.isEmpty()) {
+            return new SearchHits(List.of(), 0);
+        }
+
+        List<IndexedStudent> ranked;
+        Map<Long, Integer> scores;
+        lock.readLock().lock();
+        try {
+            scores = segment.score(terms);
+            ranked = new ArrayList<>(scores.size());
+            for (Long id : scores.keySet()) {
+                ranked.add(segment.documents.get(id));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, Integer> finalScores = scores;
+        ranked.sort(Comparator.<IndexedStudent>comparingInt(s -> -finalScores.get(s.id))
+                .thenComparing(s -> !s.active)
+                .thenComparing(s -> s.sortName)
+                .thenComparingLong(s -> s.id));
+
+        int from = (int) Math.min((long) page * size, ranked.size());
+        int to = (int) Math.min((long) from + size, ranked.size());
+        List<Long> ids = new ArrayList<>(to - from);
+        for (IndexedStudent student : ranked.subList(from, to)) {
+            ids.add(student.id);
+        }
+        return new SearchHits(ids, ranked.size());
+    }
+
+    static List<String> parseQuery(String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        // A phone number typed with spaces or dashes is one term
+        String compact = query.replaceAll("[\\s+()\\-]", "");
+        if (compact.length() >= 3 && compact.chars().allMatch(Character::isDigit)) {
+            return List.of(compact);
+        }
+        List<String> terms = new ArrayList<>();
+        for (String part : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+            String term = normalize(part);
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static String normalize(String value) {
+        StringBuilder normalized = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = Character.toLowerCase(value.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static int maxEdits(String term) {
+        // Typos in student IDs and phone numbers match too many neighbours to be useful
+        for (int i = 0; i < term.length(); i++) {
+            if (Character.isDigit(term.charAt(i))) {
+                return 0;
+            }
+        }
+        if (term.length() >= 7) {
+            return 2;
+        }
+        return term.length() >= 3 ? 1 : 0;
+    }
+
+    public static final class SearchHits {
+        private final List<Long> studentIds;
+        private final long totalMatches;
+
+        SearchHits(List<Long> studentIds, long totalMatches) {
+            this.studentIds = studentIds;
+            this.totalMatches = totalMatches;
+        }
+
+        public List<Long> getStudentIds() {
+            return studentIds;
+        }
+
+        public long getTotalMatches() {
+            return totalMatches;
+        }
+    }
+
+    private static final class IndexedStudent {
+        private final long id;
+        private final boolean active;
+        private final String sortName;
+        private final String[] tokens;
+
+        private IndexedStudent(long id, boolean active, String sortName, String[] tokens) {
+            this.id = id;
+            this.active = active;
+            this.sortName = sortName;
+            this.tokens = tokens;
+        }
+
+        static IndexedStudent of(Student student) {
+            Set<String> tokens = new LinkedHashSet<>();
+            addWords(tokens, student.getFirstName());
+            addWords(tokens, student.getLastName());
+            if (student.getStudentId() != null) {
+                addWords(tokens, student.getStudentId());
+                tokens.add(normalize(student.getStudentId()));
+            }
+            if (student.getParentPhone() != null) {
+                String digits = student.getParentPhone().replaceAll("\\D", "");
+                tokens.add(digits);
+                if (digits.length() > 10) {
+                    // Without the country code
+                    tokens.add(digits.substring(digits.length() - 10));
+                }
+            }
+            tokens.remove("");
+
+            String sortName = (nullToEmpty(student.getLastName()) + " " + nullToEmpty(student.getFirstName()))
+                    .toLowerCase(Locale.ROOT);
+            return new IndexedStudent(student.getId(), !Boolean.FALSE.equals(student.getIsActive()), sortName,
+                    tokens.toArray(new String[0]));
+        }
+
+        private static void addWords(Set<String> tokens, String value) {
+            if (value == null) {
+                return;
+            }
+            for (String word : value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                tokens.add(word);
+            }
+        }
+
+        private static String nullToEmpty(String value) {
+            return value != null ? value : "";
+        }
+
+        int bestScore(String term) {
+            int best = 0;
+            for (String token : tokens) {
+                if (token.equals(term)) {
+                    return EXACT_SCORE;
+                }
+                if (token.startsWith(term)) {
+                    best = Math.max(best, PREFIX_SCORE);
+                } else if (term.length() >= 3 && token.contains(term)) {
+                    best = Math.max(best, INFIX_SCORE);
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * One generation of the index structures. Once published it is only read
+     * or modified under the enclosing read/write lock.
+     */
+    private static final class Segment {
+        private final Map<Long, IndexedStudent> documents = new HashMap<>();
+        private final TrieNode root = new TrieNode();
+        private final Map<String, Set<Long>> trigrams = new HashMap<>();
+
+        int size() {
+            return documents.size();
+        }
+
+        void add(IndexedStudent student) {
+            documents.put(student.id, student);
+            for (String token : student.tokens) {
+                TrieNode node = root;
+                for (int i = 0; i < token.length(); i++) {
+                    node = node.getOrCreate(token.charAt(i));
+                    node.postings.add(student.id);
+                }
+                for (int i = 0; i + 3 <= token.length(); i++) {
+                    trigrams.computeIfAbsent(token.substring(i, i + 3), k -> new HashSet<>()).add(student.id);
+                }
+            }
+        }
+
+        void remove(long id) {
+            IndexedStudent student = documents.remove(id);
+            if (student == null) {
+                return;
+            }
+            for (String token : student.tokens) {
+                TrieNode node = root;
+                for (int i = 0; i < token.length() && node != null; i++) {
+                    TrieNode child = node.get(token.charAt(i));
+                    if (child == null) {
+                        break;
+                    }
+                    child.postings.remove(id);
+                    if (child.postings.isEmpty()) {
+                        // Descendants can only hold a subset of these postings
+                        node.removeChild(token.charAt(i));
+                        break;
+                    }
+                    node = child;
+                }
+                for (int i = 0; i + 3 <= token.length(); i++) {
+                    String gram = token.substring(i, i + 3);
+                    Set<Long> postings = trigrams.get(gram);
+                    if (postings != null && postings.remove(id) && postings.isEmpty()) {
+                        trigrams.remove(gram);
+                    }
+                }
+            }
+        }
+
+        Map<Long, Integer> score(List<String> terms) {
+            Map<Long, Integer> total = null;
+            for (String term : terms) {
+                Map<Long, Integer> termScores = scoreTerm(term);
+                if (total == null) {
+                    total = termScores;
+                } else {
+                    total.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Integer> entry : total.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (total.isEmpty()) {
+                    break;
+                }
+            }
+            return total != null ? total : Collections.emptyMap();
+        }
+
+        private Map<Long, Integer> scoreTerm(String term) {
+            Map<Long, Integer> scores = new HashMap<>();
+
+            TrieNode node = root;
+            for (int i = 0; i < term.length() && node != null; i++) {
+                node = node.get(term.charAt(i));
+            }
+            if (node != null) {
+                for (Long id : node.postings) {
+                    scores.put(id, documents.get(id).bestScore(term));
+                }
+            }
+
+            if (term.length() >= 3) {
+                for (Long id : infixCandidates(term)) {
+                    if (!scores.containsKey(id)) {
+                        int score = documents.get(id).bestScore(term);
+                        if (score > 0) {
+                            scores.put(id, score);
+                        }
+                    }
+                }
+            }
+
+            int maxEdits = maxEdits(term);
+            if (maxEdits > 0) {
+                int[] firstRow = new int[term.length() + 1];
+                for (int i = 0; i < firstRow.length; i++) {
+                    firstRow[i] = i;
+                }
+                for (int c = 0; c < root.keys.length; c++) {
+                    fuzzyWalk(root.children[c], root.keys[c], (char) 0, term, firstRow, null, maxEdits, scores);
+                }
+            }
+            return scores;
+        }
+
+        private Set<Long> infixCandidates(String term) {
+            Set<Long> candidates = null;
+            for (int i = 0; i + 3 <= term.length(); i++) {
+                Set<Long> postings = trigrams.get(term.substring(i, i + 3));
+                if (postings == null) {
+                    return Collections.emptySet();
+                }
+                if (candidates == null) {
+                    candidates = new HashSet<>(postings);
+                } else {
+                    candidates.retainAll(postings);
+                }
+                if (candidates.isEmpty()) {
+                    break;
+                }
+            }
+            return candidates != null ? candidates : Collections.emptySet();
+        }
+
+        /**
+         * Edit distance walk: each trie node extends the distance row of its
+         * parent by one character, counting an adjacent transposition as a
+         * single edit, and subtrees are pruned once every cell exceeds maxEdits.
+         */
+        private void fuzzyWalk(TrieNode node, char c, char previousChar, String term, int[] previousRow,
+                               int[] rowBeforePrevious, int maxEdits, Map<Long, Integer> scores) {
+            int[] row = new int[previousRow.length];
+            row[0] = previousRow[0] + 1;
+            int rowMin = row[0];
+            for (int i = 1; i < row.length; i++) {
+                int substitution = previousRow[i - 1] + (term.charAt(i - 1) == c ? 0 : 1);
+                row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), substitution);
+                if (rowBeforePrevious != null && i > 1
+                        && term.charAt(i - 1) == previousChar && term.charAt(i - 2) == c) {
+                    row[i] = Math.min(row[i], rowBeforePrevious[i - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, row[i]);
+            }
+
+            int distance = row[row.length - 1];
+            if (distance > 0 && distance <= maxEdits) {
+                int score = FUZZY_SCORE - 10 * (distance - 1);
+                for (Long id : node.postings) {
+                    scores.merge(id, score, Math::max);
+                }
+            }
+            if (rowMin <= maxEdits) {
+                for (int i = 0; i < node.keys.length; i++) {
+                    fuzzyWalk(node.children[i], node.keys[i], c, term, row, previousRow, maxEdits, scores);
+                }
+            }
+        }
+    }
+
+    private static final class TrieNode {
+        private static final char[] NO_KEYS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+        // Fan-out is small, so children are parallel arrays scanned linearly
+        private char[] keys = NO_KEYS;
+        private TrieNode[] children = NO_CHILDREN;
+        private final Set<Long> postings = new HashSet<>();
+
+        TrieNode get(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        TrieNode getOrCreate(char c) {
+            TrieNode child = get(c);
+            if (child == null) {
+                child = new TrieNode();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        void removeChild(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    int last = keys.length - 1;
+                    keys[i] = keys[last];
+                    children[i] = children[last];
+                    keys = Arrays.copyOf(keys, last);
+                    children = Arrays.copyOf(children, last);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.school.studentservice.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN for the SQL of every HomeworkRepository finder against the
+ * homework table as migration 010 leaves it, and checks that each one uses
+ * its index and reads the rows in order: no full scan, filesort or
+ * temporary table.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class HomeworkIndexPlanTest {
+
+    private static final Path MIGRATION = Path.of("../../database/migrations/010_homework_composite_indexes.sql");
+
+    /**
+     * The SQL Hibernate generates for each finder, with values that match
+     * the seeded rows, and the index it should use.
+     */
+    private static final List<Finder> FINDERS = List.of(
+            new Finder("findByTeacherIdOrderByCreatedAtDesc", "idx_homework_teacher_created",
+                    "SELECT * FROM homework WHERE teacher_id = 7 ORDER BY created_at DESC"),
+            new Finder("findByTeacherIdAndStatusOrderByCreatedAtDesc", "idx_homework_teacher_status_created",
+                    "SELECT * FROM homework WHERE teacher_id = 7 AND status = 'ACTIVE' ORDER BY created_at DESC"),
+            new Finder("countByTeacherIdGroupByStatusAndDueDate", "idx_homework_teacher_status_due",
+                    "SELECT status, due_date, COUNT(*) FROM homework WHERE teacher_id = 7 GROUP BY status, due_date"),
+            new Finder("findByTeacherIdAndAcademicYearIdOrderByCreatedAtDesc", "idx_homework_teacher_year_created",
+                    "SELECT * FROM homework WHERE teacher_id = 7 AND academic_year_id = 7 ORDER BY created_at DESC"),
+            new Finder("findBySubjectIdOrderByCreatedAtDesc", "idx_homework_subject_created",
+                    "SELECT * FROM homework WHERE subject_id = 4 ORDER BY created_at DESC"),
+            new Finder("findBySubjectIdAndClassIdAndSectionOrderByCreatedAtDesc", "idx_homework_subject_class_created",
+                    "SELECT * FROM homework WHERE subject_id = 4 AND class_id = 4 AND section = 'A' " +
+                    "ORDER BY created_at DESC"),
+            new Finder("findBySubjectIdAndClassIdAndSectionAndAcademicYearIdOrderByCreatedAtDesc",
+                    "idx_homework_subject_class_year_created",
+                    "SELECT * FROM homework WHERE subject_id = 4 AND class_id = 4 AND section = 'A' " +
+                    "AND academic_year_id = 4 ORDER BY created_at DESC"),
+            new Finder("findByClassIdAndSectionOrderByCreatedAtDesc", "idx_homework_class_section_created",
+                    "SELECT * FROM homework WHERE class_id = 4 AND section = 'A' ORDER BY created_at DESC"),
+            new Finder("findByClassIdAndAcademicYearIdOrderByCreatedAtDesc", "idx_homework_class_year_created",
+                    "SELECT * FROM homework WHERE class_id = 4 AND academic_year_id = 4 ORDER BY created_at DESC"),
+            new Finder("findByAcademicYearIdOrderByCreatedAtDesc", "idx_homework_year_created",
+                    "SELECT * FROM homework WHERE academic_year_id = 4 ORDER BY created_at DESC"),
+            new Finder("findByPriorityOrderByCreatedAtDesc", "idx_homework_priority_created",
+                    "SELECT * FROM homework WHERE priority = 'URGENT' ORDER BY created_at DESC"),
+            new Finder("findOverdueHomework", "idx_homework_status_due",
+                    "SELECT * FROM homework WHERE due_date < '2024-01-10' AND status = 'ACTIVE' ORDER BY due_date ASC"),
+            new Finder("findUpcomingHomework", "idx_homework_status_due",
+                    "SELECT * FROM homework WHERE due_date BETWEEN '2024-01-10' AND '2024-01-17' " +
+                    "AND status = 'ACTIVE' ORDER BY due_date ASC"),
+            new Finder("findByDueDateBetweenOrderByDueDateAsc", "idx_homework_due_date_status",
+                    "SELECT * FROM homework WHERE due_date BETWEEN '2024-03-01' AND '2024-03-07' " +
+                    "ORDER BY due_date ASC"));
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @BeforeAll
+    static void createHomeworkTable() throws Exception {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            // homework as created by database/homework_tables.sql, without the foreign keys
+            statement.execute("CREATE TABLE homework (" +
+                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(255) NOT NULL, description TEXT, " +
+                    "subject_id BIGINT NOT NULL, class_id BIGINT NOT NULL, section VARCHAR(10) NOT NULL, " +
+                    "teacher_id BIGINT NOT NULL, academic_year_id BIGINT NOT NULL, " +
+                    "assigned_date DATE NOT NULL, due_date DATE NOT NULL, " +
+                    "priority ENUM('LOW', 'NORMAL', 'HIGH', 'URGENT') DEFAULT 'NORMAL', " +
+                    "status ENUM('ACTIVE', 'COMPLETED', 'ARCHIVED') DEFAULT 'ACTIVE', " +
+                    "attachment_url VARCHAR(500), attachment_name VARCHAR(255), " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                    "INDEX idx_homework_teacher (teacher_id), INDEX idx_homework_subject (subject_id), " +
+                    "INDEX idx_homework_class_section (class_id, section), INDEX idx_homework_due_date (due_date), " +
+                    "INDEX idx_homework_status (status), INDEX idx_homework_priority (priority), " +
+                    "INDEX idx_homework_academic_year (academic_year_id))");
+            statement.execute("CREATE INDEX idx_homework_teacher_subject ON homework(teacher_id, subject_id)");
+            statement.execute("CREATE INDEX idx_homework_class_section_academic ON homework(class_id, section, academic_year_id)");
+            statement.execute("CREATE INDEX idx_homework_due_date_status ON homework(due_date, status)");
+            statement.execute("CREATE INDEX idx_homework_priority_status ON homework(priority, status)");
+
+            // 10,000 rows over 200 teachers, 30 subjects, 40 classes, 3 sections and 13 years; the
+            // moduli are chosen so that every combination the finders filter on has a few rows
+            statement.execute("INSERT INTO homework (title, subject_id, class_id, section, teacher_id, " +
+                    "academic_year_id, assigned_date, due_date, priority, status, created_at) " +
+                    "SELECT CONCAT('Homework ', n), n % 30 + 1, n % 40 + 1, ELT(n % 3 + 1, 'A', 'B', 'C'), " +
+                    "n % 200 + 1, n % 13 + 1, DATE('2024-01-01') + INTERVAL (n % 365) DAY - INTERVAL 7 DAY, " +
+                    "DATE('2024-01-01') + INTERVAL (n % 365) DAY, " +
+                    "CASE WHEN n % 20 = 0 THEN 'URGENT' WHEN n % 5 = 0 THEN 'HIGH' WHEN n % 7 = 0 THEN 'LOW' " +
+                    "ELSE 'NORMAL' END, " +
+                    "ELT(n % 7 + 1, 'ACTIVE', 'ACTIVE', 'ACTIVE', 'COMPLETED', 'COMPLETED', 'COMPLETED', 'ARCHIVED'), " +
+                    "TIMESTAMP('2024-01-01') + INTERVAL n MINUTE " +
+                    "FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d AS n " +
+                    "      FROM " + digits("a") + " CROSS JOIN " + digits("b") + " CROSS JOIN " + digits("c") +
+                    "      CROSS JOIN " + digits("e") + ") numbers");
+
+            for (String migrationStatement : Files.readString(MIGRATION).split(";")) {
+                String sql = stripComments(migrationStatement);
+                if (!sql.isEmpty() && !sql.startsWith("USE ")) {
+                    statement.execute(sql);
+                }
+            }
+            statement.execute("ANALYZE TABLE homework");
+        }
+    }
+
+    @Test
+    void everyRepositoryFinderHasAPlan() {
+        Set<String> declared = Arrays.stream(HomeworkRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Set<String> covered = FINDERS.stream()
+                .map(Finder::method)
+                .collect(Collectors.toCollection(TreeSet::new));
+        assertEquals(declared, covered, "HomeworkRepository finders and the plans checked here differ");
+    }
+
+    @Test
+    void everyFinderReadsItsIndexInOrder() throws SQLException {
+        List<String> failures = new ArrayList<>();
+        for (Finder finder : FINDERS) {
+            String failure = checkPlan(finder);
+            if (failure != null) {
+                failures.add(finder.method() + ": " + failure);
+            }
+        }
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    /**
+     * @return what is wrong with the finder's plan, or null if it reads its
+     *         index in order
+     */
+    private static String checkPlan(Finder finder) throws SQLException {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN " + finder.sql())) {
+            if (!plan.next()) {
+                return "no plan";
+            }
+            String type = plan.getString("type");
+            String key = plan.getString("key");
+            String extra = plan.getString("Extra") != null ? plan.getString("Extra") : "";
+            if ("ALL".equals(type)) {
+                return "full table scan";
+            }
+            if (!finder.index().equals(key)) {
+                return "uses " + key + " instead of " + finder.index();
+            }
+            if (extra.contains("Using filesort") || extra.contains("Using temporary")) {
+                return "sorts instead of reading in order (" + extra + ")";
+            }
+            return null;
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+    }
+
+    private static String digits(String alias) {
+        return "(SELECT 0 AS d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4 " +
+                "UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) " +
+                alias;
+    }
+
+    private static String stripComments(String sql) {
+        StringBuilder stripped = new StringBuilder();
+        for (String line : sql.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                stripped.append(line).append('\n');
+            }
+        }
+        return stripped.toString().trim();
+    }
+
+    private record Finder(String method, String index, String sql) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.school.studentservice.service.homework;
+
+import com.school.studentservice.model.TeacherSubject;
+import com.school.studentservice.repository.TeacherSubjectRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TeacherAuthorizationMatrixTest {
+
+    @Test
+    void sectionsMatchTrimmedAndIgnoringCase() {
+        TeacherAuthorizationMatrix matrix = loaded(List.of(
+                new TeacherSubject(1L, 10L, 100L, "a", 1L),
+                new TeacherSubject(1L, 10L, 100L, " B ", 1L)));
+
+        assertTrue(matrix.isAuthorized(1L, 10L, 100L, "A"));
+        assertTrue(matrix.isAuthorized(1L, 10L, 100L, "a"));
+        assertTrue(matrix.isAuthorized(1L, 10L, 100L, " a"));
+        assertTrue(matrix.isAuthorized(1L, 10L, 100L, "b"));
+        assertTrue(matrix.isAuthorized(1L, 10L, 100L, "B "));
+        assertFalse(matrix.isAuthorized(1L, 10L, 100L, "C"));
+    }
+
+    @Test
+    void otherSubjectClassOrTeacherIsNotAuthorized() {
+        TeacherAuthorizationMatrix matrix = loaded(List.of(
+                new TeacherSubject(1L, 10L, 100L, "A", 1L),
+                new TeacherSubject(1L, 11L, 101L, "A", 1L)));
+
+        assertFalse(matrix.isAuthorized(1L, 10L, 101L, "A"));
+        assertFalse(matrix.isAuthorized(1L, 12L, 100L, "A"));
+        assertFalse(matrix.isAuthorized(2L, 10L, 100L, "A"));
+        assertFalse(matrix.isAuthorized(1L, 10L, 100L, null));
+        assertEquals(List.of(10L, 11L), matrix.getSubjectIds(1L));
+        assertEquals(List.of(100L, 101L), matrix.getClassIds(1L));
+    }
+
+    private static TeacherAuthorizationMatrix loaded(List<TeacherSubject> assignments) {
+        TeacherSubjectRepository repository = (TeacherSubjectRepository) Proxy.newProxyInstance(
+                TeacherSubjectRepository.class.getClassLoader(),
+                new Class<?>[] {TeacherSubjectRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByIsActiveTrue")) {
+                        return assignments;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        TeacherAuthorizationMatrix matrix = new TeacherAuthorizationMatrix(repository);
+        matrix.reload();
+        assertTrue(matrix.isReady());
+        return matrix;
+    }
+}
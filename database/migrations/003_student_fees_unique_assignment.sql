@@ -0,0 +1,13 @@
+-- Migration 003: One assignment per student and fee structure
+-- Bulk fee assignment relies on this key to stay idempotent when re-run
+
+USE school_fee_register;
+
+-- List duplicate assignments; these must be resolved before the key can be added
+SELECT student_id, fee_structure_id, COUNT(*) AS assignments
+FROM student_fees
+GROUP BY student_id, fee_structure_id
+HAVING COUNT(*) > 1;
+
+ALTER TABLE student_fees
+    ADD UNIQUE KEY uk_student_fee_structure (student_id, fee_structure_id);
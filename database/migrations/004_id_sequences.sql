@@ -0,0 +1,13 @@
+-- Migration 004: Shared counters for receipt and transaction numbers
+-- fee-service instances reserve blocks of values from these rows
+
+USE school_fee_register;
+
+CREATE TABLE IF NOT EXISTS id_sequences (
+    name VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT NOT NULL DEFAULT 1,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+INSERT IGNORE INTO id_sequences (name, next_value) VALUES ('receipt_number', 1);
+INSERT IGNORE INTO id_sequences (name, next_value) VALUES ('transaction_id', 1);
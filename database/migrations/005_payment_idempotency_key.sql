@@ -0,0 +1,8 @@
+-- Migration 005: Idempotency keys for payment submissions
+-- A retried POST /api/payments with the same Idempotency-Key returns the original payment
+
+USE school_fee_register;
+
+ALTER TABLE fee_payments
+    ADD COLUMN idempotency_key VARCHAR(100) NULL,
+    ADD UNIQUE KEY uk_fee_payments_idempotency_key (idempotency_key);
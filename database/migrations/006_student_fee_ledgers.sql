@@ -0,0 +1,18 @@
+-- Migration 006: Per-student fee ledger projection
+-- Maintained by fee-service from student_fees and fee_payments; rebuilt nightly
+
+USE school_fee_register;
+
+CREATE TABLE IF NOT EXISTS student_fee_ledgers (
+    student_id BIGINT PRIMARY KEY,
+    total_billed DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    total_discount DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    total_paid DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    total_late_fee DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    balance DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    next_due_date DATE NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- Supports the per-student aggregates used to refresh a ledger row
+CREATE INDEX idx_fee_payments_student_status ON fee_payments (student_id, payment_status);
@@ -0,0 +1,7 @@
+-- Migration 007: Accrued late fee on student fees
+-- Written by the fee-service overdue sweep from the configured late fee rules
+
+USE school_fee_register;
+
+ALTER TABLE student_fees
+    ADD COLUMN late_fee_amount DECIMAL(10,2) NOT NULL DEFAULT 0.00 AFTER due_date;
@@ -0,0 +1,19 @@
+-- Migration 008: Parent account provisioning outbox
+-- student-service records parent login requests here in the student transaction;
+-- a background worker creates the accounts on auth-service in batches
+
+USE school_fee_register;
+
+CREATE TABLE IF NOT EXISTS parent_account_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    phone VARCHAR(20) NOT NULL,
+    full_name VARCHAR(150) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_parent_account_outbox_due (status, next_attempt_at, id)
+);
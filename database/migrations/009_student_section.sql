@@ -0,0 +1,9 @@
+-- Migration 009: Section on students
+-- Lets student-service serve class/section rosters; homework and teacher
+-- assignments are already keyed by class and section
+
+USE school_fee_register;
+
+ALTER TABLE students
+    ADD COLUMN section VARCHAR(10) NULL AFTER class_id,
+    ADD INDEX idx_students_class_section_year (class_id, section, academic_year_id);